@@ -1,22 +1,33 @@
 package org.example.bookingtower.api.controller;
 
+import org.example.bookingtower.application.service.AvailabilityFeed;
 import org.example.bookingtower.application.service.AvailabilityService;
-import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.application.service.AvailabilityVersions;
+import org.example.bookingtower.application.service.SlotGenerationJobService;
+import org.example.bookingtower.domain.entity.SlotOccupancyHourly;
+import org.example.bookingtower.infrastructure.repository.projection.SlotView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST-контроллер AvailabilityController, предоставляющий API BookingTower.
+ *
+ * GET-запросы доступности отдают ETag по версии данных ({@link AvailabilityVersions})
+ * и отвечают 304 Not Modified на совпадающий If-None-Match, не обращаясь к базе.
  */
 @RestController
 @RequestMapping("/api/availability")
@@ -26,10 +37,19 @@ public class AvailabilityController {
     private static final Logger logger = LoggerFactory.getLogger(AvailabilityController.class);
 
     private final AvailabilityService availabilityService;
+    private final AvailabilityFeed availabilityFeed;
+    private final AvailabilityVersions availabilityVersions;
+    private final SlotGenerationJobService slotGenerationJobService;
 
     @Autowired
-    public AvailabilityController(AvailabilityService availabilityService) {
+    public AvailabilityController(AvailabilityService availabilityService,
+                                  AvailabilityFeed availabilityFeed,
+                                  AvailabilityVersions availabilityVersions,
+                                  SlotGenerationJobService slotGenerationJobService) {
         this.availabilityService = availabilityService;
+        this.availabilityFeed = availabilityFeed;
+        this.availabilityVersions = availabilityVersions;
+        this.slotGenerationJobService = slotGenerationJobService;
     }
 
     /**
@@ -43,21 +63,27 @@ public class AvailabilityController {
      * @param date        Дата, на которую можно проверить доступность, отформатированная как дата ISO (yyyy-mm-dd)
      * @param fromTime    Дополнительный параметр для указания начала диапазона времени, отформатированный как время ISO (HH: MM: SS)
      * @param toTime      Дополнительный параметр для указания конца диапазона времени, отформатированный как время ISO (HH: MM: SS)
-     * @return Ответ, содержащий список доступных объектов CalendarSlot, если успешно,
+     * @return Ответ, содержащий список доступных слотов ({@link SlotView}), если успешно,
      * или соответствующий ответ на ошибку HTTP, если операция не выполняется
      */
     @GetMapping("/workspace/{workspaceId}")
-    public ResponseEntity<List<CalendarSlot>> getAvailableSlots(
+    public ResponseEntity<List<SlotView>> getAvailableSlots(
             @PathVariable Long workspaceId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime fromTime,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime toTime) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime toTime,
+            WebRequest webRequest) {
 
         logger.info("Getting available slots for workspace {} on date {}", workspaceId, date);
 
+        String etag = availabilityVersions.workspaceETag(workspaceId, date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         try {
-            List<CalendarSlot> availableSlots = availabilityService.getAvailableSlots(workspaceId, date, fromTime, toTime);
-            return ResponseEntity.ok(availableSlots);
+            List<SlotView> availableSlots = availabilityService.getAvailableSlots(workspaceId, date, fromTime, toTime);
+            return ResponseEntity.ok().eTag(etag).body(availableSlots);
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request for availability: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -68,29 +94,39 @@ public class AvailabilityController {
     }
 
     /**
-     * Получает Long список доступных календарных слотов для указанного рабочего пространства
-     * Возвращает: Page<CalendarSlot> — страницу слотов.
+     * Получает страницу доступных календарных слотов для указанного рабочего пространства.
+     * Пагинация keyset-курсором по (коду места, времени начала): в ответе {@code nextCursor},
+     * который передаётся в следующий запрос; {@code null} означает последнюю страницу.
      *
      * @param workspaceId the ID of the workspace for which to find available slots
      * @param date        the date for which to retrieve available slots
      * @param fromTime    optional parameter specifying the start of the time range to filter available slots
      * @param toTime      optional parameter specifying the end of the time range to filter available slots
-     * @param pageable    the pagination information, including page number and size
-     * @return a ResponseEntity containing a paginated list of available calendar slots, or an error response in case of invalid input or server error
+     * @param cursor      opaque cursor returned by the previous page; omitted for the first page
+     * @param size        page size, capped at {@link AvailabilityService#MAX_PAGE_SIZE}
+     * @return a ResponseEntity containing a page of available calendar slots, or 400 for invalid input or cursor
      */
     @GetMapping("/workspace/{workspaceId}/paged")
-    public ResponseEntity<Page<CalendarSlot>> getAvailableSlotsPaged(
+    public ResponseEntity<AvailabilityService.SlotPage> getAvailableSlotsPaged(
             @PathVariable Long workspaceId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime fromTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime toTime,
-            Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
 
         logger.info("Getting paged available slots for workspace {} on date {}", workspaceId, date);
 
+        String etag = availabilityVersions.workspaceETag(workspaceId, date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         try {
-            Page<CalendarSlot> availableSlots = availabilityService.getAvailableSlots(workspaceId, date, fromTime, toTime, pageable);
-            return ResponseEntity.ok(availableSlots);
+            AvailabilityService.SlotPage availableSlots =
+                    availabilityService.getAvailableSlotsPage(workspaceId, date, fromTime, toTime, cursor, size);
+            return ResponseEntity.ok().eTag(etag).body(availableSlots);
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request for availability: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -100,29 +136,75 @@ public class AvailabilityController {
         }
     }
 
+    /**
+     * Получает свободное время рабочего пространства за диапазон дат одним запросом.
+     * Для каждого места и дня возвращаются склеенные интервалы "HH:mm-HH:mm" вместо отдельных слотов,
+     * поэтому недельное расписание помещается в несколько килобайт.
+     *
+     * @param workspaceId идентификатор рабочего пространства
+     * @param from        первый день диапазона (ISO yyyy-mm-dd)
+     * @param to          последний день диапазона включительно (ISO yyyy-mm-dd)
+     * @return 200 OK с интервалами, 400 Bad Request при некорректном диапазоне или рабочем пространстве
+     */
+    @GetMapping("/workspace/{workspaceId}/range")
+    public ResponseEntity<AvailabilityService.AvailabilityRange> getAvailabilityRange(
+            @PathVariable Long workspaceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
+
+        logger.info("Getting availability range for workspace {} from {} to {}", workspaceId, from, to);
+
+        // Некорректный диапазон отклоняет сервис; версию считаем только для допустимого
+        String etag = null;
+        if (!to.isBefore(from) && !to.isAfter(from.plusDays(AvailabilityService.MAX_RANGE_DAYS - 1))) {
+            etag = availabilityVersions.workspaceRangeETag(workspaceId, from, to);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+        }
+
+        try {
+            AvailabilityService.AvailabilityRange range = availabilityService.getAvailabilityRange(workspaceId, from, to);
+            return ResponseEntity.ok().eTag(etag).body(range);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid request for availability range: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error getting availability range", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Получает список доступных слотов календаря для указанного коворкинга в данную дату.
-     * Возвращает: List<CalendarSlot> — свободные слоты по ВСЕМ рабочим местам данного коворкинга.
+     * Возвращает: List<SlotView> — свободные слоты по ВСЕМ рабочим местам данного коворкинга.
      *
      * @param coworkingId the identifier of the coworking space
      * @param date        the date for which to retrieve available slots, formatted in ISO.DATE
      * @param fromTime    optional parameter, specifies the start time of the desired time range, formatted in ISO.TIME
      * @param toTime      optional parameter, specifies the end time of the desired time range, formatted in ISO.TIME
-     * @return a response entity containing a list of {@code CalendarSlot} objects representing available slots,
+     * @return a response entity containing a list of {@code SlotView} objects representing available slots,
      * or an appropriate HTTP status code in case of errors
      */
     @GetMapping("/coworking/{coworkingId}")
-    public ResponseEntity<List<CalendarSlot>> getAvailableSlotsByCoworking(
+    public ResponseEntity<List<SlotView>> getAvailableSlotsByCoworking(
             @PathVariable Long coworkingId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime fromTime,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime toTime) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime toTime,
+            WebRequest webRequest) {
 
         logger.info("Getting available slots for coworking {} on date {}", coworkingId, date);
 
+        String etag = availabilityVersions.dateETag(date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         try {
-            List<CalendarSlot> availableSlots = availabilityService.getAvailableSlotsByCoworking(coworkingId, date, fromTime, toTime);
-            return ResponseEntity.ok(availableSlots);
+            List<SlotView> availableSlots = availabilityService.getAvailableSlotsByCoworking(coworkingId, date, fromTime, toTime);
+            return ResponseEntity.ok().eTag(etag).body(availableSlots);
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request for coworking availability: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -132,6 +214,49 @@ public class AvailabilityController {
         }
     }
 
+    /**
+     * Ищет самые ранние свободные окна заданной длительности по всем рабочим пространствам коворкинга,
+     * например «первые 2 часа завтра где угодно». Окна ранжированы по времени начала;
+     * в каждом окне перечислены слоты, которые нужно удержать.
+     *
+     * @param coworkingId     идентификатор коворкинга
+     * @param date            дата в формате ISO (YYYY-MM-DD)
+     * @param durationMinutes длительность окна в минутах
+     * @param limit           максимальное количество окон (не более {@link AvailabilityService#MAX_WINDOWS})
+     * @param fromTime        необязательное начало интервала поиска (ISO HH:mm)
+     * @param toTime          необязательный конец интервала поиска (ISO HH:mm)
+     * @return 200 OK со списком окон, 400 Bad Request при некорректных параметрах
+     */
+    @GetMapping("/coworking/{coworkingId}/windows")
+    public ResponseEntity<List<AvailabilityService.FreeWindow>> findFreeWindows(
+            @PathVariable Long coworkingId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "60") int durationMinutes,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime fromTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime toTime,
+            WebRequest webRequest) {
+
+        logger.info("Searching {} free windows of {} minutes in coworking {} on {}", limit, durationMinutes, coworkingId, date);
+
+        String etag = availabilityVersions.dateETag(date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        try {
+            List<AvailabilityService.FreeWindow> windows =
+                    availabilityService.findFreeWindows(coworkingId, date, fromTime, toTime, durationMinutes, limit);
+            return ResponseEntity.ok().eTag(etag).body(windows);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid free window search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error searching free windows", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * Получает сводку доступности для конкретного рабочего пространства в данную дату.
      *
@@ -143,26 +268,20 @@ public class AvailabilityController {
     @GetMapping("/workspace/{workspaceId}/summary")
     public ResponseEntity<AvailabilityService.WorkspaceAvailabilitySummary> getWorkspaceAvailabilitySummary(
             @PathVariable Long workspaceId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
 
         logger.info("Getting availability summary for workspace {} on date {}", workspaceId, date);
 
+        String etag = availabilityVersions.workspaceETag(workspaceId, date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         try {
-            // Для отдельного рабочего места нужно сначала определить коворкинг
-            // Упрощённая версия: в реальном приложении нужен метод для получения сводки по одному рабочему месту
-            List<AvailabilityService.WorkspaceAvailabilitySummary> summaries =
-                    availabilityService.getWorkspaceAvailabilitySummary(1L, date); // Assuming coworking ID 1
-
-            AvailabilityService.WorkspaceAvailabilitySummary summary = summaries.stream()
-                    .filter(s -> s.getWorkspaceId().equals(workspaceId))
-                    .findFirst()
-                    .orElse(null);
-
-            if (summary != null) {
-                return ResponseEntity.ok(summary);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
+            return availabilityService.getSingleWorkspaceAvailabilitySummary(workspaceId, date)
+                    .map(summary -> ResponseEntity.ok().eTag(etag).body(summary))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Error getting workspace availability summary", e);
             return ResponseEntity.internalServerError().build();
@@ -170,41 +289,196 @@ public class AvailabilityController {
     }
 
     /**
-     * Генерирует слоты доступности для указанного рабочего пространства в пределах данного диапазона дат
-     * и дополнительное ежедневное время открытия/закрытия и продолжительность слота.
+     * Получает сводку доступности по всем активным рабочим пространствам коворкинга в данную дату.
+     *
+     * @param coworkingId идентификатор коворкинга
+     * @param date        дата в формате ISO (YYYY-MM-DD)
+     * @return список сводок по рабочим пространствам или 500 при внутренней ошибке
+     */
+    @GetMapping("/coworking/{coworkingId}/summary")
+    public ResponseEntity<List<AvailabilityService.WorkspaceAvailabilitySummary>> getCoworkingAvailabilitySummary(
+            @PathVariable Long coworkingId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
+
+        logger.info("Getting availability summary for coworking {} on date {}", coworkingId, date);
+
+        String etag = availabilityVersions.dateETag(date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        try {
+            return ResponseEntity.ok().eTag(etag).body(availabilityService.getWorkspaceAvailabilitySummary(coworkingId, date));
+        } catch (Exception e) {
+            logger.error("Error getting coworking availability summary", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Получает почасовую занятость рабочего пространства в данную дату: по каждому часу
+     * количество слотов в статусах OPEN, HELD, BOOKED и FROZEN.
+     *
+     * @param workspaceId идентификатор рабочего пространства
+     * @param date        дата в формате ISO (YYYY-MM-DD)
+     * @return список почасовых агрегатов (часы без слотов отсутствуют) или 500 при внутренней ошибке
+     */
+    @GetMapping("/workspace/{workspaceId}/occupancy")
+    public ResponseEntity<List<SlotOccupancyHourly>> getHourlyOccupancy(
+            @PathVariable Long workspaceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
+
+        logger.info("Getting hourly occupancy for workspace {} on date {}", workspaceId, date);
+
+        String etag = availabilityVersions.workspaceETag(workspaceId, date);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        try {
+            return ResponseEntity.ok().eTag(etag).body(availabilityService.getHourlyOccupancy(workspaceId, date));
+        } catch (Exception e) {
+            logger.error("Error getting hourly occupancy", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Запускает фоновую генерацию слотов доступности для указанного рабочего пространства в пределах данного
+     * диапазона дат и дополнительное ежедневное время открытия/закрытия и продолжительность слота.
+     * Коды ответа:
+     * 202 Accepted — задача поставлена в очередь, Location указывает на её состояние.
+     * 400 Bad Request — рабочее пространство не найдено или диапазон некорректен.
+     * 429 Too Many Requests — достигнут лимит задач генерации.
+     * 500 Internal Server Error — иные ошибки
      *
      * @param workspaceId         the ID of the workspace for which slots are to be generated
      * @param startDate           the start date from which slots are to be generated
      * @param endDate             the end date until which slots are to be generated
      * @param dailyOpenTime       the daily opening time of the workspace (optional)
      * @param dailyCloseTime      the daily closing time of the workspace (optional)
-     * @param slotDurationMinutes the duration in minutes for each slot; defaults to 60 minutes if not specified
-     * @return ResponseEntity containing a success message if slots are generated successfully,
-     * or an error message if the request is invalid or an error occurs during slot generation
+     * @param slotDurationMinutes the duration in minutes for each slot; 0 (default) takes it from the coworking schedule template
+     * @return состояние поставленной задачи генерации
      */
     @PostMapping("/workspace/{workspaceId}/generate-slots")
-    public ResponseEntity<String> generateSlots(
+    public ResponseEntity<SlotGenerationJobService.JobStatus> generateSlots(
             @PathVariable Long workspaceId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime dailyOpenTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime dailyCloseTime,
-            @RequestParam(defaultValue = "60") int slotDurationMinutes) {
+            @RequestParam(defaultValue = "0") int slotDurationMinutes) {
 
         logger.info("Generating slots for workspace {} from {} to {}", workspaceId, startDate, endDate);
 
         try {
-            availabilityService.generateSlots(workspaceId, startDate, endDate, dailyOpenTime, dailyCloseTime, slotDurationMinutes);
-            return ResponseEntity.ok("Slots generated successfully");
+            return accepted(slotGenerationJobService.submitWorkspace(
+                    workspaceId, startDate, endDate, dailyOpenTime, dailyCloseTime, slotDurationMinutes));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid request for slot generation: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Slot generation job rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (Exception e) {
+            logger.error("Error submitting slot generation job", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Открывает поток Server-Sent Events с изменениями слотов рабочего пространства за дату.
+     * Каждое событие {@code slots} содержит список изменений: идентификаторы слота и места,
+     * время, предыдущий и текущий статус ({@code null} — слот создан или удалён).
+     * Заменяет периодический опрос {@code /slot/{slotId}/available}.
+     *
+     * @param workspaceId идентификатор рабочего пространства
+     * @param date        дата в формате ISO (YYYY-MM-DD)
+     * @return открытый SSE-поток
+     */
+    @GetMapping(value = "/workspace/{workspaceId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(
+            @PathVariable Long workspaceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        logger.info("Opening availability stream for workspace {} on date {}", workspaceId, date);
+        return availabilityFeed.subscribe(workspaceId, date);
+    }
+
+    /**
+     * Запускает фоновую генерацию слотов для всех активных рабочих пространств в диапазоне дат.
+     * Рабочие пространства обрабатываются параллельно, каждое в своей транзакции;
+     * прогресс задачи считается по рабочим пространствам.
+     *
+     * @param startDate первый день диапазона (ISO yyyy-mm-dd)
+     * @param endDate   последний день диапазона включительно (ISO yyyy-mm-dd)
+     * @return 202 Accepted с состоянием задачи, 400 Bad Request при некорректном диапазоне,
+     * 429 Too Many Requests при достижении лимита задач
+     */
+    @PostMapping("/generate-slots")
+    public ResponseEntity<SlotGenerationJobService.JobStatus> generateSlotsForAllWorkspaces(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        logger.info("Generating slots for all workspaces from {} to {}", startDate, endDate);
+
+        try {
+            return accepted(slotGenerationJobService.submitAllWorkspaces(startDate, endDate));
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request for slot generation: {}", e.getMessage());
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Slot generation job rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         } catch (Exception e) {
-            logger.error("Error generating slots", e);
-            return ResponseEntity.internalServerError().body("Failed to generate slots");
+            logger.error("Error submitting slot generation job for all workspaces", e);
+            return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Задачи генерации слотов этого узла, последние — первыми.
+     */
+    @GetMapping("/generation-jobs")
+    public ResponseEntity<List<SlotGenerationJobService.JobStatus>> getGenerationJobs() {
+        return ResponseEntity.ok(slotGenerationJobService.getJobs());
+    }
+
+    /**
+     * Состояние и прогресс задачи генерации.
+     * Коды ответа:
+     * 200 OK — состояние задачи.
+     * 404 Not Found — задача не найдена (или уже удалена по сроку хранения)
+     */
+    @GetMapping("/generation-jobs/{jobId}")
+    public ResponseEntity<SlotGenerationJobService.JobStatus> getGenerationJob(@PathVariable String jobId) {
+        return slotGenerationJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Отменяет задачу генерации: ожидающая не запустится, выполняющаяся остановится после текущей порции дней.
+     * Коды ответа:
+     * 200 OK — состояние задачи после запроса отмены.
+     * 404 Not Found — задача не найдена
+     */
+    @DeleteMapping("/generation-jobs/{jobId}")
+    public ResponseEntity<SlotGenerationJobService.JobStatus> cancelGenerationJob(@PathVariable String jobId) {
+        logger.info("Cancelling slot generation job {}", jobId);
+        return slotGenerationJobService.cancel(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<SlotGenerationJobService.JobStatus> accepted(SlotGenerationJobService.JobStatus job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/availability/generation-jobs/" + job.jobId()))
+                .body(job);
+    }
+
     /**
      * Логирует и вызывает availabilityService.isSlotAvailable(slotId)? свободен ли конкретный слот.
      * @param slotId
@@ -225,4 +499,30 @@ public class AvailabilityController {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Пакетная проверка статусов слотов: один запрос вместо вызова {@code /slot/{slotId}/available} на каждый слот.
+     * Свободен слот со статусом OPEN (истёкшее удержание считается свободным).
+     * Коды ответа:
+     * 200 OK — статусы найденных слотов и список неизвестных идентификаторов.
+     * 400 Bad Request — слишком много идентификаторов.
+     * 500 Internal Server Error — иные ошибки
+     *
+     * @param slotIds список идентификаторов слотов (не более {@link AvailabilityService#MAX_PAGE_SIZE})
+     * @return карта идентификатор → статус и список ненайденных идентификаторов
+     */
+    @PostMapping("/slots/status")
+    public ResponseEntity<AvailabilityService.SlotStatusBatch> getSlotStatuses(@RequestBody List<Long> slotIds) {
+        logger.info("Checking status of {} slots", slotIds.size());
+
+        try {
+            return ResponseEntity.ok(availabilityService.getSlotStatuses(slotIds));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch slot status request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error checking slot statuses", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
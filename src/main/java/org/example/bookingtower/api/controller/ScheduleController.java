@@ -0,0 +1,152 @@
+package org.example.bookingtower.api.controller;
+
+import org.example.bookingtower.application.service.ScheduleTemplateService;
+import org.example.bookingtower.domain.entity.ScheduleException;
+import org.example.bookingtower.domain.entity.ScheduleTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * REST-контроллер ScheduleController для управления шаблонами расписания коворкингов:
+ * часы работы по дням недели, праздники и особые дни.
+ */
+@RestController
+@RequestMapping("/api/admin/schedule")
+public class ScheduleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleController.class);
+
+    private final ScheduleTemplateService scheduleTemplateService;
+
+    @Autowired
+    public ScheduleController(ScheduleTemplateService scheduleTemplateService) {
+        this.scheduleTemplateService = scheduleTemplateService;
+    }
+
+    /**
+     * Правила коворкинга по дням недели. Пустой список — расписание по умолчанию (будни, часы коворкинга).
+     */
+    @GetMapping("/coworking/{coworkingId}")
+    public ResponseEntity<List<ScheduleTemplate>> getWeekdayRules(@PathVariable Long coworkingId) {
+        try {
+            return ResponseEntity.ok(scheduleTemplateService.getWeekdayRules(coworkingId));
+        } catch (Exception e) {
+            logger.error("Error getting schedule of coworking {}", coworkingId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Заменяет правила коворкинга по дням недели; дни без правила становятся выходными.
+     * Коды ответа:
+     * 200 OK — сохранённые правила.
+     * 400 Bad Request — коворкинг не найден или правило некорректно.
+     * 500 Internal Server Error — иные ошибки
+     */
+    @PutMapping("/coworking/{coworkingId}")
+    public ResponseEntity<List<ScheduleTemplate>> replaceWeekdayRules(
+            @PathVariable Long coworkingId,
+            @RequestBody List<ScheduleTemplateService.WeekdayRule> rules) {
+        logger.info("Replacing schedule of coworking {} with {} rules", coworkingId, rules.size());
+
+        try {
+            return ResponseEntity.ok(scheduleTemplateService.replaceWeekdayRules(coworkingId, rules));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid schedule request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error replacing schedule of coworking {}", coworkingId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Часы работы коворкинга в конкретный день по скомпилированному расписанию.
+     * Коды ответа:
+     * 200 OK — часы работы.
+     * 204 No Content — день нерабочий.
+     * 400 Bad Request — коворкинг не найден.
+     * 500 Internal Server Error — иные ошибки
+     */
+    @GetMapping("/coworking/{coworkingId}/day")
+    public ResponseEntity<ScheduleTemplateService.DayHours> getDayHours(
+            @PathVariable Long coworkingId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            ScheduleTemplateService.DayHours hours = scheduleTemplateService.forDay(coworkingId, date);
+            return hours != null ? ResponseEntity.ok(hours) : ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid schedule day request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error getting schedule day of coworking {}", coworkingId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Исключения расписания коворкинга; без {@code coworkingId} — общий календарь праздников.
+     */
+    @GetMapping("/exceptions")
+    public ResponseEntity<List<ScheduleException>> getExceptions(@RequestParam(required = false) Long coworkingId) {
+        try {
+            return ResponseEntity.ok(scheduleTemplateService.getExceptions(coworkingId));
+        } catch (Exception e) {
+            logger.error("Error getting schedule exceptions of coworking {}", coworkingId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Создаёт или заменяет исключение на дату: праздник ({@code closed = true}) или особые часы работы.
+     * Коды ответа:
+     * 200 OK — сохранённое исключение.
+     * 400 Bad Request — коворкинг не найден или часы некорректны.
+     * 500 Internal Server Error — иные ошибки
+     */
+    @PostMapping("/exceptions")
+    public ResponseEntity<ScheduleException> saveException(@RequestBody ExceptionRequest request) {
+        logger.info("Saving schedule exception {} for coworking {}", request.date(), request.coworkingId());
+
+        try {
+            return ResponseEntity.ok(scheduleTemplateService.saveException(request.coworkingId(), request.date(),
+                    request.closed(), request.openFrom(), request.openTo(), request.reason()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid schedule exception request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error saving schedule exception", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @DeleteMapping("/exceptions/{exceptionId}")
+    public ResponseEntity<Void> deleteException(@PathVariable Long exceptionId) {
+        try {
+            scheduleTemplateService.deleteException(exceptionId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid schedule exception delete request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error deleting schedule exception {}", exceptionId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    public record ExceptionRequest(Long coworkingId,
+                                   LocalDate date,
+                                   boolean closed,
+                                   LocalTime openFrom,
+                                   LocalTime openTo,
+                                   String reason) {
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.bookingtower.api.controller;
+
+import org.example.bookingtower.application.service.AvailabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST-контроллер SlotAdminController для массовых операций администратора над слотами:
+ * заморозка и разморозка по рабочему пространству, списку мест и интервалу времени.
+ */
+@RestController
+@RequestMapping("/api/admin/slots")
+public class SlotAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotAdminController.class);
+
+    private final AvailabilityService availabilityService;
+
+    @Autowired
+    public SlotAdminController(AvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    /**
+     * Замораживает слоты с началом в {@code [startAt, endAt)}; забронированные пропускаются.
+     * Коды ответа:
+     * 200 OK — число изменённых и пропущенных слотов.
+     * 400 Bad Request — рабочее пространство не найдено или интервал некорректен.
+     * 500 Internal Server Error — иные ошибки
+     */
+    @PostMapping("/freeze")
+    public ResponseEntity<AvailabilityService.BulkFreezeResult> freezeSlots(@RequestBody BulkFreezeRequest request) {
+        logger.info("Freezing slots of workspace {} from {} to {}", request.workspaceId(), request.startAt(), request.endAt());
+
+        try {
+            return ResponseEntity.ok(availabilityService.freezeSlots(
+                    request.workspaceId(), request.seatIds(), request.startAt(), request.endAt()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid bulk freeze request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error freezing slots of workspace {}", request.workspaceId(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Размораживает замороженные слоты с началом в {@code [startAt, endAt)}.
+     * Коды ответа:
+     * 200 OK — число изменённых и пропущенных слотов.
+     * 400 Bad Request — рабочее пространство не найдено или интервал некорректен.
+     * 500 Internal Server Error — иные ошибки
+     */
+    @PostMapping("/unfreeze")
+    public ResponseEntity<AvailabilityService.BulkFreezeResult> unfreezeSlots(@RequestBody BulkFreezeRequest request) {
+        logger.info("Unfreezing slots of workspace {} from {} to {}", request.workspaceId(), request.startAt(), request.endAt());
+
+        try {
+            return ResponseEntity.ok(availabilityService.unfreezeSlots(
+                    request.workspaceId(), request.seatIds(), request.startAt(), request.endAt()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid bulk unfreeze request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error unfreezing slots of workspace {}", request.workspaceId(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * @param seatIds места рабочего пространства; пустой или {@code null} — все места
+     */
+    public record BulkFreezeRequest(Long workspaceId,
+                                    List<Long> seatIds,
+                                    LocalDateTime startAt,
+                                    LocalDateTime endAt) {
+    }
+}
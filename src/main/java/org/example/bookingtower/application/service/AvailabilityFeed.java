@@ -0,0 +1,236 @@
+package org.example.bookingtower.application.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Лента изменений доступности по Server-Sent Events.
+ *
+ * Подписка ведётся на пару (рабочее пространство, дата). После фиксации транзакции
+ * каждое {@link SlotStatusChangedEvent} раскладывается по подпискам, и подписчикам
+ * уходит одно SSE-событие {@code slots} со списком изменений их рабочего пространства за их дату.
+ *
+ * Слушатель только ставит изменения в очередь подписчика: запись в сокеты идёт в пуле
+ * {@code app.availability.feed-threads}, поэтому медленный клиент не задерживает удержания и бронирования.
+ * Подписчик, у которого скопилось больше {@code app.availability.feed-max-pending} неотправленных событий
+ * или запись которому не удалась, отключается; клиент переподключается и перечитывает доступность.
+ */
+@Component
+public class AvailabilityFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityFeed.class);
+
+    public static final String SLOTS_EVENT = "slots";
+
+    private final Map<FeedKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final Executor executor;
+
+    private final int maxPending;
+
+    @Value("${app.availability.feed-timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Autowired
+    public AvailabilityFeed(@Value("${app.availability.feed-threads:2}") int threads,
+                            @Value("${app.availability.feed-queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.availability.feed-max-pending:100}") int maxPending) {
+        this(newExecutor(threads, queueCapacity), maxPending);
+    }
+
+    AvailabilityFeed(Executor executor, int maxPending) {
+        this.executor = executor;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Регистрирует подписчика на изменения слотов рабочего пространства за дату.
+     */
+    public SseEmitter subscribe(Long workspaceId, LocalDate date) {
+        return subscribe(workspaceId, date, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Long workspaceId, LocalDate date, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(new FeedKey(workspaceId, date), emitter);
+        subscribers.computeIfAbsent(subscriber.key, k -> new CopyOnWriteArraySet<>()).add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        try {
+            // Первый комментарий сразу отправляет заголовки, чтобы клиент считал соединение открытым
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            unsubscribe(subscriber);
+            emitter.completeWithError(e);
+        }
+        logger.debug("Availability feed subscriber added for workspace {} on {}", workspaceId, date);
+        return emitter;
+    }
+
+    /**
+     * Раскладывает изменения по очередям подписчиков после фиксации транзакции (или сразу, если транзакции нет).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<FeedKey, List<SlotStatusChangedEvent.SlotChange>> changesByKey = event.getChanges().stream()
+                .collect(Collectors.groupingBy(change ->
+                        new FeedKey(change.workspaceId(), change.startAt().toLocalDate())));
+
+        changesByKey.forEach((key, changes) -> {
+            Set<Subscriber> keySubscribers = subscribers.get(key);
+            if (keySubscribers != null) {
+                keySubscribers.forEach(subscriber -> subscriber.offer(changes));
+            }
+        });
+    }
+
+    /**
+     * Количество активных подписчиков (для мониторинга).
+     */
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (k, keySubscribers) -> {
+            keySubscribers.remove(subscriber);
+            return keySubscribers.isEmpty() ? null : keySubscribers;
+        });
+    }
+
+    private static ExecutorService newExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "availability-feed-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Подписчик с очередью неотправленных событий. Очередь разбирает одна задача пула за раз,
+     * поэтому события одному клиенту уходят по порядку.
+     */
+    private final class Subscriber {
+        private final FeedKey key;
+        private final SseEmitter emitter;
+        private final Queue<List<SlotStatusChangedEvent.SlotChange>> outbox = new ArrayDeque<>();
+        private boolean draining;
+
+        private Subscriber(FeedKey key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        private void offer(List<SlotStatusChangedEvent.SlotChange> changes) {
+            boolean overflow = false;
+            synchronized (this) {
+                if (outbox.size() >= maxPending) {
+                    outbox.clear();
+                    overflow = true;
+                } else {
+                    outbox.add(changes);
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                }
+            }
+            if (overflow) {
+                logger.debug("Dropping slow availability feed subscriber for workspace {} on {}",
+                        key.workspaceId(), key.date());
+                drop(null);
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Availability feed queue is full, dropping subscriber for workspace {} on {}",
+                        key.workspaceId(), key.date());
+                synchronized (this) {
+                    outbox.clear();
+                    draining = false;
+                }
+                drop(null);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<SlotStatusChangedEvent.SlotChange> changes;
+                synchronized (this) {
+                    changes = outbox.poll();
+                    if (changes == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event().name(SLOTS_EVENT).data(changes));
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Dropping availability feed subscriber: {}", e.getMessage());
+                    synchronized (this) {
+                        outbox.clear();
+                        draining = false;
+                    }
+                    drop(e);
+                    return;
+                }
+            }
+        }
+
+        private void drop(Exception cause) {
+            unsubscribe(this);
+            try {
+                if (cause != null) {
+                    emitter.completeWithError(cause);
+                } else {
+                    emitter.complete();
+                }
+            } catch (Exception e) {
+                logger.debug("Availability feed emitter already closed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private record FeedKey(Long workspaceId, LocalDate date) {
+    }
+}
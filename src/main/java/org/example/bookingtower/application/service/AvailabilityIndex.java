@@ -0,0 +1,605 @@
+package org.example.bookingtower.application.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.ScheduleChangedEvent;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceSeatRepository;
+import org.example.bookingtower.infrastructure.repository.projection.SeatScheduleRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory индекс свободных слотов: для каждого рабочего пространства, дня и места
+ * хранится битовая карта OPEN-слотов по минутам начала.
+ *
+ * Индекс строится из базы при старте приложения и далее поддерживается событиями
+ * {@link SlotStatusChangedEvent}. Пока индекс не построен или запрошенная дата раньше
+ * даты построения, {@link #covers(LocalDate)} возвращает false и чтение идёт в базу.
+ *
+ * В разреженном режиме ({@code app.availability.sparse-slots=true}) OPEN-слоты в базе не хранятся:
+ * при первом обращении к дню индекс заполняет его вычисляемыми слотами по шаблону расписания коворкинга
+ * ({@link ScheduleTemplateService}, с виртуальными идентификаторами {@link VirtualSlotIds}), а сохранённые
+ * HELD/BOOKED/FROZEN-строки перекрывают их по минуте начала. Каталог мест перечитывается не реже раза в
+ * {@code app.availability.catalog-refresh-minutes} и после изменения расписания.
+ *
+ * Индекс полностью перестраивается раз в {@code app.availability.index-rebuild-minutes} и при смене дня:
+ * перестройка отбрасывает прошедшие дни и заархивированные слоты. Без {@code app.availability.sync=redis}
+ * события приходят только от своего узла, и изменения, сделанные на других, видны не позже следующей перестройки.
+ * Перед чтением слотов перестройка перезагружает {@link AvailabilityVersions}, а после применения нового
+ * расписания увеличивает версии затронутых дней. Удержания из {@link RedisHoldStore} в базе не записаны:
+ * перестройка накладывает их на OPEN-слоты как HELD.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final long MAINTENANCE_PERIOD_SECONDS = 60;
+
+    // Коды мест в рабочем пространстве не уникальны: id места разделяет одноимённые места
+    private static final Comparator<IndexedSlot> SEAT_THEN_START =
+            Comparator.comparing(IndexedSlot::seatCode).thenComparing(IndexedSlot::seatId).thenComparing(IndexedSlot::startAt);
+
+    private final CalendarSlotRepository calendarSlotRepository;
+    private final WorkspaceSeatRepository workspaceSeatRepository;
+    private final ScheduleTemplateService scheduleTemplateService;
+    private final AvailabilityVersions availabilityVersions;
+    private final RedisHoldStore redisHoldStore;
+    private final boolean sparseSlots;
+    private final int horizonDays;
+
+    @Value("${app.availability.catalog-refresh-minutes:5}")
+    private long catalogRefreshMinutes = 5;
+
+    @Value("${app.availability.index-rebuild-minutes:5}")
+    private long rebuildMinutes = 5;
+
+    private final Object rebuildLock = new Object();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    private ScheduledExecutorService maintenance;
+
+    // Изменения, пришедшие во время перестроения, чтобы не потерять их при подмене снимка
+    private List<SlotStatusChangedEvent.SlotChange> pendingChanges;
+
+    // Коворкинги с изменённым расписанием (null — календарь праздников), ещё не учтённые перестройкой
+    private List<Long> pendingSchedules = new ArrayList<>();
+
+    public AvailabilityIndex(CalendarSlotRepository calendarSlotRepository) {
+        this(calendarSlotRepository, null, null, new AvailabilityVersions(), Optional.empty(), false, 0);
+    }
+
+    @Autowired
+    public AvailabilityIndex(CalendarSlotRepository calendarSlotRepository,
+                             WorkspaceSeatRepository workspaceSeatRepository,
+                             ScheduleTemplateService scheduleTemplateService,
+                             AvailabilityVersions availabilityVersions,
+                             Optional<RedisHoldStore> redisHoldStore,
+                             @Value("${app.availability.sparse-slots:false}") boolean sparseSlots,
+                             @Value("${app.slot-generation.horizon-days:30}") int horizonDays) {
+        this.calendarSlotRepository = calendarSlotRepository;
+        this.workspaceSeatRepository = workspaceSeatRepository;
+        this.scheduleTemplateService = scheduleTemplateService;
+        this.availabilityVersions = availabilityVersions;
+        this.redisHoldStore = redisHoldStore.orElse(null);
+        this.sparseSlots = sparseSlots;
+        this.horizonDays = horizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build availability index, falling back to database reads", e);
+        }
+        startMaintenance();
+    }
+
+    private synchronized void startMaintenance() {
+        if (maintenance != null) {
+            return;
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "availability-index-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(() -> {
+            try {
+                refreshIfStale(LocalDate.now(), System.currentTimeMillis());
+            } catch (Exception e) {
+                logger.error("Failed to rebuild availability index", e);
+            }
+        }, MAINTENANCE_PERIOD_SECONDS, MAINTENANCE_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stopMaintenance() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+            maintenance = null;
+        }
+    }
+
+    /**
+     * Перестраивает индекс, если он построен раньше {@code today} или старше {@code app.availability.index-rebuild-minutes}.
+     *
+     * @return была ли выполнена перестройка
+     */
+    boolean refreshIfStale(LocalDate today, long nowMillis) {
+        Snapshot current = snapshot;
+        if (current != null && !today.isAfter(current.indexedFrom)
+                && nowMillis - current.builtAtMillis < TimeUnit.MINUTES.toMillis(rebuildMinutes)) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    /**
+     * Перестраивает индекс по слотам, начинающимся с сегодняшнего дня.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            LocalDate indexedFrom = LocalDate.now();
+            List<Long> scheduleChanges;
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+                scheduleChanges = pendingSchedules;
+                pendingSchedules = new ArrayList<>();
+            }
+
+            Snapshot previous;
+            Snapshot rebuilt;
+            SeatCatalog catalog;
+            List<SlotIndexRow> rows;
+            try {
+                // Версии читаются до слотов: загруженная версия не новее данных, попавших в снимок
+                availabilityVersions.reload(indexedFrom);
+                catalog = sparseSlots
+                        ? new SeatCatalog(workspaceSeatRepository.findActiveSeatSchedules(), scheduleTemplateService, horizonDays)
+                        : null;
+                rows = calendarSlotRepository.findIndexRowsStartingFrom(indexedFrom.atStartOfDay());
+                rebuilt = new Snapshot(indexedFrom, catalog);
+                for (SlotIndexRow row : rows) {
+                    rebuilt.put(new IndexedSlot(row.slotId(), row.workspaceId(), row.seatId(), row.seatCode(),
+                            row.startAt(), row.endAt(), row.status()));
+                }
+                if (redisHoldStore != null) {
+                    redisHoldStore.findAnnounced().forEach(rebuilt::markHeld);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingChanges = null;
+                    pendingSchedules.addAll(0, scheduleChanges);
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                pendingChanges.forEach(rebuilt::apply);
+                pendingChanges = null;
+                previous = snapshot;
+                snapshot = rebuilt;
+            }
+            for (Long coworkingId : scheduleChanges) {
+                availabilityVersions.onScheduleApplied(coworkingId, scheduleDays(coworkingId, previous, rebuilt));
+            }
+            if (catalog != null) {
+                logger.info("Availability index built from {} slots starting {}, deriving open slots for {} seats",
+                        rows.size(), indexedFrom, catalog.seatsById.size());
+            } else {
+                logger.info("Availability index built from {} slots starting {}", rows.size(), indexedFrom);
+            }
+        }
+    }
+
+    /**
+     * Включён ли разреженный режим: OPEN-слоты вычисляются индексом, а не хранятся в базе.
+     */
+    public boolean isSparse() {
+        return sparseSlots;
+    }
+
+    /**
+     * Применяет изменения слотов после фиксации транзакции (или сразу, если транзакции нет).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        if (pendingChanges != null) {
+            pendingChanges.addAll(event.getChanges());
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            event.getChanges().forEach(current::apply);
+        }
+    }
+
+    /**
+     * Перестраивает вычисляемые слоты после изменения расписания (в разреженном режиме). Версии затронутых
+     * дней увеличивает перестройка, применившая расписание; об изменении, пришедшем с другого узла,
+     * версии уже увеличены им и подхватываются перестройкой из общего хранилища.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (!sparseSlots || snapshot == null) {
+            if (!event.remote()) {
+                // Сохранённые слоты от расписания не зависят: другим узлам нужно только сбросить кэш шаблонов
+                availabilityVersions.onScheduleApplied(event.coworkingId(), Map.of());
+            }
+            return;
+        }
+        if (!event.remote()) {
+            synchronized (this) {
+                pendingSchedules.add(event.coworkingId());
+            }
+        }
+        refreshAsync();
+    }
+
+    /**
+     * Может ли индекс ответить на запрос, начинающийся с указанной даты.
+     */
+    public boolean covers(LocalDate date) {
+        Snapshot current = snapshot;
+        return current != null && !date.isBefore(current.indexedFrom);
+    }
+
+    /**
+     * Количество OPEN-слотов рабочего пространства с началом не раньше {@code from} и концом не позже {@code to}.
+     */
+    public long countOpen(Long workspaceId, LocalDateTime from, LocalDateTime to) {
+        long[] count = new long[1];
+        forEachOpen(workspaceId, from, to, slot -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * OPEN-слоты рабочего пространства в интервале, отсортированные по коду места и времени начала.
+     */
+    public List<IndexedSlot> findOpen(Long workspaceId, LocalDateTime from, LocalDateTime to) {
+        List<IndexedSlot> result = new ArrayList<>();
+        forEachOpen(workspaceId, from, to, result::add);
+        result.sort(SEAT_THEN_START);
+        return result;
+    }
+
+    /**
+     * Слот по идентификатору. Для виртуального идентификатора возвращается слот, который сейчас
+     * занимает эту позицию (место и время начала): вычисляемый или уже сохранённый в базе.
+     */
+    public Optional<IndexedSlot> findSlot(Long slotId) {
+        Snapshot current = requireSnapshot();
+        if (!VirtualSlotIds.isVirtual(slotId)) {
+            return Optional.ofNullable(current.slotsById.get(slotId));
+        }
+        LocalDateTime startAt = VirtualSlotIds.startAt(slotId);
+        SeatScheduleRow seat = current.catalog != null
+                ? current.catalog.seatsById.get(VirtualSlotIds.seatId(slotId))
+                : null;
+        if (seat == null || startAt.toLocalDate().isBefore(current.indexedFrom)) {
+            return Optional.empty();
+        }
+        DayIndex day = current.day(seat.workspaceId(), startAt.toLocalDate());
+        return Optional.ofNullable(day.get(seat.seatId(), minuteOfDay(startAt)));
+    }
+
+    private void forEachOpen(Long workspaceId, LocalDateTime from, LocalDateTime to,
+                             Consumer<IndexedSlot> consumer) {
+        Snapshot current = requireSnapshot();
+        Map<LocalDate, DayIndex> days = current.workspaces.get(workspaceId);
+        boolean derived = current.catalog != null && current.catalog.seatsByWorkspace.containsKey(workspaceId);
+        if (days == null && !derived) {
+            return;
+        }
+        for (LocalDate date = from.toLocalDate(); !date.isAfter(to.toLocalDate()); date = date.plusDays(1)) {
+            DayIndex day = derived && current.seeds(date)
+                    ? current.day(workspaceId, date)
+                    : days != null ? days.get(date) : null;
+            if (day != null) {
+                day.forEachOpen(from, to, consumer);
+            }
+        }
+    }
+
+    private Snapshot requireSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Availability index is not built yet");
+        }
+        if (current.catalog != null
+                && System.currentTimeMillis() - current.catalog.loadedAtMillis > catalogRefreshMinutes * 60_000) {
+            refreshAsync();
+        }
+        return current;
+    }
+
+    // Новые места и изменённое расписание подхватываются фоновой перестройкой, чтение не ждёт её
+    private void refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            boolean rebuilt = false;
+            try {
+                rebuild();
+                rebuilt = true;
+            } catch (Exception e) {
+                logger.error("Failed to refresh availability index seat catalog", e);
+            } finally {
+                refreshing.set(false);
+            }
+            // Расписание, изменённое во время перестройки, требует ещё одной
+            if (rebuilt && hasPendingSchedules()) {
+                refreshAsync();
+            }
+        });
+    }
+
+    private synchronized boolean hasPendingSchedules() {
+        return !pendingSchedules.isEmpty();
+    }
+
+    // Дни горизонта у рабочих пространств коворкинга, каким он был до и стал после перестройки
+    private Map<LocalDate, Set<Long>> scheduleDays(Long coworkingId, Snapshot previous, Snapshot rebuilt) {
+        Set<Long> workspaceIds = new HashSet<>();
+        for (Snapshot source : new Snapshot[]{previous, rebuilt}) {
+            if (source == null || source.catalog == null) {
+                continue;
+            }
+            source.catalog.seatsById.values().stream()
+                    .filter(seat -> coworkingId == null || coworkingId.equals(seat.coworkingId()))
+                    .forEach(seat -> workspaceIds.add(seat.workspaceId()));
+        }
+        Map<LocalDate, Set<Long>> days = new LinkedHashMap<>();
+        if (workspaceIds.isEmpty()) {
+            return days;
+        }
+        LocalDate horizon = LocalDate.now().plusDays(horizonDays);
+        for (LocalDate date = rebuilt.indexedFrom; !date.isAfter(horizon); date = date.plusDays(1)) {
+            days.put(date, workspaceIds);
+        }
+        return days;
+    }
+
+    private static int minuteOfDay(LocalDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+
+    /**
+     * Слот в индексе. Неизменяемый: смена статуса заменяет запись целиком.
+     */
+    public record IndexedSlot(Long slotId,
+                              Long workspaceId,
+                              Long seatId,
+                              String seatCode,
+                              LocalDateTime startAt,
+                              LocalDateTime endAt,
+                              CalendarSlot.SlotStatus status) {
+
+        public SlotView toView() {
+            return new SlotView(slotId, seatId, seatCode, startAt, endAt, status);
+        }
+    }
+
+    /**
+     * Активные места и расписания коворкингов для вычисления OPEN-слотов в разреженном режиме.
+     */
+    private static final class SeatCatalog {
+        private final Map<Long, SeatScheduleRow> seatsById;
+        private final Map<Long, List<SeatScheduleRow>> seatsByWorkspace;
+        private final ScheduleTemplateService scheduleTemplateService;
+        private final int horizonDays;
+        private final long loadedAtMillis = System.currentTimeMillis();
+
+        private SeatCatalog(List<SeatScheduleRow> seats, ScheduleTemplateService scheduleTemplateService,
+                            int horizonDays) {
+            this.seatsById = seats.stream().collect(Collectors.toMap(SeatScheduleRow::seatId, seat -> seat));
+            this.seatsByWorkspace = seats.stream().collect(Collectors.groupingBy(SeatScheduleRow::workspaceId));
+            this.scheduleTemplateService = scheduleTemplateService;
+            this.horizonDays = horizonDays;
+        }
+
+        private List<IndexedSlot> templates(Long workspaceId, LocalDate date) {
+            List<IndexedSlot> templates = new ArrayList<>();
+            List<SeatScheduleRow> seats = seatsByWorkspace.getOrDefault(workspaceId, List.of());
+            if (seats.isEmpty()) {
+                return templates;
+            }
+            ScheduleTemplateService.DayHours hours = scheduleTemplateService.forDay(seats.get(0).coworkingId(), date);
+            if (hours == null) {
+                return templates;
+            }
+            LocalDateTime dayEnd = date.atTime(hours.openTo());
+            for (SeatScheduleRow seat : seats) {
+                for (LocalDateTime start = date.atTime(hours.openFrom());
+                     !start.plusMinutes(hours.slotMinutes()).isAfter(dayEnd);
+                     start = start.plusMinutes(hours.slotMinutes())) {
+                    templates.add(new IndexedSlot(VirtualSlotIds.encode(seat.seatId(), start), workspaceId,
+                            seat.seatId(), seat.seatCode(), start, start.plusMinutes(hours.slotMinutes()),
+                            CalendarSlot.SlotStatus.OPEN));
+                }
+            }
+            return templates;
+        }
+    }
+
+    private static final class Snapshot {
+        private final LocalDate indexedFrom;
+        private final SeatCatalog catalog;
+        private final Map<Long, Map<LocalDate, DayIndex>> workspaces = new ConcurrentHashMap<>();
+        private final Map<Long, IndexedSlot> slotsById = new ConcurrentHashMap<>();
+        private final long builtAtMillis = System.currentTimeMillis();
+
+        private Snapshot(LocalDate indexedFrom, SeatCatalog catalog) {
+            this.indexedFrom = indexedFrom;
+            this.catalog = catalog;
+        }
+
+        // Вычисляемые слоты строятся только в пределах горизонта бронирования, считая от сегодняшнего дня
+        private boolean seeds(LocalDate date) {
+            return catalog != null && !date.isBefore(indexedFrom)
+                    && !date.isAfter(LocalDate.now().plusDays(catalog.horizonDays));
+        }
+
+        private void apply(SlotStatusChangedEvent.SlotChange change) {
+            IndexedSlot existing = slotsById.remove(change.slotId());
+            if (existing != null) {
+                day(existing).remove(existing);
+            }
+            if (change.currentStatus() != null) {
+                put(new IndexedSlot(change.slotId(), change.workspaceId(), change.seatId(), change.seatCode(),
+                        change.startAt(), change.endAt(), change.currentStatus()));
+            }
+        }
+
+        // Удержание из Redis: OPEN-слот (сохранённый или вычисляемый) показывается HELD
+        private void markHeld(Long slotId) {
+            IndexedSlot slot = slotsById.get(slotId);
+            if (slot == null && VirtualSlotIds.isVirtual(slotId) && catalog != null) {
+                SeatScheduleRow seat = catalog.seatsById.get(VirtualSlotIds.seatId(slotId));
+                LocalDateTime startAt = VirtualSlotIds.startAt(slotId);
+                if (seat != null && !startAt.toLocalDate().isBefore(indexedFrom)) {
+                    slot = day(seat.workspaceId(), startAt.toLocalDate()).get(seat.seatId(), minuteOfDay(startAt));
+                }
+            }
+            if (slot != null && slot.slotId().equals(slotId) && slot.status() == CalendarSlot.SlotStatus.OPEN) {
+                put(new IndexedSlot(slot.slotId(), slot.workspaceId(), slot.seatId(), slot.seatCode(),
+                        slot.startAt(), slot.endAt(), CalendarSlot.SlotStatus.HELD));
+            }
+        }
+
+        private void put(IndexedSlot slot) {
+            if (slot.startAt().toLocalDate().isBefore(indexedFrom)) {
+                return;
+            }
+            slotsById.put(slot.slotId(), slot);
+            day(slot).put(slot);
+        }
+
+        private DayIndex day(IndexedSlot slot) {
+            return day(slot.workspaceId(), slot.startAt().toLocalDate());
+        }
+
+        private DayIndex day(Long workspaceId, LocalDate date) {
+            DayIndex day = workspaces.computeIfAbsent(workspaceId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(date, d -> new DayIndex());
+            if (!day.seeded && seeds(date)) {
+                day.seed(catalog.templates(workspaceId, date));
+            }
+            return day;
+        }
+    }
+
+    private static final class DayIndex {
+        private final Map<Long, SeatDay> seats = new HashMap<>();
+        // Вычисляемые слоты по месту и минуте начала: возвращаются на место при удалении сохранённой строки
+        private final Map<Long, Map<Integer, IndexedSlot>> templates = new HashMap<>();
+        private volatile boolean seeded;
+
+        private synchronized void seed(List<IndexedSlot> slots) {
+            if (seeded) {
+                return;
+            }
+            for (IndexedSlot slot : slots) {
+                int minute = minuteOfDay(slot.startAt());
+                templates.computeIfAbsent(slot.seatId(), id -> new HashMap<>()).put(minute, slot);
+                SeatDay seat = seats.computeIfAbsent(slot.seatId(), id -> new SeatDay());
+                if (!seat.slots.containsKey(minute)) {
+                    seat.slots.put(minute, slot);
+                    seat.open.set(minute);
+                }
+            }
+            seeded = true;
+        }
+
+        private synchronized IndexedSlot get(Long seatId, int minute) {
+            SeatDay seat = seats.get(seatId);
+            return seat != null ? seat.slots.get(minute) : null;
+        }
+
+        private synchronized void put(IndexedSlot slot) {
+            SeatDay seat = seats.computeIfAbsent(slot.seatId(), id -> new SeatDay());
+            int minute = minuteOfDay(slot.startAt());
+            seat.slots.put(minute, slot);
+            seat.open.set(minute, slot.status() == CalendarSlot.SlotStatus.OPEN);
+        }
+
+        private synchronized void remove(IndexedSlot slot) {
+            SeatDay seat = seats.get(slot.seatId());
+            if (seat == null) {
+                return;
+            }
+            int minute = minuteOfDay(slot.startAt());
+            IndexedSlot current = seat.slots.get(minute);
+            if (current != null && current.slotId().equals(slot.slotId())) {
+                IndexedSlot template = templates.getOrDefault(slot.seatId(), Map.of()).get(minute);
+                if (template != null) {
+                    seat.slots.put(minute, template);
+                    seat.open.set(minute);
+                } else {
+                    seat.slots.remove(minute);
+                    seat.open.clear(minute);
+                }
+            }
+        }
+
+        private synchronized void forEachOpen(LocalDateTime from, LocalDateTime to,
+                                              Consumer<IndexedSlot> consumer) {
+            for (SeatDay seat : seats.values()) {
+                for (int minute = seat.open.nextSetBit(0); minute >= 0; minute = seat.open.nextSetBit(minute + 1)) {
+                    IndexedSlot slot = seat.slots.get(minute);
+                    if (!slot.startAt().isBefore(from) && !slot.endAt().isAfter(to)) {
+                        consumer.accept(slot);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class SeatDay {
+        private final BitSet open = new BitSet(MINUTES_PER_DAY);
+        private final Map<Integer, IndexedSlot> slots = new HashMap<>();
+    }
+}
@@ -1,22 +1,43 @@
 package org.example.bookingtower.application.service;
 
 import org.example.bookingtower.domain.entity.*;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
 import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotKey;
+import org.example.bookingtower.infrastructure.repository.projection.SlotStatusRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotView;
+import org.example.bookingtower.infrastructure.repository.projection.WorkspaceOccupancy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -28,10 +49,31 @@ public class AvailabilityService {
     
     private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
 
+    public static final int MAX_PAGE_SIZE = 200;
+
+    public static final int MAX_RANGE_DAYS = 31;
+
+    public static final int MAX_WINDOWS = 50;
+
+    public static final int MAX_FREEZE_RANGE_DAYS = 93;
+
+    // Три параметра на строку: держимся далеко от предела в 32767 параметров запроса PostgreSQL
+    private static final int MATERIALIZE_CHUNK_SIZE = 1000;
+
+    private static final DateTimeFormatter INTERVAL_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
     private final CalendarSlotRepository calendarSlotRepository;
+    private final BookingRepository bookingRepository;
     private final WorkspaceRepository workspaceRepository;
     private final WorkspaceSeatRepository workspaceSeatRepository;
     private final CoworkingRepository coworkingRepository;
+    private final SlotOccupancyHourlyRepository slotOccupancyHourlyRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ScheduleTemplateService scheduleTemplateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticLockRetry optimisticLockRetry;
+    // null — удержания хранятся в calendar_slots
+    private final RedisHoldStore redisHoldStore;
     
     @Value("${app.coworking.timezone:Europe/Moscow}")
     private String defaultTimezone;
@@ -44,39 +86,70 @@ public class AvailabilityService {
     
     @Autowired
     public AvailabilityService(CalendarSlotRepository calendarSlotRepository,
+                              BookingRepository bookingRepository,
                               WorkspaceRepository workspaceRepository,
                               WorkspaceSeatRepository workspaceSeatRepository,
-                              CoworkingRepository coworkingRepository) {
+                              CoworkingRepository coworkingRepository,
+                              SlotOccupancyHourlyRepository slotOccupancyHourlyRepository,
+                              AvailabilityIndex availabilityIndex,
+                              ScheduleTemplateService scheduleTemplateService,
+                              ApplicationEventPublisher eventPublisher,
+                              OptimisticLockRetry optimisticLockRetry,
+                              Optional<RedisHoldStore> redisHoldStore) {
         this.calendarSlotRepository = calendarSlotRepository;
+        this.bookingRepository = bookingRepository;
         this.workspaceRepository = workspaceRepository;
         this.workspaceSeatRepository = workspaceSeatRepository;
         this.coworkingRepository = coworkingRepository;
+        this.slotOccupancyHourlyRepository = slotOccupancyHourlyRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.scheduleTemplateService = scheduleTemplateService;
+        this.eventPublisher = eventPublisher;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.redisHoldStore = redisHoldStore.orElse(null);
     }
     
     @Transactional(readOnly = true)
-    public List<CalendarSlot> getAvailableSlots(Long workspaceId, LocalDate date, LocalTime fromTime, LocalTime toTime) {
+    public List<SlotView> getAvailableSlots(Long workspaceId, LocalDate date, LocalTime fromTime, LocalTime toTime) {
         logger.info("Getting available slots for workspace {} on {} from {} to {}", workspaceId, date, fromTime, toTime);
         logger.debug("Получены данные для workspaceId={}, date={}, start={}, end={}", workspaceId, date, fromTime, toTime);
 
+        LocalDateTime[] range = resolveWorkspaceRange(workspaceId, date, fromTime, toTime);
+        LocalDateTime startDateTime = range[0];
+        LocalDateTime endDateTime = range[1];
+        
+        List<SlotView> availableSlots;
+        if (availabilityIndex.covers(date)) {
+            availableSlots = availabilityIndex.findOpen(workspaceId, startDateTime, endDateTime).stream()
+                    .map(AvailabilityIndex.IndexedSlot::toView)
+                    .collect(Collectors.toList());
+        } else {
+            availableSlots = calendarSlotRepository.findAvailableSlotViewsByWorkspaceAndDateRange(
+                    workspaceId, startDateTime, endDateTime);
+        }
+        
+        logger.info("Found {} available slots", availableSlots.size());
+        return availableSlots;
+    }
+
+    /**
+     * Проверяет рабочее пространство и часы работы коворкинга и возвращает интервал запроса [начало, конец].
+     */
+    private LocalDateTime[] resolveWorkspaceRange(Long workspaceId, LocalDate date, LocalTime fromTime, LocalTime toTime) {
         Workspace workspace = workspaceRepository.findByIdAndActiveTrue(workspaceId)
                 .orElseThrow(() -> new IllegalArgumentException("Workspace not found or inactive"));
         
         LocalDateTime startDateTime = date.atTime(fromTime != null ? fromTime : LocalTime.parse(defaultOpenFrom));
         LocalDateTime endDateTime = date.atTime(toTime != null ? toTime : LocalTime.parse(defaultOpenTo));
         
-        // Проверяем, что интервал соответствует часам работы коворкинга
-        Coworking coworking = workspace.getCoworking();
-        logger.debug("Coworking operating hours: {} to {}", coworking.getOpenFrom(), coworking.getOpenTo());
+        // Проверяем, что интервал соответствует часам работы коворкинга в этот день по расписанию
+        ScheduleTemplateService.DayHours hours = scheduleTemplateService.openingHours(workspace.getCoworking(), date);
+        logger.debug("Coworking operating hours on {}: {} to {}", date, hours.openFrom(), hours.openTo());
         logger.debug("Requested time range: {} to {}", startDateTime.toLocalTime(), endDateTime.toLocalTime());
-        if (!coworking.isOpenAt(startDateTime.toLocalTime()) || !coworking.isOpenAt(endDateTime.toLocalTime())) {
+        if (!hours.isOpenAt(startDateTime.toLocalTime()) || !hours.isOpenAt(endDateTime.toLocalTime())) {
             throw new IllegalArgumentException("Requested time is outside coworking operating hours");
         }
-        
-        List<CalendarSlot> availableSlots = calendarSlotRepository.findAvailableSlotsByWorkspaceAndDateRange(
-                workspaceId, startDateTime, endDateTime);
-        
-        logger.info("Found {} available slots", availableSlots.size());
-        return availableSlots;
+        return new LocalDateTime[] {startDateTime, endDateTime};
     }
 
     @Transactional(readOnly = true)
@@ -84,27 +157,162 @@ public class AvailabilityService {
         Workspace workspace = workspaceRepository.findByIdAndActiveTrue(workspaceId)
                 .orElseThrow(() -> new IllegalArgumentException("Workspace not found or inactive"));
 
-        Coworking coworking = workspace.getCoworking();
-        LocalDateTime startDateTime = date.atTime(coworking.getOpenFrom());
-        LocalDateTime endDateTime = date.atTime(coworking.getOpenTo());
+        ScheduleTemplateService.DayHours hours = scheduleTemplateService.openingHours(workspace.getCoworking(), date);
+        LocalDateTime startDateTime = date.atTime(hours.openFrom());
+        LocalDateTime endDateTime = date.atTime(hours.openTo());
+
+        List<CalendarSlot> schedule = calendarSlotRepository.findByWorkspaceAndDateRange(workspaceId, startDateTime, endDateTime);
+        if (!derivesOpenSlots(date)) {
+            return schedule;
+        }
 
-        return calendarSlotRepository.findByWorkspaceAndDateRange(workspaceId, startDateTime, endDateTime);
+        // Разреженная модель: к сохранённым строкам добавляются вычисляемые OPEN-слоты (не сохраняются)
+        Map<Long, WorkspaceSeat> seats = workspaceSeatRepository.findByWorkspaceIdAndActiveTrue(workspaceId).stream()
+                .collect(Collectors.toMap(WorkspaceSeat::getId, seat -> seat));
+        List<CalendarSlot> merged = new ArrayList<>(schedule);
+        for (AvailabilityIndex.IndexedSlot slot : availabilityIndex.findOpen(workspaceId, startDateTime, endDateTime)) {
+            WorkspaceSeat seat = seats.get(slot.seatId());
+            if (VirtualSlotIds.isVirtual(slot.slotId()) && seat != null) {
+                CalendarSlot derived = new CalendarSlot(seat, slot.startAt(), slot.endAt());
+                derived.setId(slot.slotId());
+                merged.add(derived);
+            }
+        }
+        merged.sort(Comparator.comparing((CalendarSlot slot) -> slot.getSeat().getCode())
+                .thenComparing(CalendarSlot::getStartAt));
+        return merged;
+    }
+
+    /**
+     * В разреженном режиме OPEN-слоты за дату, покрытую индексом, вычисляются индексом, а не читаются из базы.
+     */
+    private boolean derivesOpenSlots(LocalDate date) {
+        return availabilityIndex.isSparse() && availabilityIndex.covers(date);
     }
     
-    public Page<CalendarSlot> getAvailableSlots(Long workspaceId, LocalDate date, LocalTime fromTime, LocalTime toTime, Pageable pageable) {
-        logger.info("Getting paged available slots for workspace {} on {} from {} to {} (page {}, size {})",
-                workspaceId, date, fromTime, toTime, pageable.getPageNumber(), pageable.getPageSize());
+    /**
+     * Возвращает страницу свободных слотов с keyset-пагинацией по (коду места, id места, времени начала).
+     * Стоимость запроса зависит от размера страницы, а не от позиции в выдаче.
+     *
+     * @param cursor непрозрачный курсор из предыдущей страницы ({@code null} для первой страницы)
+     * @param size   размер страницы, ограничен {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException если рабочее пространство не найдено или курсор некорректен
+     */
+    @Transactional(readOnly = true)
+    public SlotPage getAvailableSlotsPage(Long workspaceId, LocalDate date, LocalTime fromTime, LocalTime toTime,
+                                          String cursor, int size) {
+        logger.info("Getting keyset page of available slots for workspace {} on {} from {} to {} (cursor {}, size {})",
+                workspaceId, date, fromTime, toTime, cursor, size);
 
-        List<CalendarSlot> allSlots = getAvailableSlots(workspaceId, date, fromTime, toTime);
+        LocalDateTime[] range = resolveWorkspaceRange(workspaceId, date, fromTime, toTime);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Запрашиваем на один элемент больше, чтобы без COUNT понять, есть ли следующая страница
+        Pageable limit = PageRequest.of(0, pageSize + 1);
 
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), allSlots.size());
+        SlotCursor after = cursor == null || cursor.isBlank() ? null : SlotCursor.decode(cursor);
+        List<SlotView> slots;
+        if (derivesOpenSlots(date)) {
+            slots = availabilityIndex.findOpen(workspaceId, range[0], range[1]).stream()
+                    .filter(slot -> after == null || after.isBefore(slot))
+                    .limit(pageSize + 1)
+                    .map(AvailabilityIndex.IndexedSlot::toView)
+                    .collect(Collectors.toList());
+        } else if (after == null) {
+            slots = calendarSlotRepository.findAvailableSlotsPageByWorkspace(workspaceId, range[0], range[1], limit);
+        } else {
+            slots = calendarSlotRepository.findAvailableSlotsPageByWorkspaceAfter(
+                    workspaceId, range[0], range[1], after.seatCode(), after.seatId(), after.startAt(), limit);
+        }
 
-        List<CalendarSlot> pageContent = allSlots.subList(start, end);
-        Page<CalendarSlot> result = new PageImpl<>(pageContent, pageable, allSlots.size());
-        logger.info("Returning {} slots for page {} of {} (total slots: {})",
-                result.getNumberOfElements(), result.getNumber() + 1, result.getTotalPages(), result.getTotalElements());
-        return result;
+        boolean hasNext = slots.size() > pageSize;
+        List<SlotView> content = hasNext ? slots.subList(0, pageSize) : slots;
+        String nextCursor = null;
+        if (hasNext) {
+            SlotView last = content.get(content.size() - 1);
+            nextCursor = new SlotCursor(last.seatCode(), last.seatId(), last.startAt()).encode();
+        }
+
+        logger.info("Returning {} slots, has next page: {}", content.size(), hasNext);
+        return new SlotPage(content, nextCursor, pageSize);
+    }
+
+    /**
+     * Возвращает свободное время рабочего пространства за несколько дней одним запросом:
+     * смежные OPEN-слоты каждого места склеиваются в интервалы "HH:mm-HH:mm" по дням.
+     *
+     * @param from первый день диапазона (включительно)
+     * @param to   последний день диапазона (включительно); вместе с {@code from} не больше {@link #MAX_RANGE_DAYS} дней
+     * @throws IllegalArgumentException если рабочее пространство не найдено или диапазон некорректен
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityRange getAvailabilityRange(Long workspaceId, LocalDate from, LocalDate to) {
+        logger.info("Getting availability range for workspace {} from {} to {}", workspaceId, from, to);
+
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end is before range start");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS - 1).isBefore(to)) {
+            throw new IllegalArgumentException("Range is longer than " + MAX_RANGE_DAYS + " days");
+        }
+        workspaceRepository.findByIdAndActiveTrue(workspaceId)
+                .orElseThrow(() -> new IllegalArgumentException("Workspace not found or inactive"));
+
+        LocalDateTime startDateTime = from.atStartOfDay();
+        LocalDateTime endDateTime = to.plusDays(1).atStartOfDay();
+
+        List<SlotView> openSlots;
+        if (availabilityIndex.covers(from)) {
+            openSlots = availabilityIndex.findOpen(workspaceId, startDateTime, endDateTime).stream()
+                    .map(AvailabilityIndex.IndexedSlot::toView)
+                    .collect(Collectors.toList());
+        } else {
+            openSlots = calendarSlotRepository.findAvailableSlotViewsByWorkspaceAndDateRange(
+                    workspaceId, startDateTime, endDateTime);
+        }
+
+        return new AvailabilityRange(workspaceId, from, to, encodeFreeIntervals(openSlots));
+    }
+
+    /**
+     * Склеивает отсортированные по (месту, времени начала) слоты в интервалы свободного времени.
+     */
+    static List<SeatFreeIntervals> encodeFreeIntervals(List<SlotView> openSlots) {
+        Map<Long, SeatFreeIntervals> seats = new LinkedHashMap<>();
+        SlotView runStart = null;
+        SlotView runEnd = null;
+
+        for (SlotView slot : openSlots) {
+            boolean continuesRun = runEnd != null
+                    && runEnd.seatId().equals(slot.seatId())
+                    && runEnd.endAt().equals(slot.startAt())
+                    && runStart.startAt().toLocalDate().equals(slot.startAt().toLocalDate());
+            if (continuesRun) {
+                runEnd = slot;
+                continue;
+            }
+            if (runStart != null) {
+                appendInterval(seats, runStart, runEnd);
+            }
+            runStart = slot;
+            runEnd = slot;
+        }
+        if (runStart != null) {
+            appendInterval(seats, runStart, runEnd);
+        }
+        return new ArrayList<>(seats.values());
+    }
+
+    private static void appendInterval(Map<Long, SeatFreeIntervals> seats, SlotView first, SlotView last) {
+        LocalDate day = first.startAt().toLocalDate();
+        String end = last.endAt().toLocalDate().isAfter(day)
+                ? "24:00"
+                : INTERVAL_TIME_FORMAT.format(last.endAt());
+        String interval = INTERVAL_TIME_FORMAT.format(first.startAt()) + "-" + end;
+
+        seats.computeIfAbsent(first.seatId(), id -> new SeatFreeIntervals(id, first.seatCode(), new LinkedHashMap<>()))
+                .days()
+                .computeIfAbsent(day, d -> new ArrayList<>())
+                .add(interval);
     }
 
     /**
@@ -115,37 +323,146 @@ public class AvailabilityService {
      * @param toTime
      * @return Список объектов календарного ласка, представляющих доступные слоты для указанного коворкинга в данную дату
      */
-    public List<CalendarSlot> getAvailableSlotsByCoworking(Long coworkingId, LocalDate date, LocalTime fromTime, LocalTime toTime) {
+    public List<SlotView> getAvailableSlotsByCoworking(Long coworkingId, LocalDate date, LocalTime fromTime, LocalTime toTime) {
         logger.info("Getting available slots for coworking {} on {} from {} to {}", coworkingId, date, fromTime, toTime);
         
         Coworking coworking = coworkingRepository.findByIdAndActiveTrue(coworkingId)
                 .orElseThrow(() -> new IllegalArgumentException("Coworking not found or inactive"));
         
-        LocalDateTime startDateTime = date.atTime(fromTime != null ? fromTime : coworking.getOpenFrom());
-        LocalDateTime endDateTime = date.atTime(toTime != null ? toTime : coworking.getOpenTo());
+        ScheduleTemplateService.DayHours hours = scheduleTemplateService.openingHours(coworking, date);
+        LocalDateTime startDateTime = date.atTime(fromTime != null ? fromTime : hours.openFrom());
+        LocalDateTime endDateTime = date.atTime(toTime != null ? toTime : hours.openTo());
         
-        List<CalendarSlot> availableSlots = calendarSlotRepository.findAvailableSlotsByCoworkingAndDateRange(
-                coworkingId, startDateTime, endDateTime);
+        List<SlotView> availableSlots;
+        if (derivesOpenSlots(date)) {
+            availableSlots = new ArrayList<>();
+            for (Workspace workspace : workspaceRepository.findByCoworkingIdAndActiveTrueOrderByName(coworkingId)) {
+                availabilityIndex.findOpen(workspace.getId(), startDateTime, endDateTime)
+                        .forEach(slot -> availableSlots.add(slot.toView()));
+            }
+        } else {
+            availableSlots = calendarSlotRepository.findAvailableSlotViewsByCoworkingAndDateRange(
+                    coworkingId, startDateTime, endDateTime);
+        }
         
         logger.info("Found {} available slots for coworking", availableSlots.size());
         return availableSlots;
     }
 
+    /**
+     * Поиск первых N свободных окон заданной длительности по всем активным рабочим пространствам коворкинга.
+     * Окно — непрерывная цепочка OPEN-слотов одного места; из каждой цепочки берётся самое раннее окно.
+     */
+    @Transactional(readOnly = true)
+    public List<FreeWindow> findFreeWindows(Long coworkingId, LocalDate date, LocalTime fromTime, LocalTime toTime,
+                                            int durationMinutes, int limit) {
+        if (durationMinutes <= 0 || durationMinutes > 24 * 60) {
+            throw new IllegalArgumentException("Duration must be between 1 and 1440 minutes");
+        }
+        if (limit <= 0 || limit > MAX_WINDOWS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_WINDOWS);
+        }
+        
+        Coworking coworking = coworkingRepository.findByIdAndActiveTrue(coworkingId)
+                .orElseThrow(() -> new IllegalArgumentException("Coworking not found or inactive"));
+        
+        ScheduleTemplateService.DayHours hours = scheduleTemplateService.openingHours(coworking, date);
+        LocalDateTime startDateTime = date.atTime(fromTime != null ? fromTime : hours.openFrom());
+        LocalDateTime endDateTime = date.atTime(toTime != null ? toTime : hours.openTo());
+        
+        Map<Long, String> workspaceNames = new LinkedHashMap<>();
+        workspaceRepository.findByCoworkingIdAndActiveTrueOrderByName(coworkingId)
+                .forEach(workspace -> workspaceNames.put(workspace.getId(), workspace.getName()));
+        
+        List<SlotIndexRow> openSlots;
+        if (availabilityIndex.covers(date)) {
+            openSlots = new ArrayList<>();
+            for (Long workspaceId : workspaceNames.keySet()) {
+                availabilityIndex.findOpen(workspaceId, startDateTime, endDateTime).forEach(slot ->
+                        openSlots.add(new SlotIndexRow(slot.slotId(), slot.seatId(), slot.seatCode(), slot.workspaceId(),
+                                slot.startAt(), slot.endAt(), slot.status())));
+            }
+        } else {
+            openSlots = calendarSlotRepository.findOpenSlotRowsByCoworkingAndDateRange(
+                    coworkingId, startDateTime, endDateTime);
+        }
+        
+        return findFreeWindows(openSlots, workspaceNames, Duration.ofMinutes(durationMinutes), limit);
+    }
+    
+    /**
+     * Один проход по OPEN-слотам, отсортированным по месту и времени: собирает непрерывные цепочки
+     * и для каждой достаточной длины выдаёт самое раннее окно. Результат упорядочен по времени начала.
+     */
+    static List<FreeWindow> findFreeWindows(List<SlotIndexRow> openSlots, Map<Long, String> workspaceNames,
+                                            Duration duration, int limit) {
+        List<SlotIndexRow> sorted = new ArrayList<>(openSlots);
+        sorted.sort(Comparator.comparing(SlotIndexRow::workspaceId)
+                .thenComparing(SlotIndexRow::seatId)
+                .thenComparing(SlotIndexRow::startAt));
+        
+        List<FreeWindow> windows = new ArrayList<>();
+        List<SlotIndexRow> run = new ArrayList<>();
+        for (SlotIndexRow slot : sorted) {
+            if (!run.isEmpty()) {
+                SlotIndexRow last = run.get(run.size() - 1);
+                if (!last.seatId().equals(slot.seatId()) || !last.endAt().equals(slot.startAt())) {
+                    addWindow(windows, run, workspaceNames, duration);
+                    run.clear();
+                }
+            }
+            run.add(slot);
+        }
+        addWindow(windows, run, workspaceNames, duration);
+        
+        windows.sort(Comparator.comparing(FreeWindow::startAt)
+                .thenComparing(FreeWindow::workspaceName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(FreeWindow::seatCode));
+        return windows.size() > limit ? new ArrayList<>(windows.subList(0, limit)) : windows;
+    }
+    
+    private static void addWindow(List<FreeWindow> windows, List<SlotIndexRow> run,
+                                  Map<Long, String> workspaceNames, Duration duration) {
+        if (run.isEmpty()) {
+            return;
+        }
+        SlotIndexRow first = run.get(0);
+        LocalDateTime windowEnd = first.startAt().plus(duration);
+        LocalDateTime runEnd = run.get(run.size() - 1).endAt();
+        if (windowEnd.isAfter(runEnd)) {
+            return;
+        }
+        
+        List<Long> slotIds = new ArrayList<>();
+        LocalDateTime coveredUntil = first.startAt();
+        for (SlotIndexRow slot : run) {
+            if (!coveredUntil.isBefore(windowEnd)) {
+                break;
+            }
+            slotIds.add(slot.slotId());
+            coveredUntil = slot.endAt();
+        }
+        windows.add(new FreeWindow(first.workspaceId(), workspaceNames.get(first.workspaceId()), first.seatId(),
+                first.seatCode(), first.startAt(), coveredUntil, runEnd, slotIds));
+    }
+    
     /**
      * Генерирует слоты календаря для конкретного рабочего пространства в данную дату
-     * Диапазон и временные ограничения.
+     * Диапазон и временные ограничения. Рабочие дни, часы и длина слота берутся из шаблона
+     * расписания коворкинга ({@link ScheduleTemplateService}), если не переданы явно.
      *
      * @param workspaceId          the unique identifier of the workspace for which slots are to be created
      * @param startDate            the start date from which slots generation begins
      * @param endDate              the end date until which slots generation is carried out
      * @param dailyOpenTime        the daily opening time for the workspace, overrides workspace's default opening time if not null
      * @param dailyCloseTime       the daily closing time for the workspace, overrides workspace's default closing time if not null
-     * @param slotDurationMinutes  the duration of each time slot in minutes
+     * @param slotDurationMinutes  the duration of each time slot in minutes, 0 to use the schedule template
+     * @return the number of slots created
      * @throws IllegalArgumentException if the workspace is not found or inactive,
      *                                  or if the workspace has no active seats
      */
     @Transactional
-    public void generateSlots(Long workspaceId, LocalDate startDate, LocalDate endDate, LocalTime dailyOpenTime, LocalTime dailyCloseTime, int slotDurationMinutes) {
+    public int generateSlots(Long workspaceId, LocalDate startDate, LocalDate endDate, LocalTime dailyOpenTime, LocalTime dailyCloseTime, int slotDurationMinutes) {
         logger.info("Generating slots for workspace {} from {} to {}", workspaceId, startDate, endDate);
         
         Workspace workspace = workspaceRepository.findByIdAndActiveTrue(workspaceId)
@@ -156,29 +473,40 @@ public class AvailabilityService {
             throw new IllegalArgumentException("No active seats found for workspace");
         }
         
-        LocalTime openTime = dailyOpenTime != null ? dailyOpenTime : workspace.getCoworking().getOpenFrom();
-        LocalTime closeTime = dailyCloseTime != null ? dailyCloseTime : workspace.getCoworking().getOpenTo();
+        if (availabilityIndex.isSparse()) {
+            logger.info("Sparse slot model is enabled, open slots for workspace {} are derived from opening hours", workspaceId);
+            return 0;
+        }
+        
+        ScheduleTemplateService.CompiledSchedule schedule = scheduleTemplateService.schedule(workspace.getCoworking().getId());
+        
+        // Один запрос за существующими ключами вместо проверки каждого слота-кандидата
+        Set<SlotKey> existingKeys = new HashSet<>(calendarSlotRepository.findSlotKeysByWorkspaceAndDateRange(
+                workspaceId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()));
         
         List<CalendarSlot> slotsToCreate = new ArrayList<>();
         
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-//             Генерируем слоты для всех дней недели, включая выходные
-//             При необходимости можно настроить исключение определенных дней
-             if (date.getDayOfWeek().getValue() > 5) { // Saturday = 6, Sunday = 7
-                 continue;
-             }
+            // Выходные и праздники определяются шаблоном расписания коворкинга
+            ScheduleTemplateService.DayHours hours = schedule.forDay(date);
+            if (hours == null) {
+                continue;
+            }
+            LocalTime openTime = dailyOpenTime != null ? dailyOpenTime : hours.openFrom();
+            LocalTime closeTime = dailyCloseTime != null ? dailyCloseTime : hours.openTo();
+            int slotMinutes = slotDurationMinutes > 0 ? slotDurationMinutes : hours.slotMinutes();
             
             for (WorkspaceSeat seat : seats) {
                 LocalDateTime currentSlotStart = date.atTime(openTime);
                 LocalDateTime dayEnd = date.atTime(closeTime);
                 
-                while (currentSlotStart.plusMinutes(slotDurationMinutes).isBefore(dayEnd) || 
-                       currentSlotStart.plusMinutes(slotDurationMinutes).equals(dayEnd)) {
+                while (currentSlotStart.plusMinutes(slotMinutes).isBefore(dayEnd) || 
+                       currentSlotStart.plusMinutes(slotMinutes).equals(dayEnd)) {
                     
-                    LocalDateTime slotEnd = currentSlotStart.plusMinutes(slotDurationMinutes);
+                    LocalDateTime slotEnd = currentSlotStart.plusMinutes(slotMinutes);
                     
                     // Проверяем, что слот ещё не существует
-                    if (!calendarSlotRepository.existsBySeatIdAndStartAtAndEndAt(seat.getId(), currentSlotStart, slotEnd)) {
+                    if (!existingKeys.contains(new SlotKey(seat.getId(), currentSlotStart, slotEnd))) {
                         CalendarSlot slot = new CalendarSlot(seat, currentSlotStart, slotEnd);
                         slotsToCreate.add(slot);
                     }
@@ -189,34 +517,305 @@ public class AvailabilityService {
         }
         
         if (!slotsToCreate.isEmpty()) {
-            calendarSlotRepository.saveAll(slotsToCreate);
-            logger.info("Generated {} new slots for workspace {}", slotsToCreate.size(), workspaceId);
+            long startedAt = System.nanoTime();
+            List<CalendarSlot> savedSlots = calendarSlotRepository.saveAll(slotsToCreate);
+            calendarSlotRepository.flush();
+            long elapsedMs = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+            eventPublisher.publishEvent(SlotStatusChangedEvent.created(savedSlots));
+            logger.info("Generated {} new slots for workspace {} in {} ms ({} rows/s)",
+                    slotsToCreate.size(), workspaceId, elapsedMs, slotsToCreate.size() * 1000L / elapsedMs);
         } else {
             logger.info("No new slots needed for workspace {}", workspaceId);
         }
+        return slotsToCreate.size();
+    }
+    
+    /**
+     * Массово замораживает слоты рабочего пространства (или только мест {@code seatIds}) с началом
+     * в {@code [startAt, endAt)} одним условным UPDATE: BOOKED и уже замороженные слоты пропускаются,
+     * удержания снимаются. В разреженном режиме вычисляемые OPEN-слоты сохраняются строками FROZEN.
+     * Заморозка важнее удержания и в {@link RedisHoldStore}: такие удержания снимаются, и подтвердить их нельзя.
+     *
+     * @throws IllegalArgumentException если рабочее пространство не найдено или интервал некорректен
+     */
+    @Transactional
+    public BulkFreezeResult freezeSlots(Long workspaceId, Collection<Long> seatIds, LocalDateTime startAt, LocalDateTime endAt) {
+        return changeFrozen(true, workspaceId, seatIds, startAt, endAt);
+    }
+    
+    /**
+     * Массово размораживает FROZEN-слоты рабочего пространства (или только мест {@code seatIds})
+     * с началом в {@code [startAt, endAt)} одним условным UPDATE.
+     *
+     * @throws IllegalArgumentException если рабочее пространство не найдено или интервал некорректен
+     */
+    @Transactional
+    public BulkFreezeResult unfreezeSlots(Long workspaceId, Collection<Long> seatIds, LocalDateTime startAt, LocalDateTime endAt) {
+        return changeFrozen(false, workspaceId, seatIds, startAt, endAt);
     }
     
-    public void generateSlotsForAllWorkspaces(LocalDate startDate, LocalDate endDate) {
-        logger.info("Generating slots for all active workspaces from {} to {}", startDate, endDate);
+    private BulkFreezeResult changeFrozen(boolean freeze, Long workspaceId, Collection<Long> seatIds,
+                                          LocalDateTime startAt, LocalDateTime endAt) {
+        if (startAt == null || endAt == null || !endAt.isAfter(startAt)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (startAt.plusDays(MAX_FREEZE_RANGE_DAYS).isBefore(endAt)) {
+            throw new IllegalArgumentException("Range is longer than " + MAX_FREEZE_RANGE_DAYS + " days");
+        }
+        workspaceRepository.findById(workspaceId)
+                .orElseThrow(() -> new IllegalArgumentException("Workspace not found"));
         
-        List<Workspace> activeWorkspaces = workspaceRepository.findByActiveTrue();
+        boolean allSeats = seatIds == null || seatIds.isEmpty();
+        // IN () недопустим в SQL: при allSeats список не используется, но должен быть непустым
+        Set<Long> seatFilter = allSeats ? Set.of(-1L) : new HashSet<>(seatIds);
         
-        for (Workspace workspace : activeWorkspaces) {
-            try {
-                generateSlots(workspace.getId(), startDate, endDate, null, null, 60); // Слоты по часу
-            } catch (Exception e) {
-                logger.error("Failed to generate slots for workspace {}", workspace.getId(), e);
+        Map<Long, CalendarSlot.SlotStatus> previousStatuses =
+                changeStoredFrozen(freeze, workspaceId, allSeats, seatFilter, startAt, endAt);
+        List<SlotStatusChangedEvent.SlotChange> changes = new ArrayList<>();
+        
+        int materialized = 0;
+        int conflicts = 0;
+        if (freeze && availabilityIndex.isSparse()) {
+            MaterializedSlots derived = materializeFrozen(workspaceId, allSeats ? null : seatFilter, startAt, endAt, changes);
+            if (!derived.insertedIds().isEmpty()) {
+                for (SlotIndexRow row : calendarSlotRepository.findIndexRowsByIds(derived.insertedIds())) {
+                    changes.add(new SlotStatusChangedEvent.SlotChange(row.slotId(), row.seatId(), row.seatCode(),
+                            row.workspaceId(), row.startAt(), row.endAt(), null, row.status()));
+                }
+            }
+            materialized = derived.insertedIds().size();
+            conflicts = derived.conflicts();
+            if (conflicts > 0) {
+                // Строки, вставленные после первого UPDATE (удержания вычисляемых слотов), замораживаются как сохранённые
+                previousStatuses.putAll(changeStoredFrozen(true, workspaceId, allSeats, seatFilter, startAt, endAt));
             }
         }
         
-        logger.info("Completed slot generation for {} workspaces", activeWorkspaces.size());
+        if (!previousStatuses.isEmpty()) {
+            List<SlotStatusChangedEvent.SlotChange> stored = new ArrayList<>();
+            for (SlotIndexRow row : calendarSlotRepository.findIndexRowsByIds(previousStatuses.keySet())) {
+                stored.add(new SlotStatusChangedEvent.SlotChange(row.slotId(), row.seatId(), row.seatCode(),
+                        row.workspaceId(), row.startAt(), row.endAt(), previousStatuses.get(row.slotId()), row.status()));
+            }
+            changes.addAll(0, stored);
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new SlotStatusChangedEvent(changes));
+        }
+        long matched = calendarSlotRepository.countByWorkspaceAndSeatsAndStartRange(
+                workspaceId, allSeats, seatFilter, startAt, endAt);
+        BulkFreezeResult result = new BulkFreezeResult(previousStatuses.size() + materialized,
+                matched - previousStatuses.size() - materialized, materialized, conflicts);
+        logger.info("{} slots of workspace {} from {} to {}: {}", freeze ? "Froze" : "Unfroze",
+                workspaceId, startAt, endAt, result);
+        return result;
+    }
+    
+    /**
+     * Замораживает или размораживает сохранённые слоты интервала одним UPDATE.
+     *
+     * @return прежние статусы изменённых слотов по id
+     */
+    private Map<Long, CalendarSlot.SlotStatus> changeStoredFrozen(boolean freeze, Long workspaceId, boolean allSeats,
+                                                                  Set<Long> seatFilter, LocalDateTime startAt,
+                                                                  LocalDateTime endAt) {
+        List<Object[]> changed = freeze
+                ? calendarSlotRepository.freezeRange(workspaceId, allSeats, seatFilter, startAt, endAt)
+                : calendarSlotRepository.unfreezeRange(workspaceId, allSeats, seatFilter, startAt, endAt);
+        Map<Long, CalendarSlot.SlotStatus> previousStatuses = new LinkedHashMap<>();
+        for (Object[] row : changed) {
+            previousStatuses.put(((Number) row[0]).longValue(), CalendarSlot.SlotStatus.valueOf((String) row[1]));
+        }
+        if (freeze && redisHoldStore != null) {
+            // В базе удержанный в Redis слот остаётся OPEN, но индекс и агрегат занятости видят его HELD
+            redisHoldStore.evict(previousStatuses.keySet())
+                    .forEach(slotId -> previousStatuses.put(slotId, CalendarSlot.SlotStatus.HELD));
+        }
+        return previousStatuses;
+    }
+    
+    /**
+     * Разреженный режим: сохраняет вычисляемые OPEN-слоты интервала строками FROZEN. Вычисляемые слоты,
+     * удержанные в Redis, тоже замораживаются: удержание снимается, в {@code changes} добавляется его удаление.
+     * Ключи, которые к моменту вставки уже заняты строкой, не вставляются и считаются в {@code conflicts}.
+     */
+    private MaterializedSlots materializeFrozen(Long workspaceId, Set<Long> seatIds,
+                                                LocalDateTime startAt, LocalDateTime endAt,
+                                                List<SlotStatusChangedEvent.SlotChange> changes) {
+        Set<Long> seats = workspaceSeatRepository.findByWorkspaceIdAndActiveTrue(workspaceId).stream()
+                .map(WorkspaceSeat::getId)
+                .filter(seatId -> seatIds == null || seatIds.contains(seatId))
+                .collect(Collectors.toSet());
+        List<AvailabilityIndex.IndexedSlot> candidates =
+                new ArrayList<>(availabilityIndex.findOpen(workspaceId, startAt, endAt.plusDays(1)));
+        if (redisHoldStore != null) {
+            List<Long> heldIds = redisHoldStore.findAnnounced().stream()
+                    .filter(VirtualSlotIds::isVirtual)
+                    .filter(slotId -> seats.contains(VirtualSlotIds.seatId(slotId)))
+                    .filter(slotId -> !VirtualSlotIds.startAt(slotId).isBefore(startAt)
+                            && VirtualSlotIds.startAt(slotId).isBefore(endAt))
+                    .toList();
+            for (Long slotId : redisHoldStore.evict(heldIds)) {
+                availabilityIndex.findSlot(slotId)
+                        .filter(slot -> slotId.equals(slot.slotId()))
+                        .ifPresent(slot -> {
+                            candidates.add(slot);
+                            changes.add(new SlotStatusChangedEvent.SlotChange(slotId, slot.seatId(), slot.seatCode(),
+                                    slot.workspaceId(), slot.startAt(), slot.endAt(), CalendarSlot.SlotStatus.HELD, null));
+                        });
+            }
+        }
+        List<Long> seatIdColumn = new ArrayList<>();
+        List<LocalDateTime> startColumn = new ArrayList<>();
+        List<LocalDateTime> endColumn = new ArrayList<>();
+        int derived = 0;
+        List<Long> insertedIds = new ArrayList<>();
+        for (AvailabilityIndex.IndexedSlot slot : candidates) {
+            if (seats.contains(slot.seatId()) && VirtualSlotIds.isVirtual(slot.slotId()) && slot.startAt().isBefore(endAt)) {
+                seatIdColumn.add(slot.seatId());
+                startColumn.add(slot.startAt());
+                endColumn.add(slot.endAt());
+                derived++;
+            }
+            if (seatIdColumn.size() == MATERIALIZE_CHUNK_SIZE) {
+                insertedIds.addAll(calendarSlotRepository.insertFrozenIfAbsent(seatIdColumn, startColumn, endColumn));
+                seatIdColumn.clear();
+                startColumn.clear();
+                endColumn.clear();
+            }
+        }
+        if (!seatIdColumn.isEmpty()) {
+            insertedIds.addAll(calendarSlotRepository.insertFrozenIfAbsent(seatIdColumn, startColumn, endColumn));
+        }
+        return new MaterializedSlots(insertedIds, derived - insertedIds.size());
+    }
+    
+    private record MaterializedSlots(List<Long> insertedIds, int conflicts) {
+    }
+    
+    /**
+     * Замораживает один слот. Правки слотов из админки выполняются через {@link OptimisticLockRetry}:
+     * если слот параллельно удержали или забронировали, операция повторяется на свежей версии.
+     *
+     * @return слот после изменения или {@link Optional#empty()}, если слот не найден
+     */
+    public Optional<CalendarSlot> freezeSlot(Long slotId) {
+        return changeSlotFrozen("slot.freeze", slotId, slot -> true);
+    }
+    
+    public Optional<CalendarSlot> unfreezeSlot(Long slotId) {
+        return changeSlotFrozen("slot.unfreeze", slotId, slot -> false);
+    }
+    
+    public Optional<CalendarSlot> toggleSlotFreeze(Long slotId) {
+        return changeSlotFrozen("slot.toggle-freeze", slotId, slot -> !slot.isFrozen());
+    }
+    
+    private Optional<CalendarSlot> changeSlotFrozen(String operation, Long slotId, Predicate<CalendarSlot> freeze) {
+        // Снятое удержание Redis запоминается вне повторяемой операции: повтор его уже не найдёт
+        Set<Long> evicted = new HashSet<>();
+        return optimisticLockRetry.execute(operation, () -> calendarSlotRepository.findById(slotId).map(slot -> {
+            CalendarSlot.SlotStatus previousStatus = slot.getStatus();
+            if (freeze.test(slot)) {
+                if (redisHoldStore != null) {
+                    evicted.addAll(redisHoldStore.evict(List.of(slotId)));
+                }
+                if (evicted.contains(slotId) && previousStatus == CalendarSlot.SlotStatus.OPEN) {
+                    previousStatus = CalendarSlot.SlotStatus.HELD;
+                }
+                slot.freeze();
+            } else {
+                slot.unfreeze();
+            }
+            CalendarSlot saved = calendarSlotRepository.save(slot);
+            eventPublisher.publishEvent(SlotStatusChangedEvent.of(saved, previousStatus));
+            return saved;
+        }));
+    }
+    
+    /**
+     * Переносит слот на другое место и время. Перенос публикуется как удаление на старом месте
+     * и создание на новом; при конфликте версий повторяется через {@link OptimisticLockRetry}.
+     *
+     * @throws IllegalArgumentException если слот или место не найдены
+     * @throws IllegalStateException    если новое время пересекается с удержанным или забронированным слотом
+     */
+    public CalendarSlot moveSlot(Long slotId, Long seatId, LocalDateTime startAt, LocalDateTime endAt) {
+        return optimisticLockRetry.execute("slot.move", () -> {
+            CalendarSlot slot = calendarSlotRepository.findById(slotId)
+                    .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+            WorkspaceSeat seat = workspaceSeatRepository.findById(seatId)
+                    .orElseThrow(() -> new IllegalArgumentException("Seat not found"));
+            
+            boolean conflict = calendarSlotRepository.findConflictingSlots(seatId, startAt, endAt).stream()
+                    .anyMatch(other -> !other.getId().equals(slotId));
+            if (conflict) {
+                throw new IllegalStateException("Slot conflicts with an existing slot");
+            }
+            
+            SlotStatusChangedEvent.SlotChange removedChange =
+                    SlotStatusChangedEvent.SlotChange.of(slot, slot.getStatus(), null);
+            slot.setStartAt(startAt);
+            slot.setEndAt(endAt);
+            slot.setSeat(seat);
+            CalendarSlot saved = calendarSlotRepository.save(slot);
+            eventPublisher.publishEvent(new SlotStatusChangedEvent(List.of(
+                    removedChange, SlotStatusChangedEvent.SlotChange.of(saved, null, saved.getStatus()))));
+            return saved;
+        });
+    }
+    
+    /**
+     * Удаляет слот, на который нет бронирований. Слот блокируется до конца транзакции, и бронирования
+     * перепроверяются под блокировкой: внешнего ключа bookings -> calendar_slots нет (таблица секционирована).
+     * Удержание слота в {@link RedisHoldStore} снимается вместе с ним.
+     *
+     * @return удалённый слот или {@link Optional#empty()}, если слот не найден
+     * @throws IllegalStateException если слот забронирован или на него есть бронирования
+     */
+    @Transactional
+    public Optional<CalendarSlot> deleteSlot(Long slotId) {
+        Optional<CalendarSlot> found = calendarSlotRepository.findByIdForUpdate(slotId);
+        if (found.isEmpty()) {
+            return found;
+        }
+        CalendarSlot slot = found.get();
+        if (slot.isBooked()) {
+            throw new IllegalStateException("Slot is booked");
+        }
+        if (bookingRepository.existsBySlotId(slotId)) {
+            throw new IllegalStateException("Slot has bookings");
+        }
+        
+        CalendarSlot.SlotStatus previousStatus = slot.getStatus();
+        if (redisHoldStore != null && redisHoldStore.evict(List.of(slotId)).contains(slotId)
+                && previousStatus == CalendarSlot.SlotStatus.OPEN) {
+            previousStatus = CalendarSlot.SlotStatus.HELD;
+        }
+        calendarSlotRepository.delete(slot);
+        calendarSlotRepository.flush();
+        eventPublisher.publishEvent(new SlotStatusChangedEvent(List.of(
+                SlotStatusChangedEvent.SlotChange.of(slot, previousStatus, null))));
+        logger.info("Deleted slot {}", slotId);
+        return found;
     }
     
     public long getAvailableSlotCount(Long workspaceId, LocalDate date) {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(23, 59, 59);
         
-        return calendarSlotRepository.countAvailableSlotsByWorkspaceAndDateRange(workspaceId, startOfDay, endOfDay);
+        return countAvailableSlots(workspaceId, startOfDay, endOfDay);
+    }
+    
+    /**
+     * Количество свободных слотов рабочего пространства в интервале: из индекса, если он покрывает
+     * начало интервала, иначе из базы.
+     */
+    public long countAvailableSlots(Long workspaceId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (availabilityIndex.covers(startDateTime.toLocalDate())) {
+            return availabilityIndex.countOpen(workspaceId, startDateTime, endDateTime);
+        }
+        return calendarSlotRepository.countAvailableSlotsByWorkspaceAndDateRange(workspaceId, startDateTime, endDateTime);
     }
     
     public List<CalendarSlot> getSlotsBySeat(Long seatId, LocalDate date) {
@@ -234,50 +833,123 @@ public class AvailabilityService {
     }
     
     public boolean isSlotAvailable(Long slotId) {
+        if (VirtualSlotIds.isVirtual(slotId)) {
+            AvailabilityIndex.IndexedSlot slot = availabilityIndex.findSlot(slotId)
+                    .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+            return slot.status() == CalendarSlot.SlotStatus.OPEN;
+        }
         CalendarSlot slot = calendarSlotRepository.findById(slotId)
                 .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
         
         return slot.isAvailable();
     }
     
+    /**
+     * Пакетная проверка статусов слотов одним запросом IN.
+     * Неизвестные идентификаторы возвращаются в {@link SlotStatusBatch#unknownIds()}, а не приводят к ошибке.
+     */
+    @Transactional(readOnly = true)
+    public SlotStatusBatch getSlotStatuses(Collection<Long> slotIds) {
+        Set<Long> requested = new LinkedHashSet<>(slotIds);
+        requested.remove(null);
+        if (requested.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Too many slot ids, maximum is " + MAX_PAGE_SIZE);
+        }
+        if (requested.isEmpty()) {
+            return new SlotStatusBatch(Map.of(), List.of());
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, CalendarSlot.SlotStatus> statuses = new LinkedHashMap<>();
+        List<Long> persistedIds = new ArrayList<>();
+        for (Long slotId : requested) {
+            if (!VirtualSlotIds.isVirtual(slotId)) {
+                persistedIds.add(slotId);
+            } else if (availabilityIndex.isSparse() && availabilityIndex.covers(VirtualSlotIds.startAt(slotId).toLocalDate())) {
+                // Вычисляемый слот: статус той позиции, которую он обозначает (могла быть уже занята)
+                availabilityIndex.findSlot(slotId).ifPresent(slot -> statuses.put(slotId, slot.status()));
+            }
+        }
+        if (!persistedIds.isEmpty()) {
+            for (SlotStatusRow row : calendarSlotRepository.findStatusRowsByIds(persistedIds)) {
+                statuses.put(row.slotId(), row.effectiveStatus(now));
+            }
+        }
+        if (redisHoldStore != null) {
+            // Удержания в Redis в базе не записаны: слот там OPEN
+            List<Long> openIds = statuses.entrySet().stream()
+                    .filter(entry -> entry.getValue() == CalendarSlot.SlotStatus.OPEN)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (!openIds.isEmpty()) {
+                redisHoldStore.findHeld(openIds).forEach(slotId -> statuses.put(slotId, CalendarSlot.SlotStatus.HELD));
+            }
+        }
+        List<Long> unknownIds = requested.stream()
+                .filter(id -> !statuses.containsKey(id))
+                .collect(Collectors.toList());
+        
+        return new SlotStatusBatch(statuses, unknownIds);
+    }
+    
     public List<CalendarSlot> findConflictingSlots(Long seatId, LocalDateTime startAt, LocalDateTime endAt) {
         return calendarSlotRepository.findConflictingSlots(seatId, startAt, endAt);
     }
     
+    /**
+     * Сводка доступности по всем активным рабочим пространствам коворкинга за день.
+     * Читается из почасового агрегата slot_occupancy_hourly, а не из calendar_slots.
+     */
+    @Transactional(readOnly = true)
     public List<WorkspaceAvailabilitySummary> getWorkspaceAvailabilitySummary(Long coworkingId, LocalDate date) {
-        List<Workspace> workspaces = workspaceRepository.findByCoworkingIdAndActiveTrue(coworkingId);
-        
-        return workspaces.stream()
-                .map(workspace -> {
-                    long totalSlots = getTotalSlotsForWorkspace(workspace.getId(), date);
-                    long availableSlots = getAvailableSlotCount(workspace.getId(), date);
-                    long bookedSlots = totalSlots - availableSlots;
-                    
-                    return new WorkspaceAvailabilitySummary(
-                            workspace.getId(),
-                            workspace.getName(),
-                            totalSlots,
-                            availableSlots,
-                            bookedSlots,
-                            totalSlots > 0 ? (double) availableSlots / totalSlots * 100 : 0
-                    );
-                })
+        return slotOccupancyHourlyRepository.sumByCoworking(
+                        coworkingId, date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .map(occupancy -> toSummary(occupancy, date))
                 .collect(Collectors.toList());
     }
     
-    private long getTotalSlotsForWorkspace(Long workspaceId, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-        
-        List<WorkspaceSeat> seats = workspaceSeatRepository.findByWorkspaceIdAndActiveTrue(workspaceId);
-        if (seats.isEmpty()) {
-            return 0;
-        }
-        
-        List<Long> seatIds = seats.stream().map(WorkspaceSeat::getId).collect(Collectors.toList());
-        List<CalendarSlot> allSlots = calendarSlotRepository.findAvailableSlotsBySeatIdsAndDateRange(seatIds, startOfDay, endOfDay);
+    /**
+     * Сводка доступности одного активного рабочего пространства за день.
+     *
+     * @return сводка или {@link Optional#empty()}, если рабочее пространство не найдено или неактивно
+     */
+    @Transactional(readOnly = true)
+    public Optional<WorkspaceAvailabilitySummary> getSingleWorkspaceAvailabilitySummary(Long workspaceId, LocalDate date) {
+        return slotOccupancyHourlyRepository.sumByWorkspace(
+                        workspaceId, date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .map(occupancy -> toSummary(occupancy, date))
+                .findFirst();
+    }
+    
+    /**
+     * Почасовая занятость рабочего пространства за день из агрегата slot_occupancy_hourly.
+     */
+    @Transactional(readOnly = true)
+    public List<SlotOccupancyHourly> getHourlyOccupancy(Long workspaceId, LocalDate date) {
+        return slotOccupancyHourlyRepository.findByWorkspaceAndRange(
+                workspaceId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+    
+    private WorkspaceAvailabilitySummary toSummary(WorkspaceOccupancy occupancy, LocalDate date) {
+        // В разреженной модели агрегат видит только сохранённые строки, свободные слоты считает индекс
+        long availableSlots = derivesOpenSlots(date)
+                ? availabilityIndex.countOpen(occupancy.workspaceId(), date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                : occupancy.openCount();
+        long totalSlots = availableSlots + occupancy.heldCount()
+                + occupancy.bookedCount() + occupancy.frozenCount();
         
-        return allSlots.size();
+        return new WorkspaceAvailabilitySummary(
+                occupancy.workspaceId(),
+                occupancy.workspaceName(),
+                totalSlots,
+                availableSlots,
+                occupancy.bookedCount(),
+                occupancy.heldCount(),
+                occupancy.frozenCount(),
+                totalSlots > 0 ? (double) availableSlots / totalSlots * 100 : 0
+        );
     }
     
     // Inner class for availability summary
@@ -287,15 +959,20 @@ public class AvailabilityService {
         private final long totalSlots;
         private final long availableSlots;
         private final long bookedSlots;
+        private final long heldSlots;
+        private final long frozenSlots;
         private final double availabilityPercentage;
         
         public WorkspaceAvailabilitySummary(Long workspaceId, String workspaceName, long totalSlots, 
-                                          long availableSlots, long bookedSlots, double availabilityPercentage) {
+                                          long availableSlots, long bookedSlots, long heldSlots,
+                                          long frozenSlots, double availabilityPercentage) {
             this.workspaceId = workspaceId;
             this.workspaceName = workspaceName;
             this.totalSlots = totalSlots;
             this.availableSlots = availableSlots;
             this.bookedSlots = bookedSlots;
+            this.heldSlots = heldSlots;
+            this.frozenSlots = frozenSlots;
             this.availabilityPercentage = availabilityPercentage;
         }
         
@@ -305,7 +982,98 @@ public class AvailabilityService {
         public long getTotalSlots() { return totalSlots; }
         public long getAvailableSlots() { return availableSlots; }
         public long getBookedSlots() { return bookedSlots; }
+        public long getHeldSlots() { return heldSlots; }
+        public long getFrozenSlots() { return frozenSlots; }
         public double getAvailabilityPercentage() { return availabilityPercentage; }
     }
+    
+    /**
+     * Страница слотов keyset-пагинации. {@code nextCursor == null}, если страница последняя.
+     */
+    public record SlotPage(List<SlotView> content, String nextCursor, int size) {
+    }
+    
+    /**
+     * Позиция keyset-пагинации: последний отданный (код места, id места, время начала), закодированный в Base64.
+     * Коды мест не уникальны (место, выведенное из работы, и новое место с тем же кодом), поэтому в позиции есть id.
+     */
+    private record SlotCursor(String seatCode, Long seatId, LocalDateTime startAt) {
+        
+        private static final char SEPARATOR = '\n';
+        
+        String encode() {
+            String raw = seatCode + SEPARATOR + seatId + SEPARATOR + startAt;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        /**
+         * Слот идёт в выдаче после этой позиции.
+         */
+        boolean isBefore(AvailabilityIndex.IndexedSlot slot) {
+            int byCode = slot.seatCode().compareTo(seatCode);
+            if (byCode != 0) {
+                return byCode > 0;
+            }
+            int bySeat = slot.seatId().compareTo(seatId);
+            return bySeat != 0 ? bySeat > 0 : slot.startAt().isAfter(startAt);
+        }
+        
+        static SlotCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int timeSeparator = raw.lastIndexOf(SEPARATOR);
+                int seatSeparator = timeSeparator > 0 ? raw.lastIndexOf(SEPARATOR, timeSeparator - 1) : -1;
+                if (seatSeparator <= 0) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new SlotCursor(raw.substring(0, seatSeparator),
+                        Long.valueOf(raw.substring(seatSeparator + 1, timeSeparator)),
+                        LocalDateTime.parse(raw.substring(timeSeparator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+    
+    /**
+     * Итог массовой заморозки или разморозки: {@code affected} — изменённые слоты (включая {@code materialized}
+     * вычисляемые слоты, сохранённые строками FROZEN в разреженном режиме), {@code skipped} — слоты интервала,
+     * оставленные как есть (забронированные или уже в нужном состоянии), {@code conflicts} — вычисляемые слоты,
+     * которые параллельно сохранили другой строкой (например, удержанием): они заморожены как сохранённые
+     * и учтены в {@code affected} или {@code skipped}.
+     */
+    public record BulkFreezeResult(int affected, long skipped, int materialized, int conflicts) {
+    }
+    
+    /**
+     * Результат пакетной проверки: статус по идентификатору слота и список ненайденных идентификаторов.
+     */
+    public record SlotStatusBatch(Map<Long, CalendarSlot.SlotStatus> statuses, List<Long> unknownIds) {
+    }
+    
+    /**
+     * Найденное свободное окно: место, время начала и конца (по границам слотов), до какого времени
+     * место свободно подряд и слоты, которые нужно удержать для бронирования окна.
+     */
+    public record FreeWindow(Long workspaceId,
+                             String workspaceName,
+                             Long seatId,
+                             String seatCode,
+                             LocalDateTime startAt,
+                             LocalDateTime endAt,
+                             LocalDateTime availableUntil,
+                             List<Long> slotIds) {
+    }
+    
+    /**
+     * Свободное время рабочего пространства за диапазон дат.
+     */
+    public record AvailabilityRange(Long workspaceId, LocalDate from, LocalDate to, List<SeatFreeIntervals> seats) {
+    }
+    
+    /**
+     * Свободные интервалы одного места: дата -> список "HH:mm-HH:mm".
+     */
+    public record SeatFreeIntervals(Long seatId, String seatCode, Map<LocalDate, List<String>> days) {
+    }
 }
-
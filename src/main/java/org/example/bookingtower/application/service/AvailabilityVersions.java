@@ -0,0 +1,224 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisAvailabilitySync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики версий доступности: по рабочему пространству и дню, а также по дню в целом
+ * (для запросов по всему коворкингу). Увеличиваются после фиксации каждого изменения слотов
+ * и используются как ETag, чтобы неизменившиеся данные отдавать ответом 304 без запроса в базу.
+ *
+ * На одном узле версии живут в памяти; в ETag добавляется метка запуска, чтобы после перезапуска
+ * старые ETag клиентов не совпали с новыми счётчиками. При {@code app.availability.sync=redis} версии берутся
+ * из общего счётчика {@link RedisAvailabilitySync}, и узлы выдают одинаковые ETag. Версия узла продвигается
+ * только вместе с его данными: после применения изменения индексом, своего или полученного от другого узла,
+ * и при перестройке индекса. Пока Redis недоступен, ETag узла уникальны и меняются при каждом изменении.
+ */
+@Component
+public class AvailabilityVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityVersions.class);
+
+    private final String nodeEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // null — одиночный узел, версии только в памяти
+    private final RedisAvailabilitySync sync;
+
+    private final AtomicLong syncFailures = new AtomicLong();
+
+    // Изменение не попало в общий счётчик: при восстановлении связи набор версий начинается заново
+    private final AtomicBoolean unsynced = new AtomicBoolean();
+
+    private final Map<WorkspaceDay, AtomicLong> workspaceDays = new ConcurrentHashMap<>();
+
+    private final Map<LocalDate, AtomicLong> days = new ConcurrentHashMap<>();
+
+    private volatile String epoch;
+
+    private String sharedEpoch;
+
+    public AvailabilityVersions() {
+        this(Optional.empty());
+    }
+
+    @Autowired
+    public AvailabilityVersions(Optional<RedisAvailabilitySync> sync) {
+        this.sync = sync.orElse(null);
+        this.epoch = nodeEpoch;
+    }
+
+    /**
+     * Увеличивает версии затронутых дней. Выполняется последним из слушателей, после обновления
+     * in-memory индекса, чтобы новая версия никогда не выдавалась вместе со старыми данными.
+     * Изменения с других узлов приходят уже с версиями ({@link #onRemoteVersions}).
+     */
+    @TransactionalEventListener(fallbackExecution = true, condition = "!#event.remote")
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        Map<LocalDate, Set<Long>> touched = new LinkedHashMap<>();
+        for (SlotStatusChangedEvent.SlotChange change : event.getChanges()) {
+            touched.computeIfAbsent(change.startAt().toLocalDate(), date -> new HashSet<>()).add(change.workspaceId());
+        }
+        List<RedisAvailabilitySync.VersionValue> shared = bump(touched);
+        if (shared != null) {
+            try {
+                sync.publishSlotChanges(event.getChanges(), shared);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to send slot changes to other nodes, they catch up on the next index rebuild", e);
+            }
+        }
+    }
+
+    @EventListener
+    public void onRemoteVersions(RedisAvailabilitySync.RemoteVersions event) {
+        apply(event.versions());
+    }
+
+    /**
+     * Учитывает изменение вычисляемых слотов по новому расписанию коворкинга ({@code null} — общего календаря
+     * праздников): увеличивает версии затронутых дней и сообщает об изменении другим узлам. Вызывается
+     * индексом доступности после перестройки по новому расписанию.
+     */
+    public void onScheduleApplied(Long coworkingId, Map<LocalDate, Set<Long>> touched) {
+        bump(touched);
+        if (sync != null) {
+            try {
+                sync.publishScheduleChanged(coworkingId);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to send schedule change of coworking {} to other nodes", coworkingId, e);
+            }
+        }
+    }
+
+    /**
+     * Отбрасывает версии прошедших дней, а с общим хранилищем перечитывает версии из него. Вызывается индексом
+     * в начале перестройки, до чтения слотов, поэтому загруженные версии не новее данных нового снимка.
+     */
+    public void reload(LocalDate from) {
+        workspaceDays.keySet().removeIf(key -> key.date().isBefore(from));
+        days.keySet().removeIf(date -> date.isBefore(from));
+        if (sync == null) {
+            return;
+        }
+        boolean renew = unsynced.getAndSet(false);
+        try {
+            String loadedEpoch = renew ? sync.renewEpoch() : sync.epoch();
+            List<RedisAvailabilitySync.VersionValue> loaded = sync.load(from);
+            synchronized (this) {
+                // Новая метка означает, что счётчики в Redis начаты заново: прежние значения к ним не относятся
+                if (!loadedEpoch.equals(sharedEpoch)) {
+                    workspaceDays.clear();
+                    days.clear();
+                    sharedEpoch = loadedEpoch;
+                }
+                apply(loaded);
+                epoch = loadedEpoch;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load shared availability versions, ETags stay node-local", e);
+            unsynced.compareAndSet(false, renew);
+            epoch = nodeEpoch + "." + syncFailures.incrementAndGet();
+        }
+    }
+
+    public long getVersion(Long workspaceId, LocalDate date) {
+        AtomicLong version = workspaceDays.get(new WorkspaceDay(workspaceId, date));
+        return version != null ? version.get() : 0;
+    }
+
+    public long getVersion(LocalDate date) {
+        AtomicLong version = days.get(date);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * ETag данных рабочего пространства за день.
+     */
+    public String workspaceETag(Long workspaceId, LocalDate date) {
+        return etag("w" + getVersion(workspaceId, date));
+    }
+
+    /**
+     * ETag данных рабочего пространства за диапазон дней: сумма версий дней монотонно растёт
+     * при любом изменении внутри диапазона.
+     */
+    public String workspaceRangeETag(Long workspaceId, LocalDate from, LocalDate to) {
+        long sum = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            sum += getVersion(workspaceId, date);
+        }
+        return etag("r" + sum);
+    }
+
+    /**
+     * ETag данных всех рабочих пространств за день.
+     */
+    public String dateETag(LocalDate date) {
+        return etag("d" + getVersion(date));
+    }
+
+    /**
+     * Увеличивает версии локально или в общем счётчике.
+     *
+     * @return новые значения общего счётчика или {@code null}, если он не используется или недоступен
+     */
+    private List<RedisAvailabilitySync.VersionValue> bump(Map<LocalDate, Set<Long>> touched) {
+        if (touched.isEmpty()) {
+            return null;
+        }
+        if (sync == null) {
+            touched.forEach((date, workspaceIds) -> {
+                workspaceIds.forEach(workspaceId ->
+                        workspaceDays.computeIfAbsent(new WorkspaceDay(workspaceId, date), k -> new AtomicLong()).incrementAndGet());
+                days.computeIfAbsent(date, d -> new AtomicLong()).incrementAndGet();
+            });
+            return null;
+        }
+        try {
+            List<RedisAvailabilitySync.VersionValue> incremented = sync.increment(touched);
+            apply(incremented);
+            return incremented;
+        } catch (RuntimeException e) {
+            // Без общего счётчика ETag узла уникальны до следующей успешной перезагрузки версий
+            logger.warn("Failed to increment shared availability versions, ETags stay node-local", e);
+            unsynced.set(true);
+            epoch = nodeEpoch + "." + syncFailures.incrementAndGet();
+            return null;
+        }
+    }
+
+    private void apply(List<RedisAvailabilitySync.VersionValue> versions) {
+        for (RedisAvailabilitySync.VersionValue value : versions) {
+            AtomicLong version = value.workspaceId() == null
+                    ? days.computeIfAbsent(value.date(), d -> new AtomicLong())
+                    : workspaceDays.computeIfAbsent(new WorkspaceDay(value.workspaceId(), value.date()), k -> new AtomicLong());
+            version.accumulateAndGet(value.version(), Math::max);
+        }
+    }
+
+    private String etag(String version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    private record WorkspaceDay(Long workspaceId, LocalDate date) {
+    }
+}
@@ -1,23 +1,39 @@
 package org.example.bookingtower.application.service;
 
 import org.example.bookingtower.domain.entity.*;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
 import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Сервис BookingService, инкапсулирующий бизнес-логику BookingTower.
+ *
+ * Методы, изменяющие бронирования и слоты через загруженные сущности, выполняются через
+ * {@link OptimisticLockRetry}: при конфликте версий операция повторяется в новой транзакции.
+ *
+ * При {@code app.booking.hold-store=redis} удержания хранятся в {@link RedisHoldStore} и не пишутся
+ * в calendar_slots: в базе слот остаётся OPEN до подтверждения бронирования. Удержание и бронирование
+ * публикуют те же {@link SlotStatusChangedEvent}, что и удержания в базе, поэтому индекс доступности,
+ * SSE-лента, ETag и агрегат занятости показывают такие слоты HELD.
  */
 @Service
 @Transactional
@@ -25,11 +41,19 @@ public class BookingService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
 
+    static final int MAX_ACTIVE_HOLDS = 3;
+
     private final BookingRepository bookingRepository;
     private final CalendarSlotRepository calendarSlotRepository;
     private final WorkspaceSeatRepository workspaceSeatRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotArchiveService slotArchiveService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    // null — удержания хранятся в calendar_slots
+    private final RedisHoldStore redisHoldStore;
 
     @Value("${app.booking.hold-duration-minutes:10}")
     private int holdDurationMinutes;
@@ -42,42 +66,160 @@ public class BookingService {
                           CalendarSlotRepository calendarSlotRepository,
                           WorkspaceSeatRepository workspaceSeatRepository,
                           UserRepository userRepository,
-                          EmailService emailService) {
+                          EmailService emailService,
+                          ApplicationEventPublisher eventPublisher,
+                          AvailabilityIndex availabilityIndex,
+                          SlotArchiveService slotArchiveService,
+                          OptimisticLockRetry optimisticLockRetry,
+                          Optional<RedisHoldStore> redisHoldStore) {
         this.bookingRepository = bookingRepository;
         this.calendarSlotRepository = calendarSlotRepository;
         this.workspaceSeatRepository = workspaceSeatRepository;
         this.userRepository = userRepository;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.availabilityIndex = availabilityIndex;
+        this.slotArchiveService = slotArchiveService;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.redisHoldStore = redisHoldStore.orElse(null);
     }
 
+    /**
+     * Удерживает слот для пользователя. Захват — один условный UPDATE без загрузки сущности слота,
+     * поэтому из параллельных запросов на один слот успешен ровно один, остальные получают
+     * {@link IllegalStateException}. Вычисляемый слот разреженного режима вставляется сразу в статусе HELD,
+     * гонку вставок разрешает уникальный индекс (место, начало).
+     *
+     * Лимит одновременных удержаний проверяется COUNT по частичному индексу HELD-строк под блокировкой
+     * строки пользователя, поэтому параллельные удержания одного пользователя не превышают лимит.
+     *
+     * @throws IllegalArgumentException если пользователь или слот не найден
+     * @throws IllegalStateException    если слот занят или у пользователя слишком много удержаний
+     */
     public String holdSlot(Long userId, Long slotId) {
         logger.info("Holding slot {} for user {}", slotId, userId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        CalendarSlot slot = calendarSlotRepository.findById(slotId)
-                .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        if (redisHoldStore != null) {
+            return holdInRedis(userId, slotId);
+        }
 
-        if (!slot.isAvailable()) {
-            throw new IllegalStateException("Slot is not available for holding");
+        if (userRepository.lockById(userId).isEmpty()) {
+            throw new IllegalArgumentException("User not found");
         }
 
+        LocalDateTime now = LocalDateTime.now();
+
         // Проверяем, есть ли у пользователя активные удержания
-        List<CalendarSlot> activeHolds = calendarSlotRepository.findActiveHoldsByUser(userId, LocalDateTime.now());
-        if (activeHolds.size() >= 3) { // Limit to 3 concurrent holds
+        if (calendarSlotRepository.countActiveHoldsByUser(userId, now) >= MAX_ACTIVE_HOLDS) {
             throw new IllegalStateException("User has too many active holds");
         }
 
-        LocalDateTime holdExpiresAt = LocalDateTime.now().plusMinutes(holdDurationMinutes);
-        slot.hold(userId, holdExpiresAt);
+        LocalDateTime holdExpiresAt = now.plusMinutes(holdDurationMinutes);
+        Long persistedId = holdKey(slotId);
+        if (VirtualSlotIds.isVirtual(persistedId)) {
+            holdDerivedSlot(slotId, userId, holdExpiresAt);
+            return holdId(slotId, userId, holdExpiresAt);
+        }
 
-        calendarSlotRepository.save(slot);
+        Optional<String> heldFrom = calendarSlotRepository.holdIfAvailable(persistedId, userId, holdExpiresAt, now);
+        if (heldFrom.isEmpty()) {
+            // Повторное чтение только на пути отказа, чтобы различить ненайденный и занятый слот
+            if (!calendarSlotRepository.existsById(persistedId)) {
+                throw new IllegalArgumentException("Slot not found");
+            }
+            throw new IllegalStateException("Slot is not available for holding");
+        }
+        CalendarSlot.SlotStatus previousStatus = CalendarSlot.SlotStatus.valueOf(heldFrom.get());
 
-        String holdId = "HOLD_" + slotId + "_" + userId + "_" + System.currentTimeMillis();
-        logger.info("Slot {} held successfully for user {} until {}", slotId, userId, holdExpiresAt);
+        for (SlotIndexRow row : calendarSlotRepository.findIndexRowsByIds(List.of(persistedId))) {
+            eventPublisher.publishEvent(new SlotStatusChangedEvent(List.of(new SlotStatusChangedEvent.SlotChange(
+                    row.slotId(), row.seatId(), row.seatCode(), row.workspaceId(), row.startAt(), row.endAt(),
+                    previousStatus, CalendarSlot.SlotStatus.HELD, holdExpiresAt))));
+        }
+        return holdId(slotId, userId, holdExpiresAt);
+    }
+
+    /**
+     * Удержание в Redis: в базе только проверяется, что слот свободен. Лимит удержаний пользователя
+     * и захват слота атомарно проверяет {@link RedisHoldStore}.
+     */
+    private String holdInRedis(Long userId, Long slotId) {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Long key = holdKey(slotId);
+        CalendarSlot derived = null;
+        if (VirtualSlotIds.isVirtual(key)) {
+            // Вычисляемый слот без строки свободен, если индекс выводит его из расписания
+            derived = deriveSlot(key);
+        } else {
+            CalendarSlot.SlotStatus status = calendarSlotRepository.findStatusRowsByIds(List.of(key)).stream()
+                    .findFirst()
+                    .map(row -> row.effectiveStatus(now))
+                    .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+            if (status != CalendarSlot.SlotStatus.OPEN) {
+                throw new IllegalStateException("Slot is not available for holding");
+            }
+        }
+
+        // Истёкшее, но ещё не снятое удержание индекс пока показывает HELD
+        CalendarSlot.SlotStatus previousStatus = switch (
+                redisHoldStore.acquire(key, userId, Duration.ofMinutes(holdDurationMinutes), MAX_ACTIVE_HOLDS)) {
+            case LIMIT_REACHED -> throw new IllegalStateException("User has too many active holds");
+            case TAKEN -> throw new IllegalStateException("Slot is not available for holding");
+            case TAKEN_OVER -> CalendarSlot.SlotStatus.HELD;
+            case ACQUIRED -> derived != null ? null : CalendarSlot.SlotStatus.OPEN;
+        };
+
+        LocalDateTime holdExpiresAt = now.plusMinutes(holdDurationMinutes);
+        List<SlotStatusChangedEvent.SlotChange> changes = new ArrayList<>();
+        if (derived != null) {
+            WorkspaceSeat seat = derived.getSeat();
+            changes.add(new SlotStatusChangedEvent.SlotChange(key, seat.getId(), seat.getCode(), seat.getWorkspace().getId(),
+                    derived.getStartAt(), derived.getEndAt(), previousStatus, CalendarSlot.SlotStatus.HELD, holdExpiresAt));
+        } else {
+            for (SlotIndexRow row : calendarSlotRepository.findIndexRowsByIds(List.of(key))) {
+                changes.add(new SlotStatusChangedEvent.SlotChange(row.slotId(), row.seatId(), row.seatCode(),
+                        row.workspaceId(), row.startAt(), row.endAt(), previousStatus, CalendarSlot.SlotStatus.HELD,
+                        holdExpiresAt));
+            }
+        }
+        eventPublisher.publishEvent(new SlotStatusChangedEvent(changes));
+        return holdId(slotId, userId, holdExpiresAt);
+    }
+
+    /**
+     * Идентификатор, под которым слот удерживается: виртуальный идентификатор разрешается в сохранённую
+     * строку, если она есть, иначе остаётся виртуальным.
+     */
+    private Long holdKey(Long slotId) {
+        if (!VirtualSlotIds.isVirtual(slotId)) {
+            return slotId;
+        }
+        return calendarSlotRepository.findIdBySeatIdAndStartAt(VirtualSlotIds.seatId(slotId), VirtualSlotIds.startAt(slotId))
+                .orElse(slotId);
+    }
 
-        return holdId;
+    /**
+     * Разреженный режим: вставляет вычисляемый слот сразу в статусе HELD.
+     */
+    private void holdDerivedSlot(Long slotId, Long userId, LocalDateTime holdExpiresAt) {
+        CalendarSlot slot = deriveSlot(slotId);
+        slot.hold(userId, holdExpiresAt);
+        try {
+            calendarSlotRepository.saveAndFlush(slot);
+        } catch (DataIntegrityViolationException e) {
+            // Тот же вычисляемый слот параллельно занял другой пользователь (уникальный индекс место + начало)
+            throw new IllegalStateException("Slot is not available for holding");
+        }
+        eventPublisher.publishEvent(SlotStatusChangedEvent.of(slot, null));
+    }
+
+    private String holdId(Long slotId, Long userId, LocalDateTime holdExpiresAt) {
+        logger.info("Slot {} held successfully for user {} until {}", slotId, userId, holdExpiresAt);
+        return "HOLD_" + slotId + "_" + userId + "_" + System.currentTimeMillis();
     }
 
     /**
@@ -92,14 +234,44 @@ public class BookingService {
      * @throws IllegalArgumentException if the user or slot is not found
      * @throws IllegalStateException    if the slot is not held by the user or the seat is not active
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Booking confirmBooking(Long userId, Long slotId, BigDecimal totalPrice) {
         logger.info("Confirming booking for slot {} by user {}", slotId, userId);
 
+        Booking savedBooking;
+        if (redisHoldStore != null) {
+            Long key = holdKey(slotId);
+            savedBooking = optimisticLockRetry.execute("booking.confirm",
+                    () -> createRedisHeldBooking(userId, key, totalPrice));
+            try {
+                redisHoldStore.release(key, userId);
+            } catch (Exception e) {
+                // Удержание всё равно истечёт по TTL
+                logger.warn("Failed to release Redis hold of slot {}", key, e);
+            }
+        } else {
+            savedBooking = optimisticLockRetry.execute("booking.confirm",
+                    () -> createBooking(userId, slotId, totalPrice));
+        }
+
+        logger.info("Booking {} created successfully", savedBooking.getId());
+
+        // Письмо отправляется вне повторяемой транзакции, чтобы повтор не дублировал его
+        try {
+            String bookingDetails = formatBookingDetails(savedBooking);
+            emailService.sendBookingConfirmation(savedBooking.getUser().getEmail(), bookingDetails);
+        } catch (Exception e) {
+            logger.error("Failed to send booking confirmation email", e);
+        }
+
+        return savedBooking;
+    }
+
+    private Booking createBooking(Long userId, Long slotId, BigDecimal totalPrice) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        CalendarSlot slot = calendarSlotRepository.findById(slotId)
-                .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        CalendarSlot slot = findSlot(slotId);
 
         if (!slot.isHeldBy(userId)) {
             throw new IllegalStateException("Slot is not held by this user");
@@ -117,25 +289,76 @@ public class BookingService {
         Booking savedBooking = bookingRepository.save(booking);
 
         // Обновить статус слота для забронированного
+        CalendarSlot.SlotStatus previousStatus = slot.getStatus();
         slot.book();
         calendarSlotRepository.save(slot);
+        eventPublisher.publishEvent(SlotStatusChangedEvent.of(slot, previousStatus));
 
-        logger.info("Booking {} created successfully", savedBooking.getId());
+        return savedBooking;
+    }
+
+    /**
+     * Бронирование по удержанию из Redis: свободная строка слота (или вычисляемый слот разреженного режима)
+     * сразу переводится в BOOKED — единственная запись в calendar_slots за весь цикл удержания.
+     */
+    private Booking createRedisHeldBooking(Long userId, Long holdKey, BigDecimal totalPrice) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Send confirmation email
+        if (!redisHoldStore.isHeldBy(holdKey, userId)) {
+            throw new IllegalStateException("Slot is not held by this user");
+        }
+
+        boolean derived = VirtualSlotIds.isVirtual(holdKey);
+        CalendarSlot slot = derived
+                ? deriveSlot(holdKey)
+                : calendarSlotRepository.findById(holdKey).orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+
+        WorkspaceSeat seat = slot.getSeat();
+        if (!seat.isActive()) {
+            throw new IllegalStateException("Seat is not active");
+        }
+
+        SlotStatusChangedEvent.SlotChange heldChange = new SlotStatusChangedEvent.SlotChange(holdKey, seat.getId(),
+                seat.getCode(), seat.getWorkspace().getId(), slot.getStartAt(), slot.getEndAt(),
+                CalendarSlot.SlotStatus.HELD, null);
+        slot.bookExternallyHeld(userId);
         try {
-            String bookingDetails = formatBookingDetails(savedBooking);
-            emailService.sendBookingConfirmation(user.getEmail(), bookingDetails);
-        } catch (Exception e) {
-            logger.error("Failed to send booking confirmation email", e);
+            slot = calendarSlotRepository.saveAndFlush(slot);
+        } catch (DataIntegrityViolationException e) {
+            // Вычисляемый слот параллельно сохранён другим узлом (уникальный индекс место + начало)
+            throw new IllegalStateException("Slot is not available for booking");
         }
+        // Удержание объявлено событием HELD: строка выходит из него, вычисляемый слот заменяется сохранённым
+        eventPublisher.publishEvent(derived
+                ? new SlotStatusChangedEvent(List.of(heldChange,
+                        SlotStatusChangedEvent.SlotChange.of(slot, null, slot.getStatus())))
+                : SlotStatusChangedEvent.of(slot, CalendarSlot.SlotStatus.HELD));
 
-        return savedBooking;
+        Booking booking = new Booking(user, seat, slot, totalPrice);
+        booking.setCreatedAt(LocalDateTime.now());
+        return bookingRepository.save(booking);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void cancelBooking(Long bookingId, Long userId, String reason) {
         logger.info("Canceling booking {} by user {}", bookingId, userId);
 
+        Booking booking = optimisticLockRetry.execute("booking.cancel",
+                () -> cancelUserBooking(bookingId, userId, reason));
+
+        logger.info("Booking {} canceled successfully", bookingId);
+
+        // Send cancellation email
+        try {
+            String bookingDetails = formatBookingDetails(booking);
+            emailService.sendBookingCancellation(booking.getUser().getEmail(), bookingDetails, reason);
+        } catch (Exception e) {
+            logger.error("Failed to send booking cancellation email", e);
+        }
+    }
+
+    private Booking cancelUserBooking(Long bookingId, Long userId, String reason) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
@@ -160,32 +383,29 @@ public class BookingService {
 
         // Release the slot
         CalendarSlot slot = booking.getSlot();
+        CalendarSlot.SlotStatus previousStatus = slot.getStatus();
         slot.release();
         calendarSlotRepository.save(slot);
+        eventPublisher.publishEvent(SlotStatusChangedEvent.of(slot, previousStatus));
 
-        logger.info("Booking {} canceled successfully", bookingId);
-
-        // Send cancellation email
-        try {
-            String bookingDetails = formatBookingDetails(booking);
-            emailService.sendBookingCancellation(booking.getUser().getEmail(), bookingDetails, reason);
-        } catch (Exception e) {
-            logger.error("Failed to send booking cancellation email", e);
-        }
+        return booking;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void markAsNoShow(Long bookingId) {
         logger.info("Marking booking {} as no-show", bookingId);
 
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        optimisticLockRetry.run("booking.no-show", () -> {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
-        if (!booking.canBeMarkedAsNoShow()) {
-            throw new IllegalStateException("Booking cannot be marked as no-show");
-        }
+            if (!booking.canBeMarkedAsNoShow()) {
+                throw new IllegalStateException("Booking cannot be marked as no-show");
+            }
 
-        booking.markAsNoShow();
-        bookingRepository.save(booking);
+            booking.markAsNoShow();
+            bookingRepository.save(booking);
+        });
 
         logger.info("Booking {} marked as no-show", bookingId);
     }
@@ -219,22 +439,15 @@ public class BookingService {
         return bookingRepository.findPotentialNoShows(cutoffTime);
     }
 
-    public void releaseExpiredHolds() {
-        logger.info("Releasing expired holds");
-        int releasedCount = calendarSlotRepository.releaseExpiredHolds(LocalDateTime.now());
-        logger.info("Released {} expired holds", releasedCount);
-    }
-
     public BigDecimal calculatePrice(Long slotId) {
-        CalendarSlot slot = calendarSlotRepository.findById(slotId)
-                .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        CalendarSlot slot = findSlot(slotId);
 
         WorkspaceSeat seat = slot.getSeat();
         return seat.getWorkspace().getPricePerHour();
     }
 
     public List<Booking> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.findByDateRange(startDate, endDate);
+        return slotArchiveService.findBookings(startDate, endDate);
     }
 
     public List<Booking> getBookingsByWorkspace(Long workspaceId) {
@@ -251,7 +464,7 @@ public class BookingService {
     }
 
     public long getBookingCount(Long workspaceId, LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.countConfirmedBookingsByWorkspaceAndDateRange(workspaceId, startDate, endDate);
+        return slotArchiveService.countConfirmedBookings(workspaceId, startDate, endDate);
     }
 
     private String formatBookingDetails(Booking booking) {
@@ -275,23 +488,31 @@ public class BookingService {
         return bookingRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void adminCancelBooking(Long bookingId, String reason) {
         logger.info("Admin canceling booking {}", bookingId);
 
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        Booking booking = optimisticLockRetry.execute("booking.admin-cancel", () -> {
+            Booking canceled = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
-        if (!booking.canBeCanceled()) {
-            throw new IllegalStateException("Booking cannot be canceled");
-        }
+            if (!canceled.canBeCanceled()) {
+                throw new IllegalStateException("Booking cannot be canceled");
+            }
 
-        booking.cancel(reason);
-        bookingRepository.save(booking);
+            canceled.cancel(reason);
+            bookingRepository.save(canceled);
 
-        // Release the slot
-        CalendarSlot slot = booking.getSlot();
-        slot.release();
-        calendarSlotRepository.save(slot);
+            // Release the slot; an archived slot is in the past and has nothing to release
+            CalendarSlot slot = canceled.getSlot();
+            if (slot != null) {
+                CalendarSlot.SlotStatus previousStatus = slot.getStatus();
+                slot.release();
+                calendarSlotRepository.save(slot);
+                eventPublisher.publishEvent(SlotStatusChangedEvent.of(slot, previousStatus));
+            }
+            return canceled;
+        });
 
         logger.info("Booking {} canceled by admin", bookingId);
 
@@ -303,5 +524,27 @@ public class BookingService {
             logger.error("Failed to send booking cancellation email", e);
         }
     }
-}
 
+    /**
+     * Сохранённый слот по идентификатору. Виртуальный идентификатор вычисляемого слота
+     * (разреженная модель) разрешается в строку, созданную при его удержании.
+     */
+    private CalendarSlot findSlot(Long slotId) {
+        Optional<CalendarSlot> slot = VirtualSlotIds.isVirtual(slotId)
+                ? calendarSlotRepository.findBySeatIdAndStartAt(VirtualSlotIds.seatId(slotId), VirtualSlotIds.startAt(slotId))
+                : calendarSlotRepository.findById(slotId);
+        return slot.orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+    }
+
+    /**
+     * Новый несохранённый OPEN-слот по виртуальному идентификатору, если индекс доступности выводит его из расписания.
+     */
+    private CalendarSlot deriveSlot(Long slotId) {
+        AvailabilityIndex.IndexedSlot derived = availabilityIndex.findSlot(slotId)
+                .filter(slot -> slotId.equals(slot.slotId()))
+                .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        WorkspaceSeat seat = workspaceSeatRepository.findByIdAndActiveTrue(VirtualSlotIds.seatId(slotId))
+                .orElseThrow(() -> new IllegalArgumentException("Slot not found"));
+        return new CalendarSlot(seat, derived.startAt(), derived.endAt());
+    }
+}
@@ -0,0 +1,337 @@
+package org.example.bookingtower.application.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Сервис HoldExpiryService: снимает удержания слотов точно в срок.
+ *
+ * Каждое зафиксированное удержание ставится в {@link HoldTimingWheel} на момент истечения; поток колеса
+ * раз в {@code app.hold-expiry.tick-ms} снимает наступившие удержания пакетными UPDATE. Колесо живёт
+ * в памяти узла и видит только удержания, взятые на нём, поэтому {@link #sweep()} по расписанию Quartz
+ * снимает всё, что пропущено (перезапуск, удержания других узлов).
+ *
+ * При {@code app.booking.hold-store=redis} удержания истекают по TTL в Redis; колесо и страховочный проход
+ * забирают их из {@link RedisHoldStore} (каждое — ровно один узел) и публикуют переход из HELD, если
+ * слот в базе по-прежнему свободен.
+ *
+ * Метрики: {@code booking.hold.release.lag} — задержка снятия относительно срока (теги source = wheel|sweeper),
+ * {@code booking.hold.lifetime} — время жизни удержания до выхода из HELD (тег outcome),
+ * {@code booking.hold.released} — число снятых удержаний, {@code booking.hold.wheel.pending} — записи в колесе.
+ */
+@Service
+public class HoldExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryService.class);
+
+    static final String LAG_METRIC = "booking.hold.release.lag";
+    static final String LIFETIME_METRIC = "booking.hold.lifetime";
+    static final String RELEASED_METRIC = "booking.hold.released";
+    static final String SOURCE_WHEEL = "wheel";
+    static final String SOURCE_SWEEPER = "sweeper";
+
+    private final CalendarSlotRepository calendarSlotRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long holdDurationMillis;
+    private final long tickMillis;
+    private final int batchSize;
+    private final RedisHoldStore redisHoldStore;
+
+    private final HoldTimingWheel wheel;
+    // Время взятия удержаний, стоящих в колесе; записи без слота в колесе удаляются в tick и sweep
+    private final Map<Long, Long> heldAtMillis = new HashMap<>();
+
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public HoldExpiryService(CalendarSlotRepository calendarSlotRepository,
+                             AvailabilityIndex availabilityIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.booking.hold-duration-minutes:10}") long holdDurationMinutes,
+                             @Value("${app.hold-expiry.tick-ms:1000}") long tickMillis,
+                             @Value("${app.hold-expiry.wheel-size:512}") int wheelSize,
+                             @Value("${app.hold-expiry.batch-size:500}") int batchSize,
+                             Optional<RedisHoldStore> redisHoldStore) {
+        this.calendarSlotRepository = calendarSlotRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.holdDurationMillis = TimeUnit.MINUTES.toMillis(holdDurationMinutes);
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.redisHoldStore = redisHoldStore.orElse(null);
+        this.wheel = new HoldTimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        Gauge.builder("booking.hold.wheel.pending", this, HoldExpiryService::pendingCount).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hold-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                tick(System.currentTimeMillis());
+            } catch (Exception e) {
+                logger.error("Failed to release expired holds from the timing wheel", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        logger.info("Hold expiry wheel started with {} ms tick", tickMillis);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Ставит зафиксированные удержания в колесо на их срок и снимает с учёта слоты, вышедшие из HELD.
+     * Удержания других узлов снимают их колёса или страховочный проход; события с других узлов только
+     * снимают с учёта удержания этого узла, подтверждённые, отменённые или перехваченные там.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (SlotStatusChangedEvent.SlotChange change : event.getChanges()) {
+                if (change.currentStatus() == CalendarSlot.SlotStatus.HELD && !event.isRemote()) {
+                    wheel.schedule(change.slotId(), deadlineMillis(change, now));
+                    heldAtMillis.put(change.slotId(), now);
+                } else if (change.previousStatus() == CalendarSlot.SlotStatus.HELD) {
+                    wheel.cancel(change.slotId());
+                    Long heldAt = heldAtMillis.remove(change.slotId());
+                    if (heldAt != null && change.currentStatus() != CalendarSlot.SlotStatus.HELD) {
+                        meterRegistry.timer(LIFETIME_METRIC, "outcome", outcome(change.currentStatus()))
+                                .record(Math.max(0, now - heldAt), TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Снимает удержания, срок которых наступил к {@code nowMillis}, порциями по {@code app.hold-expiry.batch-size}.
+     *
+     * @return число снятых удержаний
+     */
+    int tick(long nowMillis) {
+        List<Long> due;
+        synchronized (this) {
+            due = wheel.advance(nowMillis);
+        }
+        int released = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            if (redisHoldStore != null) {
+                List<RedisHoldStore.HoldExpiry> pending = new ArrayList<>();
+                released += releaseRedis(SOURCE_WHEEL, redisHoldStore.claimDue(batch, pending));
+                // Срок в Redis ещё не наступил: удержание перехвачено заново или часы узла спешат
+                synchronized (this) {
+                    pending.forEach(hold -> wheel.schedule(hold.slotId(), hold.expiresAtMillis()));
+                }
+            } else {
+                released += release(SOURCE_WHEEL, now -> calendarSlotRepository.releaseExpiredHoldsByIds(batch, now));
+            }
+        }
+        // Снятые удержания сняты с учёта своим событием; остальные уже изменены (в том числе на другом узле)
+        // или заблокированы параллельной транзакцией, их снимет событие той транзакции или страховочный проход
+        synchronized (this) {
+            for (Long slotId : due) {
+                if (!wheel.contains(slotId)) {
+                    heldAtMillis.remove(slotId);
+                }
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Страховочный проход: снимает все истёкшие удержания порциями, каждая — отдельная транзакция.
+     *
+     * @return число снятых удержаний
+     */
+    public int sweep() {
+        int total = 0;
+        int released;
+        do {
+            released = release(SOURCE_SWEEPER, now -> calendarSlotRepository.releaseExpiredHolds(now, batchSize));
+            total += released;
+        } while (released >= batchSize);
+        if (redisHoldStore != null) {
+            do {
+                released = releaseRedis(SOURCE_SWEEPER, redisHoldStore.claimExpired(batchSize));
+                total += released;
+            } while (released >= batchSize);
+        }
+        synchronized (this) {
+            heldAtMillis.keySet().removeIf(slotId -> !wheel.contains(slotId));
+        }
+        if (total > 0) {
+            logger.info("Sweeper released {} expired holds", total);
+        }
+        return total;
+    }
+
+    // Без срока в событии удержание ставится на полный срок от фиксации: позже истечения, поэтому
+    // UPDATE по-прежнему снимает его, лишь с задержкой до этого момента. Лишняя миллисекунда покрывает
+    // доли миллисекунды в сроке: UPDATE снимает только удержания со сроком строго раньше момента снятия
+    private long deadlineMillis(SlotStatusChangedEvent.SlotChange change, long now) {
+        if (change.holdExpiresAt() == null) {
+            return now + holdDurationMillis;
+        }
+        return change.holdExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + 1;
+    }
+
+    synchronized int pendingCount() {
+        return wheel.size();
+    }
+
+    synchronized int trackedCount() {
+        return heldAtMillis.size();
+    }
+
+    private int release(String source, Function<LocalDateTime, List<Object[]>> update) {
+        Integer released = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> rows = update.apply(now);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            Timer lag = meterRegistry.timer(LAG_METRIC, "source", source);
+            List<Long> slotIds = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                slotIds.add(((Number) row[0]).longValue());
+                Duration late = Duration.between(toLocalDateTime(row[1]), now);
+                lag.record(late.isNegative() ? Duration.ZERO : late);
+            }
+
+            List<SlotStatusChangedEvent.SlotChange> changes = new ArrayList<>(slotIds.size());
+            for (SlotIndexRow row : calendarSlotRepository.findIndexRowsByIds(slotIds)) {
+                changes.add(new SlotStatusChangedEvent.SlotChange(row.slotId(), row.seatId(), row.seatCode(),
+                        row.workspaceId(), row.startAt(), row.endAt(),
+                        CalendarSlot.SlotStatus.HELD, CalendarSlot.SlotStatus.OPEN));
+            }
+            eventPublisher.publishEvent(new SlotStatusChangedEvent(changes));
+            meterRegistry.counter(RELEASED_METRIC, "source", source).increment(rows.size());
+            logger.debug("Released {} expired holds ({})", rows.size(), source);
+            return rows.size();
+        });
+        return released != null ? released : 0;
+    }
+
+    /**
+     * Публикует выход из HELD забранных удержаний Redis. Слоты, которые уже забронированы или заморожены,
+     * пропускаются: переход из HELD для них опубликовала операция, изменившая слот.
+     */
+    private int releaseRedis(String source, List<RedisHoldStore.HoldExpiry> claimed) {
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        Timer lag = meterRegistry.timer(LAG_METRIC, "source", source);
+        List<Long> persistedIds = new ArrayList<>();
+        List<SlotStatusChangedEvent.SlotChange> changes = new ArrayList<>(claimed.size());
+        for (RedisHoldStore.HoldExpiry hold : claimed) {
+            lag.record(Math.max(0, now - hold.expiresAtMillis()), TimeUnit.MILLISECONDS);
+            if (!VirtualSlotIds.isVirtual(hold.slotId())) {
+                persistedIds.add(hold.slotId());
+                continue;
+            }
+            // Вычисляемый слот без строки: удержание снимается удалением, индекс возвращает слот из расписания
+            try {
+                availabilityIndex.findSlot(hold.slotId())
+                        .filter(slot -> hold.slotId().equals(slot.slotId()))
+                        .ifPresent(slot -> changes.add(new SlotStatusChangedEvent.SlotChange(slot.slotId(),
+                                slot.seatId(), slot.seatCode(), slot.workspaceId(), slot.startAt(), slot.endAt(),
+                                CalendarSlot.SlotStatus.HELD, null)));
+            } catch (IllegalStateException e) {
+                // Индекс ещё не построен: при построении он не увидит снятое удержание
+                logger.debug("Availability index is not built, skipping release event of slot {}", hold.slotId());
+            }
+        }
+        if (!persistedIds.isEmpty()) {
+            for (SlotIndexRow row : calendarSlotRepository.findIndexRowsByIds(persistedIds)) {
+                if (row.status() == CalendarSlot.SlotStatus.OPEN) {
+                    changes.add(new SlotStatusChangedEvent.SlotChange(row.slotId(), row.seatId(), row.seatCode(),
+                            row.workspaceId(), row.startAt(), row.endAt(),
+                            CalendarSlot.SlotStatus.HELD, CalendarSlot.SlotStatus.OPEN));
+                }
+            }
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new SlotStatusChangedEvent(changes));
+        }
+        meterRegistry.counter(RELEASED_METRIC, "source", source).increment(claimed.size());
+        logger.debug("Released {} expired Redis holds ({})", claimed.size(), source);
+        return claimed.size();
+    }
+
+    private static String outcome(CalendarSlot.SlotStatus status) {
+        if (status == null) {
+            return "deleted";
+        }
+        return switch (status) {
+            case OPEN -> "expired";
+            case BOOKED -> "booked";
+            case FROZEN -> "frozen";
+            case HELD -> "held";
+        };
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime;
+        }
+        throw new IllegalStateException("Unexpected hold expiry value: " + value);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.bookingtower.application.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Хешированное колесо таймеров для сроков удержаний: слот попадает в ячейку {@code тик срока % размер},
+ * за тик просматривается одна ячейка. Постановка и отмена — O(1), продвижение — пропорционально числу
+ * записей в пройденных ячейках. Не потокобезопасно, синхронизацию обеспечивает {@link HoldExpiryService}.
+ */
+final class HoldTimingWheel {
+
+    private final long tickMillis;
+    private final List<Map<Long, Long>> buckets;
+    private final Map<Long, Integer> bucketBySlot = new HashMap<>();
+    private long currentTick;
+
+    HoldTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashMap<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Ставит (или переставляет) снятие удержания слота на момент {@code deadlineMillis}.
+     * Срок в прошлом срабатывает на следующем тике.
+     */
+    void schedule(long slotId, long deadlineMillis) {
+        cancel(slotId);
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        int bucket = (int) (deadlineTick % buckets.size());
+        buckets.get(bucket).put(slotId, deadlineTick);
+        bucketBySlot.put(slotId, bucket);
+    }
+
+    boolean cancel(long slotId) {
+        Integer bucket = bucketBySlot.remove(slotId);
+        return bucket != null && buckets.get(bucket).remove(slotId) != null;
+    }
+
+    /**
+     * Продвигает колесо до {@code nowMillis} и возвращает слоты, чей срок наступил.
+     */
+    List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        // После долгой паузы достаточно обойти колесо один раз: каждая ячейка проверяется по сроку записи
+        long fromTick = Math.max(currentTick + 1, targetTick - buckets.size() + 1);
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            Iterator<Map.Entry<Long, Long>> entries = buckets.get((int) (tick % buckets.size())).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, Long> entry = entries.next();
+                if (entry.getValue() <= targetTick) {
+                    due.add(entry.getKey());
+                    bucketBySlot.remove(entry.getKey());
+                    entries.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    boolean contains(long slotId) {
+        return bucketBySlot.containsKey(slotId);
+    }
+
+    int size() {
+        return bucketBySlot.size();
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.repository.SlotOccupancyHourlyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис OccupancyRollupService, поддерживающий почасовой агрегат занятости slot_occupancy_hourly.
+ *
+ * Слушает {@link SlotStatusChangedEvent} синхронно, в транзакции издателя, поэтому агрегат
+ * фиксируется и откатывается вместе с изменением слотов. События с других узлов пропускаются:
+ * агрегат уже обновлён узлом, изменившим слоты.
+ */
+@Service
+public class OccupancyRollupService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyRollupService.class);
+    
+    private final SlotOccupancyHourlyRepository slotOccupancyHourlyRepository;
+    
+    @Autowired
+    public OccupancyRollupService(SlotOccupancyHourlyRepository slotOccupancyHourlyRepository) {
+        this.slotOccupancyHourlyRepository = slotOccupancyHourlyRepository;
+    }
+    
+    @EventListener(condition = "!#event.remote")
+    @Transactional
+    public void onSlotStatusChanged(SlotStatusChangedEvent event) {
+        Map<BucketKey, Map<CalendarSlot.SlotStatus, Integer>> deltas = aggregate(event.getChanges());
+        
+        deltas.forEach((key, delta) -> slotOccupancyHourlyRepository.applyDelta(
+                key.workspaceId(),
+                key.hourBucket(),
+                delta.getOrDefault(CalendarSlot.SlotStatus.OPEN, 0),
+                delta.getOrDefault(CalendarSlot.SlotStatus.HELD, 0),
+                delta.getOrDefault(CalendarSlot.SlotStatus.BOOKED, 0),
+                delta.getOrDefault(CalendarSlot.SlotStatus.FROZEN, 0)));
+        
+        logger.debug("Applied occupancy deltas to {} hour buckets", deltas.size());
+    }
+    
+    /**
+     * Сворачивает изменения в дельты по (рабочее пространство, час); нулевые дельты отбрасываются.
+     */
+    static Map<BucketKey, Map<CalendarSlot.SlotStatus, Integer>> aggregate(List<SlotStatusChangedEvent.SlotChange> changes) {
+        Map<BucketKey, Map<CalendarSlot.SlotStatus, Integer>> deltas = new LinkedHashMap<>();
+        for (SlotStatusChangedEvent.SlotChange change : changes) {
+            if (change.previousStatus() == change.currentStatus()) {
+                continue;
+            }
+            BucketKey key = new BucketKey(change.workspaceId(), change.startAt().truncatedTo(ChronoUnit.HOURS));
+            Map<CalendarSlot.SlotStatus, Integer> delta =
+                    deltas.computeIfAbsent(key, k -> new EnumMap<>(CalendarSlot.SlotStatus.class));
+            if (change.previousStatus() != null) {
+                delta.merge(change.previousStatus(), -1, Integer::sum);
+            }
+            if (change.currentStatus() != null) {
+                delta.merge(change.currentStatus(), 1, Integer::sum);
+            }
+        }
+        deltas.values().forEach(delta -> delta.values().removeIf(value -> value == 0));
+        deltas.values().removeIf(Map::isEmpty);
+        return deltas;
+    }
+    
+    record BucketKey(Long workspaceId, LocalDateTime hourBucket) {
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.bookingtower.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Компонент OptimisticLockRetry: ограниченный повтор операций над слотами и бронированиями
+ * при конфликте оптимистической блокировки ({@code @Version}).
+ *
+ * Каждая попытка выполняется в своей транзакции, поэтому повтор перечитывает свежие версии строк.
+ * Между попытками — экспоненциальная пауза со случайным джиттером, чтобы конкурирующие запросы
+ * не столкнулись снова. Если транзакция уже открыта вызывающим кодом, операция выполняется один раз:
+ * повторить можно только внешнюю транзакцию целиком.
+ *
+ * Конфликты экспортируются счётчиком {@code booking.optimistic-lock.conflicts}, исчерпанные попытки —
+ * счётчиком {@code booking.optimistic-lock.exhausted}; теги — операция и сущность.
+ */
+@Component
+public class OptimisticLockRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetry.class);
+
+    static final String CONFLICTS_METRIC = "booking.optimistic-lock.conflicts";
+    static final String EXHAUSTED_METRIC = "booking.optimistic-lock.exhausted";
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    @Autowired
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.optimistic-retry.max-attempts:3}") int maxAttempts,
+                               @Value("${app.optimistic-retry.initial-backoff-ms:20}") long initialBackoffMs,
+                               @Value("${app.optimistic-retry.max-backoff-ms:200}") long maxBackoffMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("app.optimistic-retry.max-attempts must be at least 1");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * Выполняет операцию, повторяя её при конфликте версий.
+     *
+     * @param operation имя операции для метрик и логов, например {@code booking.confirm}
+     * @throws OptimisticLockingFailureException если конфликт повторился во всех попытках
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                String entity = entityName(e);
+                meterRegistry.counter(CONFLICTS_METRIC, "operation", operation, "entity", entity).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter(EXHAUSTED_METRIC, "operation", operation, "entity", entity).increment();
+                    logger.warn("Optimistic lock conflict on {} in {}, giving up after {} attempts",
+                            entity, operation, attempt);
+                    throw e;
+                }
+                logger.debug("Optimistic lock conflict on {} in {}, attempt {} of {}",
+                        entity, operation, attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 16));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            // Половина паузы фиксирована, половина случайна
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private static String entityName(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException objectFailure
+                && objectFailure.getPersistentClassName() != null) {
+            String className = objectFailure.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,286 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.Coworking;
+import org.example.bookingtower.domain.entity.ScheduleException;
+import org.example.bookingtower.domain.entity.ScheduleTemplate;
+import org.example.bookingtower.domain.event.ScheduleChangedEvent;
+import org.example.bookingtower.infrastructure.repository.CoworkingRepository;
+import org.example.bookingtower.infrastructure.repository.ScheduleExceptionRepository;
+import org.example.bookingtower.infrastructure.repository.ScheduleTemplateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Шаблоны расписания коворкингов: часы работы и длина слота по дням недели, праздники и особые дни.
+ *
+ * Правила каждого коворкинга компилируются в неизменяемый {@link CompiledSchedule} при первом обращении
+ * и отвечают на вопрос "как работает коворкинг в этот день" за O(1). После изменения правил
+ * скомпилированное расписание сбрасывается по событию {@link ScheduleChangedEvent} после коммита.
+ * Коворкинг без правил работает по будням в часы {@link Coworking#getOpenFrom()}–{@link Coworking#getOpenTo()}.
+ */
+@Service
+public class ScheduleTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleTemplateService.class);
+
+    public static final int DEFAULT_SLOT_MINUTES = 60;
+
+    private static final Set<DayOfWeek> DEFAULT_WORKING_DAYS = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+    private final CoworkingRepository coworkingRepository;
+    private final ScheduleTemplateRepository scheduleTemplateRepository;
+    private final ScheduleExceptionRepository scheduleExceptionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, CompiledSchedule> compiled = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ScheduleTemplateService(CoworkingRepository coworkingRepository,
+                                   ScheduleTemplateRepository scheduleTemplateRepository,
+                                   ScheduleExceptionRepository scheduleExceptionRepository,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.coworkingRepository = coworkingRepository;
+        this.scheduleTemplateRepository = scheduleTemplateRepository;
+        this.scheduleExceptionRepository = scheduleExceptionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Часы работы коворкинга в указанный день.
+     *
+     * @return часы работы или {@code null}, если день нерабочий (выходной по шаблону или праздник)
+     * @throws IllegalArgumentException если коворкинг не найден
+     */
+    public DayHours forDay(Long coworkingId, LocalDate date) {
+        return schedule(coworkingId).forDay(date);
+    }
+
+    /**
+     * Часы работы коворкинга в указанный день, а для нерабочего дня — базовые часы коворкинга.
+     * Используется для границ запросов доступности, где нерабочий день означает просто отсутствие слотов.
+     */
+    public DayHours openingHours(Coworking coworking, LocalDate date) {
+        DayHours hours = forDay(coworking.getId(), date);
+        return hours != null ? hours : new DayHours(coworking.getOpenFrom(), coworking.getOpenTo(), DEFAULT_SLOT_MINUTES);
+    }
+
+    public CompiledSchedule schedule(Long coworkingId) {
+        return compiled.computeIfAbsent(coworkingId, this::compile);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ScheduleTemplate> getWeekdayRules(Long coworkingId) {
+        List<ScheduleTemplate> rules = new ArrayList<>(scheduleTemplateRepository.findByCoworkingId(coworkingId));
+        rules.sort(Comparator.comparing(ScheduleTemplate::getDayOfWeek));
+        return rules;
+    }
+
+    /**
+     * Заменяет правила коворкинга по дням недели. Пустой список возвращает расписание по умолчанию.
+     *
+     * @throws IllegalArgumentException если коворкинг не найден или правило некорректно
+     */
+    @Transactional
+    public List<ScheduleTemplate> replaceWeekdayRules(Long coworkingId, List<WeekdayRule> rules) {
+        coworkingRepository.findById(coworkingId)
+                .orElseThrow(() -> new IllegalArgumentException("Coworking not found"));
+
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        List<ScheduleTemplate> templates = new ArrayList<>();
+        for (WeekdayRule rule : rules) {
+            if (rule.dayOfWeek() == null || !days.add(rule.dayOfWeek())) {
+                throw new IllegalArgumentException("Each day of week must be specified at most once");
+            }
+            int slotMinutes = rule.slotMinutes() != null ? rule.slotMinutes() : DEFAULT_SLOT_MINUTES;
+            validateHours(rule.openFrom(), rule.openTo(), slotMinutes);
+            templates.add(new ScheduleTemplate(coworkingId, rule.dayOfWeek(), rule.openFrom(), rule.openTo(), slotMinutes));
+        }
+
+        scheduleTemplateRepository.deleteByCoworkingId(coworkingId);
+        scheduleTemplateRepository.flush();
+        List<ScheduleTemplate> saved = scheduleTemplateRepository.saveAll(templates);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(coworkingId));
+        logger.info("Replaced schedule of coworking {} with {} weekday rules", coworkingId, saved.size());
+        return saved;
+    }
+
+    /**
+     * Исключения расписания коворкинга; при {@code coworkingId == null} — общий календарь праздников.
+     */
+    @Transactional(readOnly = true)
+    public List<ScheduleException> getExceptions(Long coworkingId) {
+        return coworkingId != null
+                ? scheduleExceptionRepository.findByCoworkingIdOrderByExceptionDate(coworkingId)
+                : scheduleExceptionRepository.findByCoworkingIdIsNullOrderByExceptionDate();
+    }
+
+    /**
+     * Создаёт или заменяет исключение на дату: праздник при {@code closed}, иначе особые часы работы.
+     *
+     * @param coworkingId коворкинг или {@code null} для общего календаря праздников
+     * @throws IllegalArgumentException если коворкинг не найден или часы некорректны
+     */
+    @Transactional
+    public ScheduleException saveException(Long coworkingId, LocalDate date, boolean closed,
+                                           LocalTime openFrom, LocalTime openTo, String reason) {
+        if (date == null) {
+            throw new IllegalArgumentException("Exception date is required");
+        }
+        if (coworkingId != null) {
+            coworkingRepository.findById(coworkingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Coworking not found"));
+        }
+        if (!closed) {
+            validateHours(openFrom, openTo, DEFAULT_SLOT_MINUTES);
+        }
+
+        ScheduleException exception = scheduleExceptionRepository.findByCoworkingIdAndExceptionDate(coworkingId, date)
+                .orElseGet(() -> new ScheduleException(coworkingId, date, reason));
+        exception.setClosed(closed);
+        exception.setOpenFrom(closed ? null : openFrom);
+        exception.setOpenTo(closed ? null : openTo);
+        exception.setReason(reason);
+
+        ScheduleException saved = scheduleExceptionRepository.save(exception);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(coworkingId));
+        logger.info("Saved schedule exception {} for coworking {}", date, coworkingId);
+        return saved;
+    }
+
+    @Transactional
+    public void deleteException(Long exceptionId) {
+        ScheduleException exception = scheduleExceptionRepository.findById(exceptionId)
+                .orElseThrow(() -> new IllegalArgumentException("Schedule exception not found"));
+        scheduleExceptionRepository.delete(exception);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(exception.getCoworkingId()));
+        logger.info("Deleted schedule exception {} of coworking {}", exception.getExceptionDate(), exception.getCoworkingId());
+    }
+
+    /**
+     * Сбрасывает скомпилированные расписания после коммита изменения (или сразу, если транзакции нет).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (event.coworkingId() == null) {
+            compiled.clear();
+        } else {
+            compiled.remove(event.coworkingId());
+        }
+    }
+
+    private CompiledSchedule compile(Long coworkingId) {
+        Coworking coworking = coworkingRepository.findById(coworkingId)
+                .orElseThrow(() -> new IllegalArgumentException("Coworking not found"));
+        List<ScheduleException> exceptions = new ArrayList<>(
+                scheduleExceptionRepository.findByCoworkingIdIsNullOrderByExceptionDate());
+        exceptions.addAll(scheduleExceptionRepository.findByCoworkingIdOrderByExceptionDate(coworkingId));
+
+        CompiledSchedule schedule = CompiledSchedule.compile(coworking,
+                scheduleTemplateRepository.findByCoworkingId(coworkingId), exceptions);
+        logger.debug("Compiled schedule of coworking {} with {} exceptions", coworkingId, exceptions.size());
+        return schedule;
+    }
+
+    private static void validateHours(LocalTime openFrom, LocalTime openTo, int slotMinutes) {
+        if (openFrom == null || openTo == null || !openFrom.isBefore(openTo)) {
+            throw new IllegalArgumentException("Opening time must be before closing time");
+        }
+        if (slotMinutes < 5 || slotMinutes > 24 * 60) {
+            throw new IllegalArgumentException("Slot length must be between 5 and 1440 minutes");
+        }
+    }
+
+    /**
+     * Часы работы в конкретный день и длина слота.
+     */
+    public record DayHours(LocalTime openFrom, LocalTime openTo, int slotMinutes) {
+
+        public boolean isOpenAt(LocalTime time) {
+            return !time.isBefore(openFrom) && !time.isAfter(openTo);
+        }
+    }
+
+    /**
+     * Правило на день недели во входных данных {@link #replaceWeekdayRules(Long, List)}.
+     */
+    public record WeekdayRule(DayOfWeek dayOfWeek, LocalTime openFrom, LocalTime openTo, Integer slotMinutes) {
+    }
+
+    /**
+     * Неизменяемое скомпилированное расписание одного коворкинга: часы по дням недели
+     * и таблица исключений по датам.
+     */
+    public static final class CompiledSchedule {
+
+        // Отметка закрытого дня в таблице исключений
+        private static final DayHours CLOSED = new DayHours(LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, 0);
+
+        private final Map<DayOfWeek, DayHours> weekdays;
+        private final Map<LocalDate, DayHours> exceptions;
+
+        private CompiledSchedule(Map<DayOfWeek, DayHours> weekdays, Map<LocalDate, DayHours> exceptions) {
+            this.weekdays = weekdays;
+            this.exceptions = exceptions;
+        }
+
+        /**
+         * Компилирует правила; исключения коворкинга должны идти после общих, чтобы перекрыть их на ту же дату.
+         */
+        public static CompiledSchedule compile(Coworking coworking, List<ScheduleTemplate> templates,
+                                               List<ScheduleException> exceptions) {
+            Map<DayOfWeek, DayHours> weekdays = new EnumMap<>(DayOfWeek.class);
+            if (templates.isEmpty()) {
+                DEFAULT_WORKING_DAYS.forEach(day -> weekdays.put(day,
+                        new DayHours(coworking.getOpenFrom(), coworking.getOpenTo(), DEFAULT_SLOT_MINUTES)));
+            } else {
+                templates.forEach(template -> weekdays.put(template.getDayOfWeek(),
+                        new DayHours(template.getOpenFrom(), template.getOpenTo(), template.getSlotMinutes())));
+            }
+
+            Map<LocalDate, DayHours> byDate = new HashMap<>();
+            for (ScheduleException exception : exceptions) {
+                LocalDate date = exception.getExceptionDate();
+                if (exception.isClosed()) {
+                    byDate.put(date, CLOSED);
+                } else {
+                    DayHours regular = weekdays.get(date.getDayOfWeek());
+                    byDate.put(date, new DayHours(exception.getOpenFrom(), exception.getOpenTo(),
+                            regular != null ? regular.slotMinutes() : DEFAULT_SLOT_MINUTES));
+                }
+            }
+            return new CompiledSchedule(weekdays, Map.copyOf(byDate));
+        }
+
+        /**
+         * @return часы работы или {@code null}, если день нерабочий
+         */
+        public DayHours forDay(LocalDate date) {
+            DayHours hours = exceptions.get(date);
+            if (hours == null) {
+                hours = weekdays.get(date.getDayOfWeek());
+            }
+            return hours == CLOSED ? null : hours;
+        }
+    }
+}
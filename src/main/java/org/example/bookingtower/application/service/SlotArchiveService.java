@@ -0,0 +1,140 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.ArchivedCalendarSlot;
+import org.example.bookingtower.domain.entity.Booking;
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.infrastructure.repository.BookingRepository;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotArchiveRepository;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Сервис SlotArchiveService: разделение слотов на горячие ({@code calendar_slots}) и холодные
+ * ({@code calendar_slots_archive}).
+ *
+ * Слоты, закончившиеся раньше {@link #archiveCutoff()}, переносятся в архив порциями вместе со ссылками
+ * бронирований на них, поэтому индексы горячей таблицы растут только с горизонтом бронирования.
+ * Запросы истории читают архив только если начало диапазона раньше границы: более поздние слоты
+ * в архив не попадают. Граница зависит от {@code app.slot-archive.retain-days}; при его увеличении
+ * уже перенесённые слоты обратно не возвращаются и выпадают из истории за новый период.
+ */
+@Service
+public class SlotArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotArchiveService.class);
+
+    private final CalendarSlotRepository calendarSlotRepository;
+    private final CalendarSlotArchiveRepository calendarSlotArchiveRepository;
+    private final BookingRepository bookingRepository;
+
+    @Value("${app.slot-archive.retain-days:90}")
+    private int retainDays = 90;
+
+    @Value("${app.slot-archive.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.coworking.timezone:Europe/Moscow}")
+    private String timezone = "Europe/Moscow";
+
+    @Autowired
+    public SlotArchiveService(CalendarSlotRepository calendarSlotRepository,
+                              CalendarSlotArchiveRepository calendarSlotArchiveRepository,
+                              BookingRepository bookingRepository) {
+        this.calendarSlotRepository = calendarSlotRepository;
+        this.calendarSlotArchiveRepository = calendarSlotArchiveRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Граница горячих данных: слоты, закончившиеся раньше неё, подлежат переносу в архив.
+     */
+    public LocalDateTime archiveCutoff() {
+        return LocalDate.now(ZoneId.of(timezone)).minusDays(retainDays).atStartOfDay();
+    }
+
+    /**
+     * Нужен ли архив для диапазона, начинающегося в {@code startDate}.
+     */
+    public boolean needsArchive(LocalDateTime startDate) {
+        return startDate.isBefore(archiveCutoff());
+    }
+
+    /**
+     * Переносит в архив одну порцию слотов, закончившихся раньше {@code cutoff}: копирует строки,
+     * переключает ссылки бронирований на архив и удаляет строки из горячей таблицы — в одной транзакции.
+     * События изменения слотов не публикуются: прошедшие слоты не входят ни в индекс доступности,
+     * ни в пересчёт почасовой загрузки.
+     *
+     * @return число перенесённых слотов; 0 — переносить больше нечего
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = calendarSlotRepository.findIdsEndingBefore(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        calendarSlotArchiveRepository.copyFromCalendarSlots(ids);
+        int bookings = bookingRepository.moveSlotReferencesToArchive(ids);
+        int deleted = calendarSlotRepository.deleteByIds(ids);
+        logger.debug("Archived {} slots ending before {} ({} bookings re-pointed)", deleted, cutoff, bookings);
+        return deleted;
+    }
+
+    /**
+     * Слоты рабочего пространства за интервал (при {@code status != null} — только с этим статусом),
+     * из архива — только если интервал заходит за границу горячих данных.
+     */
+    @Transactional(readOnly = true)
+    public List<CalendarSlot> findWorkspaceSlots(Long workspaceId, LocalDateTime startDate, LocalDateTime endDate,
+                                                 CalendarSlot.SlotStatus status) {
+        List<CalendarSlot> hot = status != null
+                ? calendarSlotRepository.findByWorkspaceAndDateRangeAndStatus(workspaceId, startDate, endDate, status)
+                : calendarSlotRepository.findByWorkspaceAndDateRange(workspaceId, startDate, endDate);
+        if (!needsArchive(startDate)) {
+            return hot;
+        }
+        List<ArchivedCalendarSlot> cold = status != null
+                ? calendarSlotArchiveRepository.findByWorkspaceAndDateRangeAndStatus(workspaceId, startDate, endDate, status)
+                : calendarSlotArchiveRepository.findByWorkspaceAndDateRange(workspaceId, startDate, endDate);
+        List<CalendarSlot> merged = new ArrayList<>(hot.size() + cold.size());
+        merged.addAll(hot);
+        cold.forEach(slot -> merged.add(slot.toCalendarSlot()));
+        merged.sort(Comparator.comparing((CalendarSlot slot) -> slot.getSeat().getCode())
+                .thenComparing(CalendarSlot::getStartAt));
+        return merged;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Booking> findBookings(LocalDateTime startDate, LocalDateTime endDate) {
+        List<Booking> hot = bookingRepository.findByDateRange(startDate, endDate);
+        if (!needsArchive(startDate)) {
+            return hot;
+        }
+        List<Booking> merged = new ArrayList<>(bookingRepository.findArchivedByDateRange(startDate, endDate));
+        merged.addAll(hot);
+        merged.sort(Comparator.comparing(Booking::getBookingStartTime));
+        return merged;
+    }
+
+    @Transactional(readOnly = true)
+    public long countConfirmedBookings(Long workspaceId, LocalDateTime startDate, LocalDateTime endDate) {
+        long count = bookingRepository.countConfirmedBookingsByWorkspaceAndDateRange(workspaceId, startDate, endDate);
+        if (needsArchive(startDate)) {
+            count += bookingRepository.countConfirmedArchivedBookingsByWorkspaceAndDateRange(workspaceId, startDate, endDate);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.SlotGenerationWatermark;
+import org.example.bookingtower.domain.entity.Workspace;
+import org.example.bookingtower.infrastructure.repository.SlotGenerationWatermarkRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceSeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис SlotGenerationEngine: генерация слотов для всех активных рабочих пространств.
+ *
+ * Рабочие пространства обрабатываются параллельно на ограниченном пуле {@code slotGenerationExecutor};
+ * каждое — отдельным вызовом {@link AvailabilityService#generateSlots} через Spring-прокси,
+ * то есть в собственной транзакции. Ошибка одного пространства не откатывает остальные;
+ * пространство без активных мест ошибкой не считается — для него создаётся 0 слотов.
+ *
+ * Для скользящего горизонта ({@link #extendHorizon}) по каждому рабочему пространству хранится
+ * отметка «сгенерировано до», и очередной запуск создаёт только новые дни.
+ */
+@Service
+public class SlotGenerationEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotGenerationEngine.class);
+
+    public static final String CANCELLED = "Cancelled";
+
+    private final AvailabilityService availabilityService;
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceSeatRepository workspaceSeatRepository;
+    private final SlotGenerationWatermarkRepository watermarkRepository;
+    private final Executor executor;
+
+    @Autowired
+    public SlotGenerationEngine(AvailabilityService availabilityService,
+                                WorkspaceRepository workspaceRepository,
+                                WorkspaceSeatRepository workspaceSeatRepository,
+                                SlotGenerationWatermarkRepository watermarkRepository,
+                                @Qualifier("slotGenerationExecutor") Executor executor) {
+        this.availabilityService = availabilityService;
+        this.workspaceRepository = workspaceRepository;
+        this.workspaceSeatRepository = workspaceSeatRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.executor = executor;
+    }
+
+    public GenerationReport generateForAllWorkspaces(LocalDate startDate, LocalDate endDate) {
+        return generateForAllWorkspaces(startDate, endDate, result -> { });
+    }
+
+    /**
+     * Генерирует часовые слоты для всех активных рабочих пространств и ждёт завершения.
+     *
+     * @param progress вызывается по завершении каждого рабочего пространства (из потока пула)
+     * @return отчёт с результатом по каждому рабочему пространству
+     */
+    public GenerationReport generateForAllWorkspaces(LocalDate startDate, LocalDate endDate,
+                                                     Consumer<WorkspaceResult> progress) {
+        return generateForAllWorkspaces(startDate, endDate, progress, () -> false);
+    }
+
+    /**
+     * То же, с возможностью отмены: рабочие пространства, до которых очередь дошла после отмены,
+     * не генерируются и попадают в отчёт как неуспешные с ошибкой {@link #CANCELLED}.
+     */
+    public GenerationReport generateForAllWorkspaces(LocalDate startDate, LocalDate endDate,
+                                                     Consumer<WorkspaceResult> progress, BooleanSupplier cancelled) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        List<Workspace> workspaces = workspaceRepository.findByActiveTrue();
+        logger.info("Generating slots for {} active workspaces from {} to {}", workspaces.size(), startDate, endDate);
+
+        List<WorkspaceRange> ranges = workspaces.stream()
+                .map(workspace -> new WorkspaceRange(workspace, startDate, endDate))
+                .toList();
+        return run(startDate, endDate, ranges, result -> { }, progress, cancelled);
+    }
+
+    /**
+     * Досоздаёт слоты активных рабочих пространств до {@code today + horizonDays}.
+     * Для каждого пространства генерируются только дни после его отметки (но не раньше сегодняшнего),
+     * после успешной генерации отметка сдвигается. Пространства, уже покрытые горизонтом, пропускаются,
+     * как и пространства без активных мест: их отметка не сдвигается, и дни досоздадутся, когда места появятся.
+     */
+    public GenerationReport extendHorizon(LocalDate today, int horizonDays) {
+        if (horizonDays < 0) {
+            throw new IllegalArgumentException("Horizon must not be negative");
+        }
+        LocalDate target = today.plusDays(horizonDays);
+        Map<Long, LocalDate> watermarks = watermarkRepository.findAll().stream()
+                .collect(Collectors.toMap(SlotGenerationWatermark::getWorkspaceId, SlotGenerationWatermark::getGeneratedUntil));
+
+        List<WorkspaceRange> ranges = new ArrayList<>();
+        for (Workspace workspace : workspaceRepository.findByActiveTrue()) {
+            LocalDate generatedUntil = watermarks.get(workspace.getId());
+            LocalDate from = generatedUntil == null || generatedUntil.isBefore(today) ? today : generatedUntil.plusDays(1);
+            if (!from.isAfter(target) && hasActiveSeats(workspace)) {
+                ranges.add(new WorkspaceRange(workspace, from, target));
+            }
+        }
+        logger.info("Extending slot horizon to {} for {} workspaces", target, ranges.size());
+
+        return run(today, target, ranges, result -> {
+            if (!result.success()) {
+                return;
+            }
+            try {
+                watermarkRepository.save(new SlotGenerationWatermark(result.workspaceId(), target));
+            } catch (Exception e) {
+                // Генерация идемпотентна: без сдвига отметки следующий запуск просто повторит эти дни
+                logger.warn("Failed to advance slot generation watermark for workspace {}", result.workspaceId(), e);
+            }
+        }, result -> { }, () -> false);
+    }
+
+    private GenerationReport run(LocalDate startDate, LocalDate endDate, List<WorkspaceRange> ranges,
+                                 Consumer<WorkspaceResult> onWorkspaceDone, Consumer<WorkspaceResult> progress,
+                                 BooleanSupplier cancelled) {
+        long startedAt = System.currentTimeMillis();
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<WorkspaceResult>> futures = new ArrayList<>();
+        for (WorkspaceRange range : ranges) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                        if (cancelled.getAsBoolean()) {
+                            return new WorkspaceResult(range.workspace().getId(), range.workspace().getName(),
+                                    false, 0, 0, CANCELLED);
+                        }
+                        WorkspaceResult result = generateForWorkspace(range.workspace(), range.from(), range.to());
+                        onWorkspaceDone.accept(result);
+                        return result;
+                    }, executor)
+                    .thenApply(result -> {
+                        logger.info("Slot generation progress {}/{}: workspace {} {}", completed.incrementAndGet(),
+                                ranges.size(), result.workspaceId(), result.success() ? "done" : "failed");
+                        progress.accept(result);
+                        return result;
+                    }));
+        }
+
+        List<WorkspaceResult> results = futures.stream().map(CompletableFuture::join).toList();
+        GenerationReport report = GenerationReport.of(startDate, endDate, results, System.currentTimeMillis() - startedAt);
+        logger.info("Completed slot generation: {} workspaces, {} failed, {} slots created in {} ms",
+                report.totalWorkspaces(), report.failed(), report.slotsCreated(), report.durationMs());
+        return report;
+    }
+
+    private WorkspaceResult generateForWorkspace(Workspace workspace, LocalDate startDate, LocalDate endDate) {
+        long startedAt = System.currentTimeMillis();
+        try {
+            if (!hasActiveSeats(workspace)) {
+                logger.info("Workspace {} has no active seats, no slots to generate", workspace.getId());
+                return new WorkspaceResult(workspace.getId(), workspace.getName(), true, 0,
+                        System.currentTimeMillis() - startedAt, null);
+            }
+            // Часы и длина слота — из шаблона расписания коворкинга
+            int created = availabilityService.generateSlots(workspace.getId(), startDate, endDate, null, null, 0);
+            return new WorkspaceResult(workspace.getId(), workspace.getName(), true, created,
+                    System.currentTimeMillis() - startedAt, null);
+        } catch (Exception e) {
+            logger.error("Failed to generate slots for workspace {}", workspace.getId(), e);
+            return new WorkspaceResult(workspace.getId(), workspace.getName(), false, 0,
+                    System.currentTimeMillis() - startedAt, e.getMessage());
+        }
+    }
+
+    private boolean hasActiveSeats(Workspace workspace) {
+        return workspaceSeatRepository.countByWorkspaceIdAndActiveTrue(workspace.getId()) > 0;
+    }
+
+    private record WorkspaceRange(Workspace workspace, LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Результат генерации для одного рабочего пространства.
+     */
+    public record WorkspaceResult(Long workspaceId,
+                                  String workspaceName,
+                                  boolean success,
+                                  int slotsCreated,
+                                  long durationMs,
+                                  String error) {
+    }
+
+    /**
+     * Итог генерации по всем рабочим пространствам.
+     */
+    public record GenerationReport(LocalDate startDate,
+                                   LocalDate endDate,
+                                   int totalWorkspaces,
+                                   int succeeded,
+                                   int failed,
+                                   long slotsCreated,
+                                   long durationMs,
+                                   List<WorkspaceResult> results) {
+
+        static GenerationReport of(LocalDate startDate, LocalDate endDate, List<WorkspaceResult> results, long durationMs) {
+            int succeeded = (int) results.stream().filter(WorkspaceResult::success).count();
+            long slotsCreated = results.stream().mapToLong(WorkspaceResult::slotsCreated).sum();
+            return new GenerationReport(startDate, endDate, results.size(), succeeded, results.size() - succeeded,
+                    slotsCreated, durationMs, results);
+        }
+    }
+}
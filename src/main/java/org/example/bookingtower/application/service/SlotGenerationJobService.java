@@ -0,0 +1,281 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.infrastructure.repository.WorkspaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис SlotGenerationJobService: генерация слотов как фоновые задачи с идентификатором,
+ * прогрессом и отменой, чтобы HTTP-запрос не держал поток Tomcat и соединение с базой.
+ *
+ * Задачи выполняются на пуле {@code slotGenerationJobExecutor}, который ограничивает число одновременных
+ * и ожидающих задач; сверх лимита {@code submit*} бросает {@link RejectedExecutionException}.
+ * Диапазон рабочего пространства генерируется порциями по {@link #CHUNK_DAYS} дней, каждая в своей
+ * транзакции — между порциями обновляется прогресс и проверяется отмена. Реестр задач хранится в памяти
+ * узла; завершённые задачи удаляются через {@code app.slot-generation.job-retention-minutes}.
+ */
+@Service
+public class SlotGenerationJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotGenerationJobService.class);
+
+    static final int CHUNK_DAYS = 7;
+
+    public static final int MAX_RANGE_DAYS = 366;
+
+    private final AvailabilityService availabilityService;
+    private final SlotGenerationEngine slotGenerationEngine;
+    private final WorkspaceRepository workspaceRepository;
+    private final Executor jobExecutor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Value("${app.slot-generation.job-retention-minutes:60}")
+    private long jobRetentionMinutes = 60;
+
+    @Autowired
+    public SlotGenerationJobService(AvailabilityService availabilityService,
+                                    SlotGenerationEngine slotGenerationEngine,
+                                    WorkspaceRepository workspaceRepository,
+                                    @Qualifier("slotGenerationJobExecutor") Executor jobExecutor) {
+        this.availabilityService = availabilityService;
+        this.slotGenerationEngine = slotGenerationEngine;
+        this.workspaceRepository = workspaceRepository;
+        this.jobExecutor = jobExecutor;
+    }
+
+    /**
+     * Ставит в очередь генерацию слотов одного рабочего пространства (параметры как у
+     * {@link AvailabilityService#generateSlots}).
+     *
+     * @throws IllegalArgumentException    если рабочее пространство не найдено или диапазон некорректен
+     * @throws RejectedExecutionException если достигнут лимит задач генерации
+     */
+    public JobStatus submitWorkspace(Long workspaceId, LocalDate startDate, LocalDate endDate,
+                                     LocalTime dailyOpenTime, LocalTime dailyCloseTime, int slotDurationMinutes) {
+        validateRange(startDate, endDate);
+        workspaceRepository.findByIdAndActiveTrue(workspaceId)
+                .orElseThrow(() -> new IllegalArgumentException("Workspace not found or inactive"));
+
+        Job job = new Job(JobType.WORKSPACE, workspaceId, startDate, endDate);
+        job.unitsTotal = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        return submit(job, () -> {
+            for (LocalDate from = startDate; !from.isAfter(endDate) && !job.cancelRequested; from = from.plusDays(CHUNK_DAYS)) {
+                LocalDate to = from.plusDays(CHUNK_DAYS - 1).isAfter(endDate) ? endDate : from.plusDays(CHUNK_DAYS - 1);
+                job.slotsCreated.addAndGet(availabilityService.generateSlots(
+                        workspaceId, from, to, dailyOpenTime, dailyCloseTime, slotDurationMinutes));
+                job.unitsDone.addAndGet((int) ChronoUnit.DAYS.between(from, to) + 1);
+            }
+        });
+    }
+
+    /**
+     * Ставит в очередь генерацию слотов всех активных рабочих пространств через {@link SlotGenerationEngine};
+     * прогресс считается по рабочим пространствам.
+     *
+     * @throws IllegalArgumentException    если диапазон некорректен
+     * @throws RejectedExecutionException если достигнут лимит задач генерации
+     */
+    public JobStatus submitAllWorkspaces(LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+
+        Job job = new Job(JobType.ALL_WORKSPACES, null, startDate, endDate);
+        job.unitsTotal = (int) workspaceRepository.countByActiveTrue();
+        return submit(job, () -> {
+            SlotGenerationEngine.GenerationReport report = slotGenerationEngine.generateForAllWorkspaces(
+                    startDate, endDate, result -> {
+                        job.unitsDone.incrementAndGet();
+                        job.slotsCreated.addAndGet(result.slotsCreated());
+                        if (!result.success() && !SlotGenerationEngine.CANCELLED.equals(result.error())) {
+                            job.unitsFailed.incrementAndGet();
+                        }
+                    }, () -> job.cancelRequested);
+            job.unitsTotal = report.totalWorkspaces();
+            if (job.unitsFailed.get() > 0) {
+                throw new IllegalStateException(job.unitsFailed.get() + " of " + report.totalWorkspaces()
+                        + " workspaces failed");
+            }
+        });
+    }
+
+    public Optional<JobStatus> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toStatus);
+    }
+
+    /**
+     * Задачи узла, последние поставленные — первыми.
+     */
+    public List<JobStatus> getJobs() {
+        purgeFinished();
+        return jobs.values().stream()
+                .map(Job::toStatus)
+                .sorted(Comparator.comparing(JobStatus::submittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Отменяет задачу: ожидающая в очереди не запустится, выполняющаяся остановится после текущей порции.
+     * Для завершённой задачи ничего не делает.
+     *
+     * @return состояние задачи или {@link Optional#empty()}, если задача не найдена
+     */
+    public Optional<JobStatus> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.cancel();
+        logger.info("Cancellation requested for slot generation job {}", jobId);
+        return Optional.of(job.toStatus());
+    }
+
+    private JobStatus submit(Job job, GenerationTask task) {
+        purgeFinished();
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(() -> execute(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RejectedExecutionException("Too many slot generation jobs, try again later", e);
+        }
+        logger.info("Submitted slot generation job {} ({} {} - {})", job.id, job.type, job.startDate, job.endDate);
+        return job.toStatus();
+    }
+
+    private void execute(Job job, GenerationTask task) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            task.run();
+            job.finish(job.cancelRequested ? JobState.CANCELLED : JobState.SUCCEEDED, null);
+        } catch (Exception e) {
+            logger.error("Slot generation job {} failed", job.id, e);
+            job.finish(JobState.FAILED, e.getMessage());
+        }
+        logger.info("Slot generation job {} finished: {}, {} slots created", job.id, job.state, job.slotsCreated.get());
+    }
+
+    private void purgeFinished() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+            throw new IllegalArgumentException("Range is longer than " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    @FunctionalInterface
+    private interface GenerationTask {
+        void run() throws Exception;
+    }
+
+    public enum JobType {
+        WORKSPACE, ALL_WORKSPACES
+    }
+
+    public enum JobState {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    /**
+     * Снимок состояния задачи генерации. Единицы прогресса — дни для одного рабочего пространства
+     * и рабочие пространства для генерации по всем.
+     */
+    public record JobStatus(String jobId,
+                            JobType type,
+                            Long workspaceId,
+                            LocalDate startDate,
+                            LocalDate endDate,
+                            JobState state,
+                            int unitsDone,
+                            int unitsTotal,
+                            int unitsFailed,
+                            long slotsCreated,
+                            String error,
+                            LocalDateTime submittedAt,
+                            LocalDateTime startedAt,
+                            LocalDateTime finishedAt) {
+
+        public int progressPercent() {
+            return unitsTotal > 0 ? (int) Math.min(100, unitsDone * 100L / unitsTotal) : 0;
+        }
+    }
+
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final JobType type;
+        private final Long workspaceId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicInteger unitsDone = new AtomicInteger();
+        private final AtomicInteger unitsFailed = new AtomicInteger();
+        private final AtomicLong slotsCreated = new AtomicLong();
+        private volatile int unitsTotal;
+        private volatile JobState state = JobState.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(JobType type, Long workspaceId, LocalDate startDate, LocalDate endDate) {
+            this.type = type;
+            this.workspaceId = workspaceId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        private synchronized boolean start() {
+            if (state != JobState.QUEUED) {
+                return false;
+            }
+            state = JobState.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        private synchronized void finish(JobState finalState, String failure) {
+            state = finalState;
+            error = failure;
+            finishedAt = LocalDateTime.now();
+        }
+
+        private synchronized void cancel() {
+            if (state == JobState.QUEUED) {
+                finish(JobState.CANCELLED, null);
+            } else if (state == JobState.RUNNING) {
+                cancelRequested = true;
+            }
+        }
+
+        private synchronized JobStatus toStatus() {
+            return new JobStatus(id, type, workspaceId, startDate, endDate, state, unitsDone.get(), unitsTotal,
+                    unitsFailed.get(), slotsCreated.get(), error, submittedAt, startedAt, finishedAt);
+        }
+    }
+}
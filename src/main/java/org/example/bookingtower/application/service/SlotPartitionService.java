@@ -0,0 +1,72 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Сервис SlotPartitionService: обслуживание месячных секций {@code calendar_slots}.
+ *
+ * Секции создаются заранее на {@code app.slot-partitions.months-ahead} месяцев; слоты за пределами
+ * созданных секций попадают в секцию по умолчанию и переносятся в месячную при её создании.
+ * Секции, целиком лежащие до границы архива ({@link SlotArchiveService#archiveCutoff()}), после переноса
+ * слотов в архив пусты и удаляются без построчного DELETE.
+ */
+@Service
+public class SlotPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotPartitionService.class);
+
+    private final CalendarSlotRepository calendarSlotRepository;
+    private final SlotArchiveService slotArchiveService;
+
+    @Value("${app.slot-partitions.months-ahead:13}")
+    private int monthsAhead = 13;
+
+    @Value("${app.coworking.timezone:Europe/Moscow}")
+    private String timezone = "Europe/Moscow";
+
+    @Autowired
+    public SlotPartitionService(CalendarSlotRepository calendarSlotRepository,
+                                SlotArchiveService slotArchiveService) {
+        this.calendarSlotRepository = calendarSlotRepository;
+        this.slotArchiveService = slotArchiveService;
+    }
+
+    /**
+     * Создаёт недостающие секции с текущего месяца на {@code months-ahead} месяцев вперёд.
+     *
+     * @return число созданных секций
+     */
+    @Transactional
+    public int ensureFuturePartitions() {
+        LocalDate currentMonth = LocalDate.now(ZoneId.of(timezone)).withDayOfMonth(1);
+        int created = calendarSlotRepository.createMonthlyPartitions(currentMonth, currentMonth.plusMonths(monthsAhead));
+        if (created > 0) {
+            logger.info("Created {} calendar_slots partitions up to {}", created, currentMonth.plusMonths(monthsAhead));
+        }
+        return created;
+    }
+
+    /**
+     * Удаляет пустые секции, закончившиеся до месяца границы архива.
+     *
+     * @return число удалённых секций
+     */
+    @Transactional
+    public int dropArchivedPartitions() {
+        LocalDate beforeMonth = slotArchiveService.archiveCutoff().toLocalDate().withDayOfMonth(1);
+        int dropped = calendarSlotRepository.dropEmptyPartitionsBefore(beforeMonth);
+        if (dropped > 0) {
+            logger.info("Dropped {} empty calendar_slots partitions before {}", dropped, beforeMonth);
+        }
+        return dropped;
+    }
+}
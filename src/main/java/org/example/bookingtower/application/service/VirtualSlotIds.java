@@ -0,0 +1,48 @@
+package org.example.bookingtower.application.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Идентификаторы вычисляемых (не сохранённых в базе) OPEN-слотов разреженной модели.
+ *
+ * Идентификатор отрицательный и детерминированно кодирует место и минуту начала слота:
+ * {@code -(seatId << 32 | epochMinute)}, поэтому не пересекается с идентификаторами строк
+ * calendar_slots и может передаваться клиентам так же, как обычный slotId.
+ */
+public final class VirtualSlotIds {
+
+    private static final long MINUTE_MASK = 0xFFFFFFFFL;
+
+    private VirtualSlotIds() {
+    }
+
+    public static long encode(Long seatId, LocalDateTime startAt) {
+        if (seatId == null || seatId <= 0 || seatId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Seat id out of range for virtual slot id: " + seatId);
+        }
+        long epochMinute = startAt.toEpochSecond(ZoneOffset.UTC) / 60;
+        return -((seatId << 32) | (epochMinute & MINUTE_MASK));
+    }
+
+    public static boolean isVirtual(Long slotId) {
+        return slotId != null && slotId < 0 && slotId != Long.MIN_VALUE;
+    }
+
+    public static Long seatId(long slotId) {
+        requireVirtual(slotId);
+        return (-slotId) >>> 32;
+    }
+
+    public static LocalDateTime startAt(long slotId) {
+        requireVirtual(slotId);
+        long epochMinute = (-slotId) & MINUTE_MASK;
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static void requireVirtual(long slotId) {
+        if (!isVirtual(slotId)) {
+            throw new IllegalArgumentException("Not a virtual slot id: " + slotId);
+        }
+    }
+}
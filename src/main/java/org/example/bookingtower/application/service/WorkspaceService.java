@@ -191,14 +191,17 @@ public class WorkspaceService {
             workspaceName = workspaceName.substring(0, 5);
         }
         
+        List<WorkspaceSeat> seats = new ArrayList<>();
         for (int i = 1; i <= workspace.getSeatsTotal(); i++) {
             WorkspaceSeat seat = new WorkspaceSeat();
             seat.setWorkspace(workspace);
             seat.setCode(workspaceName.toUpperCase() + "-" + String.format("%02d", i));
             seat.setDescription("Место " + i);
             seat.setActive(true);
-            workspaceSeatRepository.save(seat);
+            seats.add(seat);
         }
+        // Одним saveAll, чтобы вставки ушли JDBC-батчем
+        workspaceSeatRepository.saveAll(seats);
     }
     
     /**
@@ -216,14 +219,16 @@ public class WorkspaceService {
                 workspaceName = workspaceName.substring(0, 5);
             }
             
+            List<WorkspaceSeat> seats = new ArrayList<>();
             for (int i = oldTotal + 1; i <= newTotal; i++) {
                 WorkspaceSeat seat = new WorkspaceSeat();
                 seat.setWorkspace(workspace);
                 seat.setCode(workspaceName.toUpperCase() + "-" + String.format("%02d", i));
                 seat.setDescription("Место " + i);
                 seat.setActive(true);
-                workspaceSeatRepository.save(seat);
+                seats.add(seat);
             }
+            workspaceSeatRepository.saveAll(seats);
         } else if (newTotal < oldTotal) {
             // Деактивировать лишние места
             List<WorkspaceSeat> allSeats = workspaceSeatRepository.findByWorkspaceIdAndActiveTrueOrderByCode(workspace.getId());
@@ -0,0 +1,115 @@
+package org.example.bookingtower.config;
+
+import org.example.bookingtower.infrastructure.scheduling.RollingHorizonSlotJob;
+import org.example.bookingtower.infrastructure.scheduling.HoldExpirySweepJob;
+import org.example.bookingtower.infrastructure.scheduling.SlotArchiveJob;
+import org.example.bookingtower.infrastructure.scheduling.SlotPartitionMaintenanceJob;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.TimeZone;
+
+/**
+ * Конфигурационный класс QuartzConfig: задачи и триггеры планировщика Quartz.
+ */
+@Configuration
+public class QuartzConfig {
+
+    @Bean
+    public JobDetail rollingHorizonSlotJobDetail() {
+        return JobBuilder.newJob(RollingHorizonSlotJob.class)
+                .withIdentity("rollingHorizonSlotJob", "slot-generation")
+                .withDescription("Keeps active workspaces generated N days ahead")
+                .requestRecovery()
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger rollingHorizonSlotTrigger(JobDetail rollingHorizonSlotJobDetail,
+                                             @Value("${app.slot-generation.horizon-cron:0 15 0 * * ?}") String cron,
+                                             @Value("${app.coworking.timezone:Europe/Moscow}") String timezone) {
+        return TriggerBuilder.newTrigger()
+                .forJob(rollingHorizonSlotJobDetail)
+                .withIdentity("rollingHorizonSlotTrigger", "slot-generation")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron)
+                        .inTimeZone(TimeZone.getTimeZone(timezone))
+                        .withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    @Bean
+    public JobDetail slotArchiveJobDetail() {
+        return JobBuilder.newJob(SlotArchiveJob.class)
+                .withIdentity("slotArchiveJob", "slot-retention")
+                .withDescription("Moves past slots and their booking references to the archive table")
+                .requestRecovery()
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger slotArchiveTrigger(JobDetail slotArchiveJobDetail,
+                                      @Value("${app.slot-archive.cron:0 45 1 * * ?}") String cron,
+                                      @Value("${app.coworking.timezone:Europe/Moscow}") String timezone) {
+        return TriggerBuilder.newTrigger()
+                .forJob(slotArchiveJobDetail)
+                .withIdentity("slotArchiveTrigger", "slot-retention")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron)
+                        .inTimeZone(TimeZone.getTimeZone(timezone))
+                        .withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    @Bean
+    public JobDetail slotPartitionMaintenanceJobDetail() {
+        return JobBuilder.newJob(SlotPartitionMaintenanceJob.class)
+                .withIdentity("slotPartitionMaintenanceJob", "slot-retention")
+                .withDescription("Creates future monthly calendar_slots partitions and drops emptied ones")
+                .requestRecovery()
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger slotPartitionMaintenanceTrigger(JobDetail slotPartitionMaintenanceJobDetail,
+                                                   @Value("${app.slot-partitions.cron:0 5 0 * * ?}") String cron,
+                                                   @Value("${app.coworking.timezone:Europe/Moscow}") String timezone) {
+        return TriggerBuilder.newTrigger()
+                .forJob(slotPartitionMaintenanceJobDetail)
+                .withIdentity("slotPartitionMaintenanceTrigger", "slot-retention")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron)
+                        .inTimeZone(TimeZone.getTimeZone(timezone))
+                        .withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    @Bean
+    public JobDetail holdExpirySweepJobDetail() {
+        return JobBuilder.newJob(HoldExpirySweepJob.class)
+                .withIdentity("holdExpirySweepJob", "slot-holds")
+                .withDescription("Releases expired slot holds missed by the in-process timing wheel")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger holdExpirySweepTrigger(JobDetail holdExpirySweepJobDetail,
+                                          @Value("${app.hold-expiry.sweep-cron:0/30 * * * * ?}") String cron,
+                                          @Value("${app.coworking.timezone:Europe/Moscow}") String timezone) {
+        // Пропущенные запуски не догоняются: следующий проход всё равно снимет все истёкшие удержания
+        return TriggerBuilder.newTrigger()
+                .forJob(holdExpirySweepJobDetail)
+                .withIdentity("holdExpirySweepTrigger", "slot-holds")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron)
+                        .inTimeZone(TimeZone.getTimeZone(timezone))
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.bookingtower.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Конфигурационный класс SlotGenerationConfig: пулы потоков для генерации слотов.
+ *
+ * Каждый поток держит соединение с базой на время транзакции одного рабочего пространства,
+ * поэтому по умолчанию пул занимает не больше половины пула соединений Hikari.
+ * Фоновые задачи генерации ({@code slotGenerationJobExecutor}) ограничены по числу одновременно
+ * выполняемых и ожидающих в очереди; сверх этого задачи отклоняются.
+ */
+@Configuration
+public class SlotGenerationConfig {
+
+    @Bean(name = "slotGenerationExecutor")
+    public ThreadPoolTaskExecutor slotGenerationExecutor(
+            @Value("${app.slot-generation.parallelism:0}") int parallelism,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        int threads = parallelism > 0 ? parallelism : Math.max(1, connectionPoolSize / 2);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("slot-gen-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "slotGenerationJobExecutor")
+    public ThreadPoolTaskExecutor slotGenerationJobExecutor(
+            @Value("${app.slot-generation.max-concurrent-jobs:2}") int maxConcurrentJobs,
+            @Value("${app.slot-generation.max-queued-jobs:10}") int maxQueuedJobs) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(maxQueuedJobs);
+        executor.setThreadNamePrefix("slot-gen-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.bookingtower.domain.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Прошедший слот, перенесённый задачей хранения из {@code calendar_slots} в холодную таблицу
+ * {@code calendar_slots_archive}. Идентификатор сохраняется, строки только читаются.
+ */
+@Entity
+@Immutable
+@Table(name = "calendar_slots_archive")
+public class ArchivedCalendarSlot {
+    
+    @Id
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "seat_id", nullable = false)
+    private WorkspaceSeat seat;
+    
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+    
+    @Column(name = "end_at", nullable = false)
+    private LocalDateTime endAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CalendarSlot.SlotStatus status;
+    
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+    
+    @Column(name = "hold_user_id")
+    private Long holdUserId;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Конструкторы
+    protected ArchivedCalendarSlot() {}
+    
+    /**
+     * Отсоединённый {@link CalendarSlot} с теми же полями — для отображения вместе с горячими слотами.
+     */
+    public CalendarSlot toCalendarSlot() {
+        CalendarSlot slot = new CalendarSlot(seat, startAt, endAt);
+        slot.setId(id);
+        slot.setStatus(status);
+        slot.setHoldExpiresAt(holdExpiresAt);
+        slot.setHoldUserId(holdUserId);
+        return slot;
+    }
+    
+    // Геттеры
+    public Long getId() {
+        return id;
+    }
+    
+    public WorkspaceSeat getSeat() {
+        return seat;
+    }
+    
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+    
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+    
+    public CalendarSlot.SlotStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+    
+    public Long getHoldUserId() {
+        return holdUserId;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "ArchivedCalendarSlot{" +
+                "id=" + id +
+                ", startAt=" + startAt +
+                ", endAt=" + endAt +
+                ", status=" + status +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
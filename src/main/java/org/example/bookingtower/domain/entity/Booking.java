@@ -18,6 +18,7 @@ import java.util.Objects;
     @Index(name = "idx_booking_user", columnList = "user_id"),
     @Index(name = "idx_booking_seat", columnList = "seat_id"),
     @Index(name = "idx_booking_slot", columnList = "slot_id"),
+    @Index(name = "idx_booking_archived_slot", columnList = "archived_slot_id"),
     @Index(name = "idx_booking_status", columnList = "status"),
     @Index(name = "idx_booking_created", columnList = "created_at")
 })
@@ -38,11 +39,15 @@ public class Booking {
     @JoinColumn(name = "seat_id", nullable = false)
     private WorkspaceSeat seat;
     
-    @NotNull
+    // Ровно одна из ссылок заполнена: slot — пока слот в calendar_slots, archivedSlot — после переноса в архив
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "slot_id", nullable = false)
+    @JoinColumn(name = "slot_id")
     private CalendarSlot slot;
     
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "archived_slot_id", insertable = false, updatable = false)
+    private ArchivedCalendarSlot archivedSlot;
+    
     @Enumerated(EnumType.STRING)
     @NotNull
     @Column(nullable = false)
@@ -73,6 +78,10 @@ public class Booking {
     @Column(name = "no_show_marked_at")
     private LocalDateTime noShowMarkedAt;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     public enum BookingStatus {
         PENDING,    // Waiting for payment
         CONFIRMED,  // Payment successful, booking confirmed
@@ -97,8 +106,8 @@ public class Booking {
     
     public boolean canBeMarkedAsNoShow() {
         return status == BookingStatus.CONFIRMED && 
-               slot != null && 
-               LocalDateTime.now().isAfter(slot.getStartAt());
+               getBookingStartTime() != null && 
+               LocalDateTime.now().isAfter(getBookingStartTime());
     }
     
     public void confirm() {
@@ -130,12 +139,22 @@ public class Booking {
         return status == BookingStatus.CONFIRMED;
     }
     
+    public boolean isArchived() {
+        return slot == null && archivedSlot != null;
+    }
+    
     public LocalDateTime getBookingStartTime() {
-        return slot != null ? slot.getStartAt() : null;
+        if (slot != null) {
+            return slot.getStartAt();
+        }
+        return archivedSlot != null ? archivedSlot.getStartAt() : null;
     }
     
     public LocalDateTime getBookingEndTime() {
-        return slot != null ? slot.getEndAt() : null;
+        if (slot != null) {
+            return slot.getEndAt();
+        }
+        return archivedSlot != null ? archivedSlot.getEndAt() : null;
     }
     
     // Геттеры и сеттеры
@@ -171,6 +190,10 @@ public class Booking {
         this.slot = slot;
     }
     
+    public ArchivedCalendarSlot getArchivedSlot() {
+        return archivedSlot;
+    }
+    
     public BookingStatus getStatus() {
         return status;
     }
@@ -235,6 +258,10 @@ public class Booking {
         this.noShowMarkedAt = noShowMarkedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
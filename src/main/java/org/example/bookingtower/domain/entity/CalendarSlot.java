@@ -8,6 +8,9 @@ import java.util.Objects;
 
 /**
  * Сущность CalendarSlot доменной модели BookingTower.
+ *
+ * Таблица секционирована по месяцам {@code start_at}, первичный ключ в базе — {@code (id, start_at)};
+ * id по-прежнему уникален, так как выдаётся одной последовательностью.
  */
 @Entity
 @Table(name = "calendar_slots", 
@@ -24,8 +27,11 @@ import java.util.Objects;
 )
 public class CalendarSlot {
     
+    // Последовательность с шагом 50 и оптимизатором pooled-lo: id выдаются блоками без запроса
+    // на каждую строку, поэтому вставки можно группировать в JDBC-батчи
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calendarSlotIdGenerator")
+    @SequenceGenerator(name = "calendarSlotIdGenerator", sequenceName = "calendar_slots_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull
@@ -52,6 +58,11 @@ public class CalendarSlot {
     @Column(name = "hold_user_id")
     private Long holdUserId;
     
+    // Оптимистическая блокировка: параллельные правки слота не перезаписывают друг друга
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     public enum SlotStatus {
         OPEN,    // Available for booking
         HELD,    // Temporarily held by user (10 minutes)
@@ -106,6 +117,18 @@ public class CalendarSlot {
         this.holdExpiresAt = null;
     }
     
+    /**
+     * Бронирует слот, удержание которого хранится вне базы (Redis): до бронирования строка остаётся OPEN.
+     */
+    public void bookExternallyHeld(Long userId) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Slot is not available for booking");
+        }
+        this.status = SlotStatus.BOOKED;
+        this.holdUserId = userId;
+        this.holdExpiresAt = null;
+    }
+    
     public void release() {
         this.status = SlotStatus.OPEN;
         this.holdUserId = null;
@@ -188,6 +211,10 @@ public class CalendarSlot {
         this.holdUserId = holdUserId;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
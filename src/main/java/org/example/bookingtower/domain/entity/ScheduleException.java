@@ -0,0 +1,121 @@
+package org.example.bookingtower.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Исключение из расписания на конкретную дату: праздник (закрыто) или особые часы работы.
+ * Исключение без коворкинга действует для всех коворкингов (общий календарь праздников),
+ * исключение коворкинга на ту же дату имеет приоритет.
+ */
+@Entity
+@Table(name = "schedule_exceptions",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_schedule_exception_date", columnNames = {"coworking_id", "exception_date"})
+    }
+)
+public class ScheduleException {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "coworking_id")
+    private Long coworkingId;
+    
+    @Column(name = "exception_date", nullable = false)
+    private LocalDate exceptionDate;
+    
+    @Column(nullable = false)
+    private Boolean closed = true;
+    
+    @Column(name = "open_from")
+    private LocalTime openFrom;
+    
+    @Column(name = "open_to")
+    private LocalTime openTo;
+    
+    @Column(length = 255)
+    private String reason;
+    
+    // Конструкторы
+    public ScheduleException() {}
+    
+    public ScheduleException(Long coworkingId, LocalDate exceptionDate, String reason) {
+        this.coworkingId = coworkingId;
+        this.exceptionDate = exceptionDate;
+        this.reason = reason;
+    }
+    
+    public ScheduleException(Long coworkingId, LocalDate exceptionDate, LocalTime openFrom, LocalTime openTo, String reason) {
+        this(coworkingId, exceptionDate, reason);
+        this.closed = false;
+        this.openFrom = openFrom;
+        this.openTo = openTo;
+    }
+    
+    // Бизнес-методы
+    public boolean isClosed() {
+        return Boolean.TRUE.equals(closed);
+    }
+    
+    // Геттеры и сеттеры
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getCoworkingId() {
+        return coworkingId;
+    }
+    
+    public LocalDate getExceptionDate() {
+        return exceptionDate;
+    }
+    
+    public Boolean getClosed() {
+        return closed;
+    }
+    
+    public void setClosed(Boolean closed) {
+        this.closed = closed;
+    }
+    
+    public LocalTime getOpenFrom() {
+        return openFrom;
+    }
+    
+    public void setOpenFrom(LocalTime openFrom) {
+        this.openFrom = openFrom;
+    }
+    
+    public LocalTime getOpenTo() {
+        return openTo;
+    }
+    
+    public void setOpenTo(LocalTime openTo) {
+        this.openTo = openTo;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+    
+    @Override
+    public String toString() {
+        return "ScheduleException{" +
+                "id=" + id +
+                ", coworkingId=" + coworkingId +
+                ", exceptionDate=" + exceptionDate +
+                ", closed=" + closed +
+                ", openFrom=" + openFrom +
+                ", openTo=" + openTo +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
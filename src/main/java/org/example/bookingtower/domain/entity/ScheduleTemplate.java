@@ -0,0 +1,99 @@
+package org.example.bookingtower.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Правило расписания коворкинга на день недели: часы работы и длина слота.
+ * День недели без правила считается выходным, если у коворкинга есть хотя бы одно правило.
+ */
+@Entity
+@Table(name = "schedule_templates",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_schedule_template_day", columnNames = {"coworking_id", "day_of_week"})
+    }
+)
+public class ScheduleTemplate {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "coworking_id", nullable = false)
+    private Long coworkingId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 10)
+    private DayOfWeek dayOfWeek;
+    
+    @Column(name = "open_from", nullable = false)
+    private LocalTime openFrom;
+    
+    @Column(name = "open_to", nullable = false)
+    private LocalTime openTo;
+    
+    @Column(name = "slot_minutes", nullable = false)
+    private Integer slotMinutes = 60;
+    
+    // Конструкторы
+    public ScheduleTemplate() {}
+    
+    public ScheduleTemplate(Long coworkingId, DayOfWeek dayOfWeek, LocalTime openFrom, LocalTime openTo, Integer slotMinutes) {
+        this.coworkingId = coworkingId;
+        this.dayOfWeek = dayOfWeek;
+        this.openFrom = openFrom;
+        this.openTo = openTo;
+        this.slotMinutes = slotMinutes;
+    }
+    
+    // Геттеры и сеттеры
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getCoworkingId() {
+        return coworkingId;
+    }
+    
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+    
+    public LocalTime getOpenFrom() {
+        return openFrom;
+    }
+    
+    public void setOpenFrom(LocalTime openFrom) {
+        this.openFrom = openFrom;
+    }
+    
+    public LocalTime getOpenTo() {
+        return openTo;
+    }
+    
+    public void setOpenTo(LocalTime openTo) {
+        this.openTo = openTo;
+    }
+    
+    public Integer getSlotMinutes() {
+        return slotMinutes;
+    }
+    
+    public void setSlotMinutes(Integer slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+    
+    @Override
+    public String toString() {
+        return "ScheduleTemplate{" +
+                "id=" + id +
+                ", coworkingId=" + coworkingId +
+                ", dayOfWeek=" + dayOfWeek +
+                ", openFrom=" + openFrom +
+                ", openTo=" + openTo +
+                ", slotMinutes=" + slotMinutes +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.bookingtower.domain.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Отметка генератора слотов со скользящим горизонтом: до какой даты включительно
+ * слоты рабочего пространства уже сгенерированы.
+ */
+@Entity
+@Table(name = "slot_generation_watermarks")
+@EntityListeners(AuditingEntityListener.class)
+public class SlotGenerationWatermark {
+    
+    @Id
+    @Column(name = "workspace_id", nullable = false)
+    private Long workspaceId;
+    
+    @Column(name = "generated_until", nullable = false)
+    private LocalDate generatedUntil;
+    
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Конструкторы
+    public SlotGenerationWatermark() {}
+    
+    public SlotGenerationWatermark(Long workspaceId, LocalDate generatedUntil) {
+        this.workspaceId = workspaceId;
+        this.generatedUntil = generatedUntil;
+    }
+    
+    // Геттеры и сеттеры
+    public Long getWorkspaceId() {
+        return workspaceId;
+    }
+    
+    public LocalDate getGeneratedUntil() {
+        return generatedUntil;
+    }
+    
+    public void setGeneratedUntil(LocalDate generatedUntil) {
+        this.generatedUntil = generatedUntil;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "SlotGenerationWatermark{" +
+                "workspaceId=" + workspaceId +
+                ", generatedUntil=" + generatedUntil +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
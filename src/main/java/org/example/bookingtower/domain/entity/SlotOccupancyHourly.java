@@ -0,0 +1,110 @@
+package org.example.bookingtower.domain.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Почасовой агрегат занятости рабочего пространства: количество слотов в каждом статусе,
+ * начинающихся в данном часе. Поддерживается инкрементально при смене статусов слотов.
+ */
+@Entity
+@Table(name = "slot_occupancy_hourly")
+@IdClass(SlotOccupancyHourly.Key.class)
+public class SlotOccupancyHourly {
+    
+    @Id
+    @Column(name = "workspace_id", nullable = false)
+    private Long workspaceId;
+    
+    @Id
+    @Column(name = "hour_bucket", nullable = false)
+    private LocalDateTime hourBucket;
+    
+    @Column(name = "open_count", nullable = false)
+    private int openCount;
+    
+    @Column(name = "held_count", nullable = false)
+    private int heldCount;
+    
+    @Column(name = "booked_count", nullable = false)
+    private int bookedCount;
+    
+    @Column(name = "frozen_count", nullable = false)
+    private int frozenCount;
+    
+    // Конструкторы
+    public SlotOccupancyHourly() {}
+    
+    // Бизнес-методы
+    public int getTotalCount() {
+        return openCount + heldCount + bookedCount + frozenCount;
+    }
+    
+    // Геттеры
+    public Long getWorkspaceId() {
+        return workspaceId;
+    }
+    
+    public LocalDateTime getHourBucket() {
+        return hourBucket;
+    }
+    
+    public int getOpenCount() {
+        return openCount;
+    }
+    
+    public int getHeldCount() {
+        return heldCount;
+    }
+    
+    public int getBookedCount() {
+        return bookedCount;
+    }
+    
+    public int getFrozenCount() {
+        return frozenCount;
+    }
+    
+    /**
+     * Составной ключ агрегата: рабочее пространство и начало часа.
+     */
+    public static class Key implements Serializable {
+        private Long workspaceId;
+        private LocalDateTime hourBucket;
+        
+        public Key() {}
+        
+        public Key(Long workspaceId, LocalDateTime hourBucket) {
+            this.workspaceId = workspaceId;
+            this.hourBucket = hourBucket;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(workspaceId, key.workspaceId) && Objects.equals(hourBucket, key.hourBucket);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(workspaceId, hourBucket);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "SlotOccupancyHourly{" +
+                "workspaceId=" + workspaceId +
+                ", hourBucket=" + hourBucket +
+                ", openCount=" + openCount +
+                ", heldCount=" + heldCount +
+                ", bookedCount=" + bookedCount +
+                ", frozenCount=" + frozenCount +
+                '}';
+    }
+}
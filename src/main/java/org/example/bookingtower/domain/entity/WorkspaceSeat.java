@@ -13,12 +13,16 @@ import java.util.Objects;
 @Table(name = "workspace_seats", indexes = {
     @Index(name = "idx_seat_workspace", columnList = "workspace_id"),
     @Index(name = "idx_seat_code", columnList = "code"),
-    @Index(name = "idx_seat_active", columnList = "active")
+    @Index(name = "idx_seat_active", columnList = "active"),
+    @Index(name = "idx_seat_workspace_code", columnList = "workspace_id, code")
 })
 public class WorkspaceSeat {
     
+    // Последовательность с шагом 50 и оптимизатором pooled-lo: id выдаются блоками без запроса
+    // на каждую строку, поэтому вставки можно группировать в JDBC-батчи
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workspaceSeatIdGenerator")
+    @SequenceGenerator(name = "workspaceSeatIdGenerator", sequenceName = "workspace_seats_id_seq", allocationSize = 50)
     private Long id;
     
     @NotNull
@@ -0,0 +1,13 @@
+package org.example.bookingtower.domain.event;
+
+/**
+ * Событие изменения расписания коворкинга (правил по дням недели или исключений).
+ * {@code coworkingId == null} означает изменение общего календаря праздников, затрагивающее все коворкинги.
+ * {@code remote} — событие получено от другого узла приложения и уже учтено им в общем состоянии.
+ */
+public record ScheduleChangedEvent(Long coworkingId, boolean remote) {
+
+    public ScheduleChangedEvent(Long coworkingId) {
+        this(coworkingId, false);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.bookingtower.domain.event;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.entity.WorkspaceSeat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Событие изменения статуса одного или нескольких календарных слотов.
+ * Публикуется сервисами после изменения слотов, чтобы производные структуры
+ * (in-memory индексы, кэши) обновлялись без повторного чтения из базы.
+ *
+ * Удалённое событие ({@link #isRemote()}) пересылается с другого узла приложения: по нему обновляются
+ * только структуры в памяти узла, общее состояние в базе другой узел уже изменил.
+ */
+public class SlotStatusChangedEvent {
+
+    private final List<SlotChange> changes;
+
+    private final boolean remote;
+
+    public SlotStatusChangedEvent(List<SlotChange> changes) {
+        this(changes, false);
+    }
+
+    private SlotStatusChangedEvent(List<SlotChange> changes, boolean remote) {
+        this.changes = List.copyOf(changes);
+        this.remote = remote;
+    }
+
+    public static SlotStatusChangedEvent remote(List<SlotChange> changes) {
+        return new SlotStatusChangedEvent(changes, true);
+    }
+
+    public static SlotStatusChangedEvent of(CalendarSlot slot, CalendarSlot.SlotStatus previousStatus) {
+        return new SlotStatusChangedEvent(List.of(SlotChange.of(slot, previousStatus, slot.getStatus())));
+    }
+
+    public static SlotStatusChangedEvent created(List<CalendarSlot> slots) {
+        return new SlotStatusChangedEvent(slots.stream()
+                .map(slot -> SlotChange.of(slot, null, slot.getStatus()))
+                .toList());
+    }
+
+    public static SlotStatusChangedEvent removed(CalendarSlot slot) {
+        return new SlotStatusChangedEvent(List.of(SlotChange.of(slot, slot.getStatus(), null)));
+    }
+
+    public List<SlotChange> getChanges() {
+        return changes;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+
+    /**
+     * Изменение одного слота. {@code previousStatus == null} означает, что слот создан,
+     * {@code currentStatus == null} — что слот удалён. {@code holdExpiresAt} — срок удержания,
+     * если слот перешёл в HELD, иначе {@code null}.
+     */
+    public record SlotChange(Long slotId,
+                             Long seatId,
+                             String seatCode,
+                             Long workspaceId,
+                             LocalDateTime startAt,
+                             LocalDateTime endAt,
+                             CalendarSlot.SlotStatus previousStatus,
+                             CalendarSlot.SlotStatus currentStatus,
+                             LocalDateTime holdExpiresAt) {
+
+        public SlotChange(Long slotId, Long seatId, String seatCode, Long workspaceId, LocalDateTime startAt,
+                          LocalDateTime endAt, CalendarSlot.SlotStatus previousStatus,
+                          CalendarSlot.SlotStatus currentStatus) {
+            this(slotId, seatId, seatCode, workspaceId, startAt, endAt, previousStatus, currentStatus, null);
+        }
+
+        public static SlotChange of(CalendarSlot slot, CalendarSlot.SlotStatus previousStatus,
+                                    CalendarSlot.SlotStatus currentStatus) {
+            WorkspaceSeat seat = slot.getSeat();
+            return new SlotChange(slot.getId(), seat.getId(), seat.getCode(), seat.getWorkspace().getId(),
+                    slot.getStartAt(), slot.getEndAt(), previousStatus, currentStatus,
+                    currentStatus == CalendarSlot.SlotStatus.HELD ? slot.getHoldExpiresAt() : null);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.bookingtower.infrastructure.redis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.bookingtower.domain.event.ScheduleChangedEvent;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Общее состояние доступности для нескольких узлов приложения, включается {@code app.availability.sync=redis}.
+ *
+ * Версии доступности по рабочему пространству и дню (и по дню целиком) хранятся в хеше
+ * {@code bookingtower:availability:versions:{date}} и увеличиваются HINCRBY, поэтому все узлы выдают
+ * одинаковые ETag для одних и тех же данных. Изменения слотов вместе с новыми версиями и изменения расписаний
+ * рассылаются остальным узлам через pub/sub и публикуются у них как удалённые события.
+ * Pub/sub не гарантирует доставку: пропущенное сообщение узел догоняет плановой перестройкой индекса доступности.
+ */
+@Component
+@ConditionalOnProperty(name = "app.availability.sync", havingValue = "redis")
+public class RedisAvailabilitySync {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisAvailabilitySync.class);
+
+    static final String CHANNEL = "bookingtower:availability:events";
+    static final String VERSIONS_KEY_PREFIX = "bookingtower:availability:versions:";
+    static final String VERSION_DAYS_KEY = "bookingtower:availability:version-days";
+    static final String EPOCH_KEY = "bookingtower:availability:epoch";
+
+    // Поле хеша с версией дня по всем рабочим пространствам
+    private static final String ALL_WORKSPACES_FIELD = "all";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    public RedisAvailabilitySync(StringRedisTemplate redisTemplate,
+                                 ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        listenerContainer.addMessageListener((message, pattern) -> onMessage(message.getBody()), new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        logger.info("Availability sync node {} subscribed to {}", nodeId, CHANNEL);
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+            listenerContainer = null;
+        }
+    }
+
+    /**
+     * Метка набора версий: создаётся первым узлом и меняется только при потере данных Redis,
+     * чтобы ETag, выданные до неё, не совпали с заново начатыми счётчиками.
+     */
+    public String epoch() {
+        redisTemplate.opsForValue().setIfAbsent(EPOCH_KEY, Long.toString(System.currentTimeMillis(), 36));
+        String epoch = redisTemplate.opsForValue().get(EPOCH_KEY);
+        if (epoch == null) {
+            throw new IllegalStateException("Availability version epoch is missing in Redis");
+        }
+        return epoch;
+    }
+
+    /**
+     * Начинает набор версий заново, когда часть изменений не попала в общие счётчики:
+     * ETag, выданные по прежней метке, больше ни с чем не совпадут.
+     */
+    public String renewEpoch() {
+        String epoch = Long.toString(System.currentTimeMillis(), 36) + "." + nodeId.substring(0, 8);
+        redisTemplate.opsForValue().set(EPOCH_KEY, epoch);
+        return epoch;
+    }
+
+    /**
+     * Увеличивает версии рабочих пространств по дням и версии самих дней.
+     *
+     * @return новые значения версий
+     */
+    public List<VersionValue> increment(Map<LocalDate, Set<Long>> workspacesByDate) {
+        List<VersionValue> incremented = new ArrayList<>();
+        List<Integer> resultPositions = new ArrayList<>();
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            int position = 0;
+            for (Map.Entry<LocalDate, Set<Long>> entry : workspacesByDate.entrySet()) {
+                LocalDate date = entry.getKey();
+                String key = versionsKey(date);
+                for (Long workspaceId : entry.getValue()) {
+                    redis.hIncrBy(key, workspaceId.toString(), 1);
+                    incremented.add(new VersionValue(workspaceId, date, 0));
+                    resultPositions.add(position++);
+                }
+                redis.hIncrBy(key, ALL_WORKSPACES_FIELD, 1);
+                incremented.add(new VersionValue(null, date, 0));
+                resultPositions.add(position++);
+                // Версии прошедших дней не нужны: ключ живёт до конца следующего дня
+                redis.expireAt(key, date.plusDays(2).atStartOfDay(ZoneId.systemDefault()).toEpochSecond());
+                redis.zAdd(VERSION_DAYS_KEY, date.toEpochDay(), date.toString());
+                position += 2;
+            }
+            return null;
+        });
+
+        List<VersionValue> versions = new ArrayList<>(incremented.size());
+        for (int i = 0; i < incremented.size(); i++) {
+            VersionValue value = incremented.get(i);
+            long version = ((Number) results.get(resultPositions.get(i))).longValue();
+            versions.add(new VersionValue(value.workspaceId(), value.date(), version));
+        }
+        return versions;
+    }
+
+    /**
+     * Все версии дней начиная с {@code from}; учёт прошедших дней при этом удаляется.
+     */
+    public List<VersionValue> load(LocalDate from) {
+        redisTemplate.opsForZSet().removeRangeByScore(VERSION_DAYS_KEY, Double.NEGATIVE_INFINITY, from.toEpochDay() - 1);
+        Set<String> days = redisTemplate.opsForZSet().rangeByScore(VERSION_DAYS_KEY, from.toEpochDay(), Double.POSITIVE_INFINITY);
+        if (days == null || days.isEmpty()) {
+            return List.of();
+        }
+
+        List<LocalDate> dates = days.stream().map(LocalDate::parse).toList();
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            dates.forEach(date -> redis.hGetAll(versionsKey(date)));
+            return null;
+        });
+
+        List<VersionValue> versions = new ArrayList<>();
+        for (int i = 0; i < dates.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> hash = (Map<String, String>) hashes.get(i);
+            if (hash == null) {
+                continue;
+            }
+            LocalDate date = dates.get(i);
+            hash.forEach((field, version) -> versions.add(new VersionValue(
+                    ALL_WORKSPACES_FIELD.equals(field) ? null : Long.valueOf(field), date, Long.parseLong(version))));
+        }
+        return versions;
+    }
+
+    /**
+     * Рассылает изменения слотов и их новые версии остальным узлам.
+     */
+    public void publishSlotChanges(List<SlotStatusChangedEvent.SlotChange> changes, List<VersionValue> versions) {
+        publish(new SyncMessage(nodeId, changes, versions, false, null));
+    }
+
+    /**
+     * Сообщает остальным узлам об изменении расписания коворкинга ({@code null} — общего календаря праздников).
+     */
+    public void publishScheduleChanged(Long coworkingId) {
+        publish(new SyncMessage(nodeId, List.of(), List.of(), true, coworkingId));
+    }
+
+    void onMessage(byte[] body) {
+        SyncMessage message;
+        try {
+            message = objectMapper.readValue(body, SyncMessage.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed availability sync message", e);
+            return;
+        }
+        if (nodeId.equals(message.node())) {
+            return;
+        }
+        if (message.scheduleChanged()) {
+            eventPublisher.publishEvent(new ScheduleChangedEvent(message.coworkingId(), true));
+        } else {
+            // Сначала данные (индекс, лента), затем версии: новая версия не выдаётся со старыми данными
+            eventPublisher.publishEvent(SlotStatusChangedEvent.remote(message.changes()));
+            eventPublisher.publishEvent(new RemoteVersions(message.versions()));
+        }
+    }
+
+    private void publish(SyncMessage message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize availability sync message", e);
+        }
+    }
+
+    private static String versionsKey(LocalDate date) {
+        return VERSIONS_KEY_PREFIX + date;
+    }
+
+    /**
+     * Версия доступности; {@code workspaceId == null} — версия дня по всем рабочим пространствам.
+     */
+    public record VersionValue(Long workspaceId, LocalDate date, long version) {
+    }
+
+    /**
+     * Версии, полученные от другого узла вместе с изменениями слотов.
+     */
+    public record RemoteVersions(List<VersionValue> versions) {
+    }
+
+    record SyncMessage(String node,
+                       List<SlotStatusChangedEvent.SlotChange> changes,
+                       List<VersionValue> versions,
+                       boolean scheduleChanged,
+                       Long coworkingId) {
+    }
+}
@@ -0,0 +1,237 @@
+package org.example.bookingtower.infrastructure.redis;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Хранилище удержаний слотов в Redis, включается {@code app.booking.hold-store=redis}.
+ *
+ * Удержание — ключ {@code bookingtower:hold:slot:{slotId}} со значением id пользователя и нативным TTL,
+ * захватывается SET NX PX: узлы приложения делят удержания, не записывая их в calendar_slots.
+ * Действующие удержания пользователя учитываются в sorted set {@code bookingtower:hold:user:{userId}}
+ * (счёт — срок истечения по часам Redis); проверка лимита и захват выполняются одним Lua-скриптом атомарно.
+ *
+ * Общий sorted set {@code bookingtower:hold:expiry} перечисляет удержания, о которых узлы объявили событием
+ * HELD, и их сроки. Удержание выходит из него ровно один раз — истечением ({@link #claimExpired}),
+ * бронированием ({@link #release}) или заморозкой ({@link #evict}), и событие о выходе из HELD публикует
+ * тот узел, который его убрал. Скрипты обращаются к ключам нескольких слотов и пользователей сразу,
+ * поэтому Redis Cluster не поддерживается.
+ */
+@Component
+@ConditionalOnProperty(name = "app.booking.hold-store", havingValue = "redis")
+public class RedisHoldStore {
+
+    static final String SLOT_KEY_PREFIX = "bookingtower:hold:slot:";
+    static final String USER_KEY_PREFIX = "bookingtower:hold:user:";
+    static final String EXPIRY_KEY = "bookingtower:hold:expiry";
+
+    private static final String NOW =
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) ";
+
+    // KEYS: слот, пользователь, сроки удержаний; ARGV: id пользователя, TTL в мс, лимит удержаний, id слота
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            NOW +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now) " +
+            "if redis.call('ZCARD', KEYS[2]) >= tonumber(ARGV[3]) then return -1 end " +
+            "if not redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 0 end " +
+            "redis.call('ZADD', KEYS[2], now + tonumber(ARGV[2]), ARGV[4]) " +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[2]) " +
+            // 0 добавленных — прежнее удержание истекло, но ещё не снято
+            "if redis.call('ZADD', KEYS[3], now + tonumber(ARGV[2]), ARGV[4]) == 0 then return 2 end " +
+            "return 1", Long.class);
+
+    // KEYS: слот, пользователь, сроки удержаний; ARGV: id пользователя, id слота
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "redis.call('ZREM', KEYS[2], ARGV[2]) " +
+            "redis.call('ZREM', KEYS[3], ARGV[2]) " +
+            "return 1", Long.class);
+
+    // KEYS: сроки удержаний; ARGV: id слотов. Возвращает тройки (id, срок, 1 — снято / 0 — срок не наступил)
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_DUE_SCRIPT = new DefaultRedisScript<>(
+            NOW +
+            "local result = {} " +
+            "for _, id in ipairs(ARGV) do " +
+            "  local score = redis.call('ZSCORE', KEYS[1], id) " +
+            "  if score then " +
+            "    local claimed = '0' " +
+            "    if tonumber(score) < now then redis.call('ZREM', KEYS[1], id) claimed = '1' end " +
+            "    table.insert(result, id) table.insert(result, score) table.insert(result, claimed) " +
+            "  end " +
+            "end " +
+            "return result", List.class);
+
+    // KEYS: сроки удержаний; ARGV: лимит. Возвращает пары (id, срок) снятых удержаний
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_EXPIRED_SCRIPT = new DefaultRedisScript<>(
+            NOW +
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', '(' .. now, 'WITHSCORES', 'LIMIT', 0, tonumber(ARGV[1])) " +
+            "for i = 1, #expired, 2 do redis.call('ZREM', KEYS[1], expired[i]) end " +
+            "return expired", List.class);
+
+    // KEYS: сроки удержаний; ARGV: id слотов. Возвращает id слотов, удержание которых было объявлено
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "local evicted = {} " +
+            "for _, id in ipairs(ARGV) do " +
+            "  local slotKey = '" + SLOT_KEY_PREFIX + "' .. id " +
+            "  local holder = redis.call('GET', slotKey) " +
+            "  if holder then " +
+            "    redis.call('ZREM', '" + USER_KEY_PREFIX + "' .. holder, id) " +
+            "    redis.call('DEL', slotKey) " +
+            "  end " +
+            "  if redis.call('ZREM', KEYS[1], id) == 1 then table.insert(evicted, id) end " +
+            "end " +
+            "return evicted", List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Autowired
+    public RedisHoldStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public enum AcquireResult {
+        ACQUIRED,
+        // Слот перехвачен после истёкшего, но ещё не снятого удержания
+        TAKEN_OVER,
+        TAKEN,
+        LIMIT_REACHED
+    }
+
+    /**
+     * Удерживает слот за пользователем на {@code ttl}, если слот никем не удержан и у пользователя
+     * меньше {@code maxActiveHolds} действующих удержаний.
+     */
+    public AcquireResult acquire(Long slotId, Long userId, Duration ttl, int maxActiveHolds) {
+        Long result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(slotKey(slotId), userKey(userId), EXPIRY_KEY),
+                userId.toString(), Long.toString(ttl.toMillis()), Integer.toString(maxActiveHolds), slotId.toString());
+        if (result == null || result == 0) {
+            return AcquireResult.TAKEN;
+        }
+        if (result < 0) {
+            return AcquireResult.LIMIT_REACHED;
+        }
+        return result == 2 ? AcquireResult.TAKEN_OVER : AcquireResult.ACQUIRED;
+    }
+
+    public boolean isHeldBy(Long slotId, Long userId) {
+        return userId.toString().equals(redisTemplate.opsForValue().get(slotKey(slotId)));
+    }
+
+    /**
+     * Слоты из {@code slotIds} с действующим удержанием.
+     */
+    public Set<Long> findHeld(Collection<Long> slotIds) {
+        List<Long> ids = new ArrayList<>(slotIds);
+        List<String> holders = redisTemplate.opsForValue().multiGet(ids.stream().map(RedisHoldStore::slotKey).toList());
+        Set<Long> held = new HashSet<>();
+        for (int i = 0; holders != null && i < ids.size(); i++) {
+            if (holders.get(i) != null) {
+                held.add(ids.get(i));
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Все объявленные удержания, включая истёкшие, но ещё не снятые: индекс доступности показывает их HELD
+     * до события о снятии.
+     */
+    public Set<Long> findAnnounced() {
+        Set<String> members = redisTemplate.opsForZSet().range(EXPIRY_KEY, 0, -1);
+        Set<Long> slotIds = new HashSet<>();
+        if (members != null) {
+            members.forEach(member -> slotIds.add(Long.valueOf(member)));
+        }
+        return slotIds;
+    }
+
+    /**
+     * Снимает удержание, только если оно принадлежит пользователю.
+     *
+     * @return {@code true}, если удержание было снято
+     */
+    public boolean release(Long slotId, Long userId) {
+        Long result = redisTemplate.execute(RELEASE_SCRIPT, List.of(slotKey(slotId), userKey(userId), EXPIRY_KEY),
+                userId.toString(), slotId.toString());
+        return result != null && result == 1;
+    }
+
+    /**
+     * Забирает истёкшие удержания из {@code slotIds}. Удержание получает только один вызывающий
+     * (на любом узле); удержания со сроком в будущем (продлённые перехватом) возвращаются в {@code pending}.
+     *
+     * @return снятые удержания со сроками
+     */
+    public List<HoldExpiry> claimDue(Collection<Long> slotIds, List<HoldExpiry> pending) {
+        List<?> result = redisTemplate.execute(CLAIM_DUE_SCRIPT, List.of(EXPIRY_KEY),
+                slotIds.stream().map(String::valueOf).toArray());
+        List<HoldExpiry> claimed = new ArrayList<>();
+        for (int i = 0; result != null && i + 2 < result.size(); i += 3) {
+            HoldExpiry expiry = new HoldExpiry(Long.valueOf(result.get(i).toString()),
+                    (long) Double.parseDouble(result.get(i + 1).toString()));
+            ("1".equals(result.get(i + 2).toString()) ? claimed : pending).add(expiry);
+        }
+        return claimed;
+    }
+
+    /**
+     * Забирает не более {@code limit} истёкших удержаний.
+     */
+    public List<HoldExpiry> claimExpired(int limit) {
+        List<?> result = redisTemplate.execute(CLAIM_EXPIRED_SCRIPT, List.of(EXPIRY_KEY), Integer.toString(limit));
+        List<HoldExpiry> claimed = new ArrayList<>();
+        for (int i = 0; result != null && i + 1 < result.size(); i += 2) {
+            claimed.add(new HoldExpiry(Long.valueOf(result.get(i).toString()),
+                    (long) Double.parseDouble(result.get(i + 1).toString())));
+        }
+        return claimed;
+    }
+
+    /**
+     * Снимает удержания слотов безусловно (заморозка важнее удержания).
+     *
+     * @return слоты, удержание которых было объявлено событием HELD и снято этим вызовом
+     */
+    public Set<Long> evict(Collection<Long> slotIds) {
+        Set<Long> evicted = new HashSet<>();
+        if (slotIds.isEmpty()) {
+            return evicted;
+        }
+        List<?> result = redisTemplate.execute(EVICT_SCRIPT, List.of(EXPIRY_KEY),
+                slotIds.stream().map(String::valueOf).toArray());
+        if (result != null) {
+            result.forEach(id -> evicted.add(Long.valueOf(id.toString())));
+        }
+        return evicted;
+    }
+
+    private static String slotKey(Long slotId) {
+        return SLOT_KEY_PREFIX + slotId;
+    }
+
+    private static String userKey(Long userId) {
+        return USER_KEY_PREFIX + userId;
+    }
+
+    /**
+     * Удержание слота и его срок по часам Redis, мс от эпохи.
+     */
+    public record HoldExpiry(Long slotId, long expiresAtMillis) {
+    }
+}
@@ -4,12 +4,14 @@ import org.example.bookingtower.domain.entity.Booking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -75,6 +77,8 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.status IN ('CONFIRMED', 'PENDING') AND b.slot.startAt > :now ORDER BY b.slot.startAt")
     List<Booking> findUserActiveAndUpcomingBookings(@Param("userId") Long userId, @Param("now") LocalDateTime now);
     
+    boolean existsBySlotId(Long slotId);
+    
     @Query("SELECT b FROM Booking b WHERE b.slot.id = :slotId")
     Optional<Booking> findBySlotId(@Param("slotId") Long slotId);
     
@@ -82,4 +86,16 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findConfirmedBookingsForDay(@Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
     
     Page<Booking> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    
+    @Query("SELECT b FROM Booking b WHERE b.archivedSlot.startAt >= :startDate AND b.archivedSlot.endAt <= :endDate ORDER BY b.archivedSlot.startAt")
+    List<Booking> findArchivedByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.seat.workspace.id = :workspaceId AND b.status = 'CONFIRMED' AND b.archivedSlot.startAt >= :startDate AND b.archivedSlot.endAt <= :endDate")
+    long countConfirmedArchivedBookingsByWorkspaceAndDateRange(@Param("workspaceId") Long workspaceId,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate);
+    
+    @Modifying
+    @Query(value = "UPDATE bookings SET archived_slot_id = slot_id, slot_id = NULL, version = version + 1 WHERE slot_id IN (:slotIds)", nativeQuery = true)
+    int moveSlotReferencesToArchive(@Param("slotIds") Collection<Long> slotIds);
 }
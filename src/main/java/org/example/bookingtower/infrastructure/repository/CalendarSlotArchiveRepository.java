@@ -0,0 +1,42 @@
+package org.example.bookingtower.infrastructure.repository;
+
+import org.example.bookingtower.domain.entity.ArchivedCalendarSlot;
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий CalendarSlotArchiveRepository для холодной таблицы прошедших слотов.
+ */
+@Repository
+public interface CalendarSlotArchiveRepository extends JpaRepository<ArchivedCalendarSlot, Long> {
+    
+    /**
+     * Копирует строки {@code calendar_slots} в архив с теми же идентификаторами; повторный перенос
+     * уже скопированной строки игнорируется.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO calendar_slots_archive (id, seat_id, start_at, end_at, status, hold_expires_at, hold_user_id, archived_at) " +
+                   "SELECT id, seat_id, start_at, end_at, status, hold_expires_at, hold_user_id, CURRENT_TIMESTAMP " +
+                   "FROM calendar_slots WHERE id IN (:ids) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copyFromCalendarSlots(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT a FROM ArchivedCalendarSlot a JOIN FETCH a.seat s WHERE s.workspace.id = :workspaceId AND a.startAt >= :startDate AND a.endAt <= :endDate ORDER BY s.code, a.startAt")
+    List<ArchivedCalendarSlot> findByWorkspaceAndDateRange(@Param("workspaceId") Long workspaceId,
+                                                          @Param("startDate") LocalDateTime startDate,
+                                                          @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT a FROM ArchivedCalendarSlot a JOIN FETCH a.seat s WHERE s.workspace.id = :workspaceId AND a.startAt >= :startDate AND a.endAt <= :endDate AND a.status = :status ORDER BY s.code, a.startAt")
+    List<ArchivedCalendarSlot> findByWorkspaceAndDateRangeAndStatus(@Param("workspaceId") Long workspaceId,
+                                                                   @Param("startDate") LocalDateTime startDate,
+                                                                   @Param("endDate") LocalDateTime endDate,
+                                                                   @Param("status") CalendarSlot.SlotStatus status);
+
+}
@@ -1,84 +1,306 @@
 package org.example.bookingtower.infrastructure.repository;
 
 import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotKey;
+import org.example.bookingtower.infrastructure.repository.projection.SlotStatusRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Репозиторий CalendarSlotRepository для доступа к данным BookingTower.
+ *
+ * Таблица {@code calendar_slots} секционирована по месяцам {@code start_at}. Условие
+ * {@code cs.startAt < :endDate} в запросах по интервалу избыточно (слот заканчивается не позже
+ * {@code endDate}), но без него планировщик не может отсечь секции после конца интервала.
  */
 @Repository
 public interface CalendarSlotRepository extends JpaRepository<CalendarSlot, Long> {
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id = :seatId AND cs.startAt >= :startDate AND cs.endAt <= :endDate ORDER BY cs.startAt")
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id = :seatId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate ORDER BY cs.startAt")
     List<CalendarSlot> findBySeatIdAndDateRange(@Param("seatId") Long seatId, 
                                                @Param("startDate") LocalDateTime startDate, 
                                                @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id IN :seatIds AND cs.startAt >= :startDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' ORDER BY cs.seat.id, cs.startAt")
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id IN :seatIds AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' ORDER BY cs.seat.id, cs.startAt")
     List<CalendarSlot> findAvailableSlotsBySeatIdsAndDateRange(@Param("seatIds") List<Long> seatIds,
                                                               @Param("startDate") LocalDateTime startDate,
                                                               @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' ORDER BY cs.seat.code, cs.startAt")
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' ORDER BY cs.seat.code, cs.startAt")
     List<CalendarSlot> findAvailableSlotsByWorkspaceAndDateRange(@Param("workspaceId") Long workspaceId,
                                                                 @Param("startDate") LocalDateTime startDate,
                                                                 @Param("endDate") LocalDateTime endDate);
     
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotView(cs.id, s.id, s.code, cs.startAt, cs.endAt, cs.status) " +
+           "FROM CalendarSlot cs JOIN cs.seat s WHERE s.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' " +
+           "ORDER BY s.code, cs.startAt")
+    List<SlotView> findAvailableSlotViewsByWorkspaceAndDateRange(@Param("workspaceId") Long workspaceId,
+                                                                @Param("startDate") LocalDateTime startDate,
+                                                                @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotView(cs.id, s.id, s.code, cs.startAt, cs.endAt, cs.status) " +
+           "FROM CalendarSlot cs JOIN cs.seat s WHERE s.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' " +
+           "ORDER BY s.code, s.id, cs.startAt")
+    List<SlotView> findAvailableSlotsPageByWorkspace(@Param("workspaceId") Long workspaceId,
+                                                    @Param("startDate") LocalDateTime startDate,
+                                                    @Param("endDate") LocalDateTime endDate,
+                                                    Pageable limit);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotView(cs.id, s.id, s.code, cs.startAt, cs.endAt, cs.status) " +
+           "FROM CalendarSlot cs JOIN cs.seat s WHERE s.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' " +
+           "AND (s.code > :afterCode OR (s.code = :afterCode AND (s.id > :afterSeatId OR (s.id = :afterSeatId AND cs.startAt > :afterStartAt)))) " +
+           "ORDER BY s.code, s.id, cs.startAt")
+    List<SlotView> findAvailableSlotsPageByWorkspaceAfter(@Param("workspaceId") Long workspaceId,
+                                                         @Param("startDate") LocalDateTime startDate,
+                                                         @Param("endDate") LocalDateTime endDate,
+                                                         @Param("afterCode") String afterCode,
+                                                         @Param("afterSeatId") Long afterSeatId,
+                                                         @Param("afterStartAt") LocalDateTime afterStartAt,
+                                                         Pageable limit);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotView(cs.id, s.id, s.code, cs.startAt, cs.endAt, cs.status) " +
+           "FROM CalendarSlot cs JOIN cs.seat s JOIN s.workspace w WHERE w.coworking.id = :coworkingId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' " +
+           "ORDER BY w.name, s.code, cs.startAt")
+    List<SlotView> findAvailableSlotViewsByCoworkingAndDateRange(@Param("coworkingId") Long coworkingId,
+                                                                @Param("startDate") LocalDateTime startDate,
+                                                                @Param("endDate") LocalDateTime endDate);
+    
     @Query("SELECT cs FROM CalendarSlot cs WHERE cs.status = 'HELD' AND cs.holdExpiresAt < :now")
     List<CalendarSlot> findExpiredHolds(@Param("now") LocalDateTime now);
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.status = 'HELD' AND cs.holdUserId = :userId AND cs.holdExpiresAt > :now")
-    List<CalendarSlot> findActiveHoldsByUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    /**
+     * Число действующих удержаний пользователя. Покрывается частичным индексом {@code idx_slot_active_holds}
+     * по HELD-строкам, сущности не загружаются.
+     */
+    @Query("SELECT COUNT(cs) FROM CalendarSlot cs WHERE cs.status = 'HELD' AND cs.holdUserId = :userId AND cs.holdExpiresAt > :now")
+    long countActiveHoldsByUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
     
     @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id = :seatId AND cs.startAt = :startAt AND cs.endAt = :endAt")
     Optional<CalendarSlot> findBySeatIdAndTimeSlot(@Param("seatId") Long seatId, 
                                                   @Param("startAt") LocalDateTime startAt, 
                                                   @Param("endAt") LocalDateTime endAt);
     
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id = :seatId AND cs.startAt = :startAt")
+    Optional<CalendarSlot> findBySeatIdAndStartAt(@Param("seatId") Long seatId, @Param("startAt") LocalDateTime startAt);
+    
+    /**
+     * Загружает слот и блокирует его строку до конца транзакции. Подтверждение бронирования обновляет
+     * ту же строку, поэтому проверка бронирований под этой блокировкой не разминётся с ним.
+     */
+    @Query(value = "SELECT * FROM calendar_slots WHERE id = :slotId FOR UPDATE", nativeQuery = true)
+    Optional<CalendarSlot> findByIdForUpdate(@Param("slotId") Long slotId);
+    
     @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id = :seatId AND ((cs.startAt < :endAt AND cs.endAt > :startAt)) AND cs.status IN ('HELD', 'BOOKED')")
     List<CalendarSlot> findConflictingSlots(@Param("seatId") Long seatId,
                                            @Param("startAt") LocalDateTime startAt,
                                            @Param("endAt") LocalDateTime endAt);
     
-    @Modifying
-    @Query("UPDATE CalendarSlot cs SET cs.status = 'OPEN', cs.holdUserId = null, cs.holdExpiresAt = null WHERE cs.status = 'HELD' AND cs.holdExpiresAt < :now")
-    int releaseExpiredHolds(@Param("now") LocalDateTime now);
+    /**
+     * Снимает не более {@code limit} самых давних истёкших удержаний одним UPDATE. Строки, заблокированные
+     * параллельными транзакциями (подтверждение, перехват удержания), пропускаются до следующего прохода.
+     *
+     * @return пары (id слота, срок удержания до снятия)
+     */
+    @Query(value = "WITH released AS (" +
+                   "  UPDATE calendar_slots cs SET status = 'OPEN', hold_user_id = NULL, hold_expires_at = NULL, version = cs.version + 1 " +
+                   "  FROM (SELECT c.id, c.start_at, c.hold_expires_at FROM calendar_slots c " +
+                   "        WHERE c.status = 'HELD' AND c.hold_expires_at < :now " +
+                   "        ORDER BY c.hold_expires_at LIMIT :limit FOR UPDATE OF c SKIP LOCKED) target " +
+                   "  WHERE cs.id = target.id AND cs.start_at = target.start_at " +
+                   "  RETURNING cs.id, target.hold_expires_at) " +
+                   "SELECT id, hold_expires_at FROM released", nativeQuery = true)
+    List<Object[]> releaseExpiredHolds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    /**
+     * Снимает удержания из {@code slotIds}, если они действительно истекли; продлённые и перехваченные
+     * удержания не трогаются.
+     *
+     * @return пары (id слота, срок удержания до снятия)
+     */
+    @Query(value = "WITH released AS (" +
+                   "  UPDATE calendar_slots cs SET status = 'OPEN', hold_user_id = NULL, hold_expires_at = NULL, version = cs.version + 1 " +
+                   "  FROM (SELECT c.id, c.start_at, c.hold_expires_at FROM calendar_slots c " +
+                   "        WHERE c.id IN (:slotIds) AND c.status = 'HELD' AND c.hold_expires_at < :now " +
+                   "        FOR UPDATE OF c SKIP LOCKED) target " +
+                   "  WHERE cs.id = target.id AND cs.start_at = target.start_at " +
+                   "  RETURNING cs.id, target.hold_expires_at) " +
+                   "SELECT id, hold_expires_at FROM released", nativeQuery = true)
+    List<Object[]> releaseExpiredHoldsByIds(@Param("slotIds") Collection<Long> slotIds, @Param("now") LocalDateTime now);
+    
+    /**
+     * Удерживает слот, если он OPEN или его удержание истекло, но ещё не снято планировщиком, — одним UPDATE.
+     * Строка блокируется в подзапросе, поэтому условие перепроверяется по последней версии строки, и из
+     * параллельных запросов удержание получает ровно один. Нативный запрос нужен ради RETURNING: прежний
+     * статус различает захват свободного слота и перехват истёкшего удержания для события изменения.
+     *
+     * @return прежний статус слота; пусто — слот занят или не найден
+     */
+    @Query(value = "WITH held AS (" +
+                   "  UPDATE calendar_slots cs SET status = 'HELD', hold_user_id = :userId, hold_expires_at = :expiresAt, version = cs.version + 1 " +
+                   "  FROM (SELECT c.id, c.start_at, c.status FROM calendar_slots c " +
+                   "        WHERE c.id = :slotId AND (c.status = 'OPEN' OR (c.status = 'HELD' AND c.hold_expires_at < :now)) " +
+                   "        FOR UPDATE OF c) target " +
+                   "  WHERE cs.id = target.id AND cs.start_at = target.start_at " +
+                   "  RETURNING target.status) " +
+                   "SELECT status FROM held", nativeQuery = true)
+    Optional<String> holdIfAvailable(@Param("slotId") Long slotId,
+                                     @Param("userId") Long userId,
+                                     @Param("expiresAt") LocalDateTime expiresAt,
+                                     @Param("now") LocalDateTime now);
+    
+    @Query("SELECT cs.id FROM CalendarSlot cs WHERE cs.seat.id = :seatId AND cs.startAt = :startAt")
+    Optional<Long> findIdBySeatIdAndStartAt(@Param("seatId") Long seatId, @Param("startAt") LocalDateTime startAt);
     
-    @Query("SELECT COUNT(cs) FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.endAt <= :endDate AND cs.status = 'OPEN'")
+    @Query("SELECT COUNT(cs) FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN'")
     long countAvailableSlotsByWorkspaceAndDateRange(@Param("workspaceId") Long workspaceId,
                                                    @Param("startDate") LocalDateTime startDate,
                                                    @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.coworking.id = :coworkingId AND cs.startAt >= :startDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' ORDER BY cs.seat.workspace.name, cs.seat.code, cs.startAt")
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.coworking.id = :coworkingId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' ORDER BY cs.seat.workspace.name, cs.seat.code, cs.startAt")
     List<CalendarSlot> findAvailableSlotsByCoworkingAndDateRange(@Param("coworkingId") Long coworkingId,
                                                                 @Param("startDate") LocalDateTime startDate,
                                                                 @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.status = 'BOOKED' AND cs.startAt >= :startDate AND cs.endAt <= :endDate ORDER BY cs.startAt")
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.status = 'BOOKED' AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate ORDER BY cs.startAt")
     List<CalendarSlot> findBookedSlotsInDateRange(@Param("startDate") LocalDateTime startDate,
                                                  @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.id = :seatId AND cs.status = 'BOOKED' AND cs.startAt >= :startDate ORDER BY cs.startAt")
     List<CalendarSlot> findBookedSlotsBySeatFromDate(@Param("seatId") Long seatId, @Param("startDate") LocalDateTime startDate);
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.endAt <= :endDate ORDER BY cs.seat.code, cs.startAt")
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate ORDER BY cs.seat.code, cs.startAt")
     List<CalendarSlot> findByWorkspaceAndDateRange(@Param("workspaceId") Long workspaceId,
                                                   @Param("startDate") LocalDateTime startDate,
                                                   @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.endAt <= :endDate AND cs.status = :status ORDER BY cs.seat.code, cs.startAt")
+    @Query("SELECT cs FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = :status ORDER BY cs.seat.code, cs.startAt")
     List<CalendarSlot> findByWorkspaceAndDateRangeAndStatus(@Param("workspaceId") Long workspaceId,
                                                            @Param("startDate") LocalDateTime startDate,
                                                            @Param("endDate") LocalDateTime endDate,
                                                            @Param("status") CalendarSlot.SlotStatus status);
     
-    boolean existsBySeatIdAndStartAtAndEndAt(Long seatId, LocalDateTime startAt, LocalDateTime endAt);
+    @Query("SELECT cs.id FROM CalendarSlot cs WHERE cs.endAt < :cutoff ORDER BY cs.id")
+    List<Long> findIdsEndingBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM CalendarSlot cs WHERE cs.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow(cs.id, s.id, s.code, s.workspace.id, cs.startAt, cs.endAt, cs.status) " +
+           "FROM CalendarSlot cs JOIN cs.seat s WHERE cs.startAt >= :startDate")
+    List<SlotIndexRow> findIndexRowsStartingFrom(@Param("startDate") LocalDateTime startDate);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow(cs.id, s.id, s.code, w.id, cs.startAt, cs.endAt, cs.status) " +
+           "FROM CalendarSlot cs JOIN cs.seat s JOIN s.workspace w " +
+           "WHERE w.coworking.id = :coworkingId AND w.active = true AND cs.startAt >= :startDate AND cs.startAt < :endDate AND cs.endAt <= :endDate AND cs.status = 'OPEN' " +
+           "ORDER BY w.id, s.id, cs.startAt")
+    List<SlotIndexRow> findOpenSlotRowsByCoworkingAndDateRange(@Param("coworkingId") Long coworkingId,
+                                                               @Param("startDate") LocalDateTime startDate,
+                                                               @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotStatusRow(cs.id, cs.status, cs.holdExpiresAt) " +
+           "FROM CalendarSlot cs WHERE cs.id IN :ids")
+    List<SlotStatusRow> findStatusRowsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotKey(s.id, cs.startAt, cs.endAt) " +
+           "FROM CalendarSlot cs JOIN cs.seat s WHERE s.workspace.id = :workspaceId AND cs.startAt >= :startDate AND cs.startAt < :endDate")
+    List<SlotKey> findSlotKeysByWorkspaceAndDateRange(@Param("workspaceId") Long workspaceId,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Замораживает OPEN и HELD слоты рабочего пространства с началом в {@code [startAt, endAt)} одним UPDATE;
+     * BOOKED и уже FROZEN не трогаются. При {@code allSeats = false} — только места из {@code seatIds}.
+     *
+     * @return пары (id слота, статус до изменения)
+     */
+    @Query(value = "WITH changed AS (" +
+                   "  UPDATE calendar_slots cs SET status = 'FROZEN', hold_user_id = NULL, hold_expires_at = NULL, version = cs.version + 1 " +
+                   "  FROM (SELECT c.id, c.start_at, c.status FROM calendar_slots c JOIN workspace_seats s ON s.id = c.seat_id " +
+                   "        WHERE s.workspace_id = :workspaceId AND (:allSeats OR c.seat_id IN (:seatIds)) " +
+                   "          AND c.start_at >= :startAt AND c.start_at < :endAt AND c.status IN ('OPEN', 'HELD') " +
+                   "        FOR UPDATE OF c) target " +
+                   "  WHERE cs.id = target.id AND cs.start_at = target.start_at " +
+                   "  RETURNING cs.id, target.status AS previous_status) " +
+                   "SELECT id, previous_status FROM changed", nativeQuery = true)
+    List<Object[]> freezeRange(@Param("workspaceId") Long workspaceId,
+                               @Param("allSeats") boolean allSeats,
+                               @Param("seatIds") Collection<Long> seatIds,
+                               @Param("startAt") LocalDateTime startAt,
+                               @Param("endAt") LocalDateTime endAt);
+    
+    /**
+     * Разреженный режим: сохраняет вычисляемые слоты строками FROZEN одним INSERT; списки задают строки
+     * по позициям. Ключ (место, начало), который уже занят строкой — например, параллельным удержанием
+     * того же вычисляемого слота, — пропускается, а не обрывает транзакцию на уникальном индексе.
+     *
+     * @return идентификаторы вставленных строк
+     */
+    @Query(value = "WITH inserted AS (" +
+                   "  INSERT INTO calendar_slots (seat_id, start_at, end_at, status, version) " +
+                   "  SELECT k.seat_id, k.start_at, k.end_at, 'FROZEN', 0 " +
+                   "  FROM unnest(CAST(ARRAY[:seatIds] AS BIGINT[]), CAST(ARRAY[:startAts] AS TIMESTAMP[]), " +
+                   "              CAST(ARRAY[:endAts] AS TIMESTAMP[])) AS k(seat_id, start_at, end_at) " +
+                   "  ON CONFLICT (seat_id, start_at) DO NOTHING " +
+                   "  RETURNING id) " +
+                   "SELECT id FROM inserted", nativeQuery = true)
+    List<Long> insertFrozenIfAbsent(@Param("seatIds") List<Long> seatIds,
+                                    @Param("startAts") List<LocalDateTime> startAts,
+                                    @Param("endAts") List<LocalDateTime> endAts);
+    
+    /**
+     * Размораживает FROZEN слоты рабочего пространства с началом в {@code [startAt, endAt)} одним UPDATE.
+     *
+     * @return пары (id слота, статус до изменения)
+     */
+    @Query(value = "WITH changed AS (" +
+                   "  UPDATE calendar_slots cs SET status = 'OPEN', version = cs.version + 1 " +
+                   "  FROM (SELECT c.id, c.start_at, c.status FROM calendar_slots c JOIN workspace_seats s ON s.id = c.seat_id " +
+                   "        WHERE s.workspace_id = :workspaceId AND (:allSeats OR c.seat_id IN (:seatIds)) " +
+                   "          AND c.start_at >= :startAt AND c.start_at < :endAt AND c.status = 'FROZEN' " +
+                   "        FOR UPDATE OF c) target " +
+                   "  WHERE cs.id = target.id AND cs.start_at = target.start_at " +
+                   "  RETURNING cs.id, target.status AS previous_status) " +
+                   "SELECT id, previous_status FROM changed", nativeQuery = true)
+    List<Object[]> unfreezeRange(@Param("workspaceId") Long workspaceId,
+                                 @Param("allSeats") boolean allSeats,
+                                 @Param("seatIds") Collection<Long> seatIds,
+                                 @Param("startAt") LocalDateTime startAt,
+                                 @Param("endAt") LocalDateTime endAt);
+    
+    @Query("SELECT COUNT(cs) FROM CalendarSlot cs WHERE cs.seat.workspace.id = :workspaceId " +
+           "AND (:allSeats = true OR cs.seat.id IN :seatIds) AND cs.startAt >= :startAt AND cs.startAt < :endAt")
+    long countByWorkspaceAndSeatsAndStartRange(@Param("workspaceId") Long workspaceId,
+                                               @Param("allSeats") boolean allSeats,
+                                               @Param("seatIds") Collection<Long> seatIds,
+                                               @Param("startAt") LocalDateTime startAt,
+                                               @Param("endAt") LocalDateTime endAt);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow(cs.id, s.id, s.code, s.workspace.id, cs.startAt, cs.endAt, cs.status) " +
+           "FROM CalendarSlot cs JOIN cs.seat s WHERE cs.id IN :ids")
+    List<SlotIndexRow> findIndexRowsByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Создаёт недостающие месячные секции с {@code fromMonth} по {@code toMonth} включительно.
+     */
+    @Query(value = "SELECT create_calendar_slot_partitions(:fromMonth, :toMonth)", nativeQuery = true)
+    int createMonthlyPartitions(@Param("fromMonth") LocalDate fromMonth, @Param("toMonth") LocalDate toMonth);
+    
+    /**
+     * Удаляет пустые месячные секции, закончившиеся не позже {@code beforeMonth}.
+     */
+    @Query(value = "SELECT drop_empty_calendar_slot_partitions(:beforeMonth)", nativeQuery = true)
+    int dropEmptyPartitionsBefore(@Param("beforeMonth") LocalDate beforeMonth);
 }
@@ -0,0 +1,22 @@
+package org.example.bookingtower.infrastructure.repository;
+
+import org.example.bookingtower.domain.entity.ScheduleException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий ScheduleExceptionRepository для доступа к праздникам и особым дням расписания.
+ */
+@Repository
+public interface ScheduleExceptionRepository extends JpaRepository<ScheduleException, Long> {
+    
+    List<ScheduleException> findByCoworkingIdOrderByExceptionDate(Long coworkingId);
+    
+    List<ScheduleException> findByCoworkingIdIsNullOrderByExceptionDate();
+    
+    Optional<ScheduleException> findByCoworkingIdAndExceptionDate(Long coworkingId, LocalDate exceptionDate);
+}
@@ -0,0 +1,18 @@
+package org.example.bookingtower.infrastructure.repository;
+
+import org.example.bookingtower.domain.entity.ScheduleTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий ScheduleTemplateRepository для доступа к правилам расписания коворкингов.
+ */
+@Repository
+public interface ScheduleTemplateRepository extends JpaRepository<ScheduleTemplate, Long> {
+    
+    List<ScheduleTemplate> findByCoworkingId(Long coworkingId);
+    
+    void deleteByCoworkingId(Long coworkingId);
+}
@@ -0,0 +1,12 @@
+package org.example.bookingtower.infrastructure.repository;
+
+import org.example.bookingtower.domain.entity.SlotGenerationWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий SlotGenerationWatermarkRepository для доступа к отметкам генерации слотов.
+ */
+@Repository
+public interface SlotGenerationWatermarkRepository extends JpaRepository<SlotGenerationWatermark, Long> {
+}
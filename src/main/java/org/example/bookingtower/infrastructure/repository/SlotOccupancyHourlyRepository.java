@@ -0,0 +1,58 @@
+package org.example.bookingtower.infrastructure.repository;
+
+import org.example.bookingtower.domain.entity.SlotOccupancyHourly;
+import org.example.bookingtower.infrastructure.repository.projection.WorkspaceOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий SlotOccupancyHourlyRepository для доступа к почасовому агрегату занятости.
+ */
+@Repository
+public interface SlotOccupancyHourlyRepository extends JpaRepository<SlotOccupancyHourly, SlotOccupancyHourly.Key> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO slot_occupancy_hourly (workspace_id, hour_bucket, open_count, held_count, booked_count, frozen_count) " +
+                   "VALUES (:workspaceId, :hourBucket, :openDelta, :heldDelta, :bookedDelta, :frozenDelta) " +
+                   "ON CONFLICT (workspace_id, hour_bucket) DO UPDATE SET " +
+                   "open_count = slot_occupancy_hourly.open_count + EXCLUDED.open_count, " +
+                   "held_count = slot_occupancy_hourly.held_count + EXCLUDED.held_count, " +
+                   "booked_count = slot_occupancy_hourly.booked_count + EXCLUDED.booked_count, " +
+                   "frozen_count = slot_occupancy_hourly.frozen_count + EXCLUDED.frozen_count",
+           nativeQuery = true)
+    int applyDelta(@Param("workspaceId") Long workspaceId,
+                   @Param("hourBucket") LocalDateTime hourBucket,
+                   @Param("openDelta") int openDelta,
+                   @Param("heldDelta") int heldDelta,
+                   @Param("bookedDelta") int bookedDelta,
+                   @Param("frozenDelta") int frozenDelta);
+    
+    @Query("SELECT o FROM SlotOccupancyHourly o WHERE o.workspaceId = :workspaceId AND o.hourBucket >= :startDate AND o.hourBucket < :endDate ORDER BY o.hourBucket")
+    List<SlotOccupancyHourly> findByWorkspaceAndRange(@Param("workspaceId") Long workspaceId,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.WorkspaceOccupancy(" +
+           "w.id, w.name, COALESCE(SUM(o.openCount), 0), COALESCE(SUM(o.heldCount), 0), COALESCE(SUM(o.bookedCount), 0), COALESCE(SUM(o.frozenCount), 0)) " +
+           "FROM Workspace w LEFT JOIN SlotOccupancyHourly o ON o.workspaceId = w.id AND o.hourBucket >= :startDate AND o.hourBucket < :endDate " +
+           "WHERE w.coworking.id = :coworkingId AND w.active = true " +
+           "GROUP BY w.id, w.name ORDER BY w.name")
+    List<WorkspaceOccupancy> sumByCoworking(@Param("coworkingId") Long coworkingId,
+                                            @Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.WorkspaceOccupancy(" +
+           "w.id, w.name, COALESCE(SUM(o.openCount), 0), COALESCE(SUM(o.heldCount), 0), COALESCE(SUM(o.bookedCount), 0), COALESCE(SUM(o.frozenCount), 0)) " +
+           "FROM Workspace w LEFT JOIN SlotOccupancyHourly o ON o.workspaceId = w.id AND o.hourBucket >= :startDate AND o.hourBucket < :endDate " +
+           "WHERE w.id = :workspaceId AND w.active = true " +
+           "GROUP BY w.id, w.name")
+    List<WorkspaceOccupancy> sumByWorkspace(@Param("workspaceId") Long workspaceId,
+                                            @Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+}
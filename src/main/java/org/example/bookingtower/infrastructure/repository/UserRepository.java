@@ -29,6 +29,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.passwordResetToken = :token AND u.passwordResetExpiresAt > :now")
     Optional<User> findByValidPasswordResetToken(@Param("token") String token, @Param("now") LocalDateTime now);
     
+    /**
+     * Блокирует строку пользователя до конца транзакции и возвращает её id. Сериализует операции одного
+     * пользователя (например, проверку лимита удержаний); {@code NO KEY UPDATE} не мешает вставкам
+     * строк, ссылающихся на пользователя.
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("userId") Long userId);
+    
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = 'ADMIN'")
     long countAdminUsers();
     
@@ -20,6 +20,8 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, Long> {
     
     List<Workspace> findByActiveTrue();
     
+    long countByActiveTrue();
+    
     Optional<Workspace> findByIdAndActiveTrue(Long id);
     
     @Query("SELECT w FROM Workspace w WHERE w.coworking.id = :coworkingId AND w.active = true ORDER BY w.name")
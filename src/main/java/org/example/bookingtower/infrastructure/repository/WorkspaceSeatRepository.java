@@ -1,6 +1,7 @@
 package org.example.bookingtower.infrastructure.repository;
 
 import org.example.bookingtower.domain.entity.WorkspaceSeat;
+import org.example.bookingtower.infrastructure.repository.projection.SeatScheduleRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -45,4 +46,10 @@ public interface WorkspaceSeatRepository extends JpaRepository<WorkspaceSeat, Lo
     
     @Query("SELECT ws FROM WorkspaceSeat ws WHERE ws.workspace.id = :workspaceId AND ws.code = :code AND ws.active = true")
     Optional<WorkspaceSeat> findByWorkspaceIdAndCodeAndActiveTrue(@Param("workspaceId") Long workspaceId, @Param("code") String code);
+
+    @Query("SELECT new org.example.bookingtower.infrastructure.repository.projection.SeatScheduleRow(" +
+           "ws.id, ws.code, w.id, c.id) " +
+           "FROM WorkspaceSeat ws JOIN ws.workspace w JOIN w.coworking c " +
+           "WHERE ws.active = true AND w.active = true AND c.active = true")
+    List<SeatScheduleRow> findActiveSeatSchedules();
 }
@@ -0,0 +1,11 @@
+package org.example.bookingtower.infrastructure.repository.projection;
+
+/**
+ * Активное место с рабочим пространством и коворкингом — основа для вычисления
+ * свободных слотов по расписанию без хранения OPEN-строк.
+ */
+public record SeatScheduleRow(Long seatId,
+                              String seatCode,
+                              Long workspaceId,
+                              Long coworkingId) {
+}
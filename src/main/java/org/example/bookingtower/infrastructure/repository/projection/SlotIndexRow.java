@@ -0,0 +1,17 @@
+package org.example.bookingtower.infrastructure.repository.projection;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Плоская проекция слота для построения in-memory индекса доступности.
+ */
+public record SlotIndexRow(Long slotId,
+                           Long seatId,
+                           String seatCode,
+                           Long workspaceId,
+                           LocalDateTime startAt,
+                           LocalDateTime endAt,
+                           CalendarSlot.SlotStatus status) {
+}
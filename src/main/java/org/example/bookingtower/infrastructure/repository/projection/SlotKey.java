@@ -0,0 +1,11 @@
+package org.example.bookingtower.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Естественный ключ слота: место и интервал времени.
+ */
+public record SlotKey(Long seatId,
+                      LocalDateTime startAt,
+                      LocalDateTime endAt) {
+}
@@ -0,0 +1,23 @@
+package org.example.bookingtower.infrastructure.repository.projection;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Статус слота для пакетной проверки доступности.
+ */
+public record SlotStatusRow(Long slotId,
+                            CalendarSlot.SlotStatus status,
+                            LocalDateTime holdExpiresAt) {
+
+    /**
+     * Статус с учётом истёкшего удержания: такой слот свободен, как и в {@link CalendarSlot#isAvailable()}.
+     */
+    public CalendarSlot.SlotStatus effectiveStatus(LocalDateTime now) {
+        if (status == CalendarSlot.SlotStatus.HELD && holdExpiresAt != null && now.isAfter(holdExpiresAt)) {
+            return CalendarSlot.SlotStatus.OPEN;
+        }
+        return status;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.bookingtower.infrastructure.repository.projection;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Компактное представление слота для REST API доступности.
+ * Заполняется конструкторным выражением JPQL без загрузки сущностей.
+ */
+public record SlotView(Long slotId,
+                       Long seatId,
+                       String seatCode,
+                       LocalDateTime startAt,
+                       LocalDateTime endAt,
+                       CalendarSlot.SlotStatus status) {
+}
@@ -0,0 +1,12 @@
+package org.example.bookingtower.infrastructure.repository.projection;
+
+/**
+ * Суммарная занятость рабочего пространства за интервал, посчитанная по почасовому агрегату.
+ */
+public record WorkspaceOccupancy(Long workspaceId,
+                                 String workspaceName,
+                                 Long openCount,
+                                 Long heldCount,
+                                 Long bookedCount,
+                                 Long frozenCount) {
+}
@@ -0,0 +1,27 @@
+package org.example.bookingtower.infrastructure.scheduling;
+
+import org.example.bookingtower.application.service.HoldExpiryService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz-задача страховочного снятия истёкших удержаний: подбирает то, что не сняло колесо таймеров
+ * {@link HoldExpiryService} (перезапуск узла, удержания, взятые на других узлах).
+ */
+@DisallowConcurrentExecution
+public class HoldExpirySweepJob extends QuartzJobBean {
+
+    private final HoldExpiryService holdExpiryService;
+
+    @Autowired
+    public HoldExpirySweepJob(HoldExpiryService holdExpiryService) {
+        this.holdExpiryService = holdExpiryService;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        holdExpiryService.sweep();
+    }
+}
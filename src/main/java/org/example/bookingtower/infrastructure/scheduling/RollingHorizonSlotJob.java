@@ -0,0 +1,48 @@
+package org.example.bookingtower.infrastructure.scheduling;
+
+import org.example.bookingtower.application.service.SlotGenerationEngine;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Quartz-задача скользящего горизонта: поддерживает слоты всех активных рабочих пространств
+ * сгенерированными на {@code app.slot-generation.horizon-days} дней вперёд.
+ *
+ * Планировщик работает в кластерном режиме с JDBC-хранилищем, поэтому задача выполняется
+ * на одном узле; {@link DisallowConcurrentExecution} исключает наложение запусков.
+ */
+@DisallowConcurrentExecution
+public class RollingHorizonSlotJob extends QuartzJobBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingHorizonSlotJob.class);
+
+    private final SlotGenerationEngine slotGenerationEngine;
+
+    @Value("${app.slot-generation.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${app.coworking.timezone:Europe/Moscow}")
+    private String timezone;
+
+    @Autowired
+    public RollingHorizonSlotJob(SlotGenerationEngine slotGenerationEngine) {
+        this.slotGenerationEngine = slotGenerationEngine;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        LocalDate today = LocalDate.now(ZoneId.of(timezone));
+        SlotGenerationEngine.GenerationReport report = slotGenerationEngine.extendHorizon(today, horizonDays);
+        if (report.failed() > 0) {
+            logger.warn("Rolling-horizon slot generation finished with {} failed workspaces", report.failed());
+        }
+    }
+}
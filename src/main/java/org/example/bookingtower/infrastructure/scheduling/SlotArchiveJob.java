@@ -0,0 +1,39 @@
+package org.example.bookingtower.infrastructure.scheduling;
+
+import org.example.bookingtower.application.service.SlotArchiveService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import java.time.LocalDateTime;
+
+/**
+ * Quartz-задача хранения: переносит прошедшие слоты старше {@code app.slot-archive.retain-days}
+ * в архивную таблицу порциями, каждая порция — отдельная транзакция.
+ */
+@DisallowConcurrentExecution
+public class SlotArchiveJob extends QuartzJobBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotArchiveJob.class);
+
+    private final SlotArchiveService slotArchiveService;
+
+    @Autowired
+    public SlotArchiveJob(SlotArchiveService slotArchiveService) {
+        this.slotArchiveService = slotArchiveService;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        LocalDateTime cutoff = slotArchiveService.archiveCutoff();
+        long archived = 0;
+        int moved;
+        while ((moved = slotArchiveService.archiveBatch(cutoff)) > 0) {
+            archived += moved;
+        }
+        logger.info("Archived {} slots ending before {}", archived, cutoff);
+    }
+}
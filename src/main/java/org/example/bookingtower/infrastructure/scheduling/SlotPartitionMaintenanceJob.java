@@ -0,0 +1,28 @@
+package org.example.bookingtower.infrastructure.scheduling;
+
+import org.example.bookingtower.application.service.SlotPartitionService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz-задача обслуживания секций {@code calendar_slots}: создаёт будущие месячные секции
+ * до того, как в них начнёт писать генератор слотов, и удаляет опустевшие после архивации.
+ */
+@DisallowConcurrentExecution
+public class SlotPartitionMaintenanceJob extends QuartzJobBean {
+
+    private final SlotPartitionService slotPartitionService;
+
+    @Autowired
+    public SlotPartitionMaintenanceJob(SlotPartitionService slotPartitionService) {
+        this.slotPartitionService = slotPartitionService;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        slotPartitionService.ensureFuturePartitions();
+        slotPartitionService.dropArchivedPartitions();
+    }
+}
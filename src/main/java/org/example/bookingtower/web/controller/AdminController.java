@@ -2,6 +2,8 @@ package org.example.bookingtower.web.controller;
 
 import org.example.bookingtower.application.service.AvailabilityService;
 import org.example.bookingtower.application.service.BookingService;
+import org.example.bookingtower.application.service.SlotArchiveService;
+import org.example.bookingtower.application.service.SlotGenerationJobService;
 import org.example.bookingtower.application.service.UserService;
 import org.example.bookingtower.application.service.WorkspaceService;
 import org.example.bookingtower.domain.entity.*;
@@ -45,6 +47,8 @@ public class AdminController {
     private final AvailabilityService availabilityService;
     private final BookingService bookingService;
     private final WorkspaceService workspaceService;
+    private final SlotGenerationJobService slotGenerationJobService;
+    private final SlotArchiveService slotArchiveService;
 
     /**
      * Constructor for AdminController.
@@ -59,6 +63,8 @@ public class AdminController {
      * @param availabilityService Service Обработка логики, связанной с доступностью.
      * @param bookingService Service Обработка логики, связанной с бронированием.
      * @param workspaceService Service Обработка логики, связанной с рабочими пространствами.
+     * @param slotGenerationJobService Service Фоновые задачи генерации слотов.
+     * @param slotArchiveService Service История слотов с учётом архива.
      */
     @Autowired
     public AdminController(UserRepository userRepository, 
@@ -69,7 +75,9 @@ public class AdminController {
                           CalendarSlotRepository calendarSlotRepository,
                           AvailabilityService availabilityService,
                           BookingService bookingService,
-                          WorkspaceService workspaceService) {
+                          WorkspaceService workspaceService,
+                          SlotGenerationJobService slotGenerationJobService,
+                          SlotArchiveService slotArchiveService) {
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.workspaceRepository = workspaceRepository;
@@ -79,6 +87,8 @@ public class AdminController {
         this.availabilityService = availabilityService;
         this.bookingService = bookingService;
         this.workspaceService = workspaceService;
+        this.slotGenerationJobService = slotGenerationJobService;
+        this.slotArchiveService = slotArchiveService;
     }
 
     @GetMapping("/dashboard")
@@ -204,8 +214,7 @@ public class AdminController {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime nextWeek = now.plusDays(7);
         long totalSlots = workspaces.stream()
-            .mapToLong(w -> calendarSlotRepository
-                .countAvailableSlotsByWorkspaceAndDateRange(w.getId(), now, nextWeek))
+            .mapToLong(w -> availabilityService.countAvailableSlots(w.getId(), now, nextWeek))
             .sum();
         
         model.addAttribute("workspaces", workspaces);
@@ -253,15 +262,17 @@ public class AdminController {
     public String generateSlots(@PathVariable Long workspaceId,
                                @RequestParam LocalDate startDate,
                                @RequestParam LocalDate endDate,
-                               @RequestParam(defaultValue = "09:00") String startTime,
-                               @RequestParam(defaultValue = "21:00") String endTime,
-                               @RequestParam(defaultValue = "60") Integer slotDuration,
+                               @RequestParam(required = false) String startTime,
+                               @RequestParam(required = false) String endTime,
+                               @RequestParam(defaultValue = "0") Integer slotDuration,
                                RedirectAttributes redirectAttributes) {
         try {
-            LocalTime start = LocalTime.parse(startTime);
-            LocalTime end = LocalTime.parse(endTime);
-            availabilityService.generateSlots(workspaceId, startDate, endDate, start, end, slotDuration);
-            redirectAttributes.addFlashAttribute("success", "Слоты успешно сгенерированы");
+            // Незаданные часы и длина слота берутся из шаблона расписания коворкинга
+            LocalTime start = startTime != null && !startTime.isBlank() ? LocalTime.parse(startTime) : null;
+            LocalTime end = endTime != null && !endTime.isBlank() ? LocalTime.parse(endTime) : null;
+            SlotGenerationJobService.JobStatus job = slotGenerationJobService.submitWorkspace(
+                    workspaceId, startDate, endDate, start, end, slotDuration);
+            redirectAttributes.addFlashAttribute("success", "Генерация слотов запущена в фоне (задача " + job.jobId() + ")");
             return "redirect:/admin/workspaces";
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Ошибка при генерации слотов: " + e.getMessage());
@@ -354,18 +365,16 @@ public class AdminController {
         LocalDateTime startOfDay = targetDate.atStartOfDay();
         LocalDateTime endOfDay = targetDate.atTime(23, 59, 59);
         
-        // Получите слоты для рабочей области и даты
-        List<CalendarSlot> slots;
+        // Получите слоты для рабочей области и даты (для давних дат — вместе с архивом)
+        CalendarSlot.SlotStatus slotStatus = null;
         if (status != null && !status.isEmpty()) {
             try {
-                CalendarSlot.SlotStatus slotStatus = CalendarSlot.SlotStatus.valueOf(status.toUpperCase());
-                slots = calendarSlotRepository.findByWorkspaceAndDateRangeAndStatus(workspaceId, startOfDay, endOfDay, slotStatus);
+                slotStatus = CalendarSlot.SlotStatus.valueOf(status.toUpperCase());
             } catch (IllegalArgumentException e) {
-                slots = calendarSlotRepository.findByWorkspaceAndDateRange(workspaceId, startOfDay, endOfDay);
+                slotStatus = null;
             }
-        } else {
-            slots = calendarSlotRepository.findByWorkspaceAndDateRange(workspaceId, startOfDay, endOfDay);
         }
+        List<CalendarSlot> slots = slotArchiveService.findWorkspaceSlots(workspaceId, startOfDay, endOfDay, slotStatus);
         
         model.addAttribute("workspace", workspace);
         model.addAttribute("slots", slots);
@@ -379,15 +388,10 @@ public class AdminController {
     @PostMapping("/slots/{slotId}/freeze")
     public ResponseEntity<String> freezeSlot(@PathVariable Long slotId) {
         try {
-            Optional<CalendarSlot> slotOpt = calendarSlotRepository.findById(slotId);
-            if (slotOpt.isEmpty()) {
+            if (availabilityService.freezeSlot(slotId).isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             
-            CalendarSlot slot = slotOpt.get();
-            slot.freeze();
-            calendarSlotRepository.save(slot);
-            
             return ResponseEntity.ok("success");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("error: " + e.getMessage());
@@ -397,15 +401,10 @@ public class AdminController {
     @PostMapping("/slots/{slotId}/unfreeze")
     public ResponseEntity<String> unfreezeSlot(@PathVariable Long slotId) {
         try {
-            Optional<CalendarSlot> slotOpt = calendarSlotRepository.findById(slotId);
-            if (slotOpt.isEmpty()) {
+            if (availabilityService.unfreezeSlot(slotId).isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             
-            CalendarSlot slot = slotOpt.get();
-            slot.unfreeze();
-            calendarSlotRepository.save(slot);
-            
             return ResponseEntity.ok("success");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("error: " + e.getMessage());
@@ -415,19 +414,10 @@ public class AdminController {
     @PostMapping("/slots/{slotId}/toggle-freeze")
     public ResponseEntity<String> toggleSlotFreeze(@PathVariable Long slotId) {
         try {
-            Optional<CalendarSlot> slotOpt = calendarSlotRepository.findById(slotId);
-            if (slotOpt.isEmpty()) {
+            if (availabilityService.toggleSlotFreeze(slotId).isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             
-            CalendarSlot slot = slotOpt.get();
-            if (slot.isFrozen()) {
-                slot.unfreeze();
-            } else {
-                slot.freeze();
-            }
-            calendarSlotRepository.save(slot);
-            
             return ResponseEntity.ok("success");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("error: " + e.getMessage());
@@ -453,23 +443,15 @@ public class AdminController {
                 return "redirect:/admin/workspaces";
             }
 
-            CalendarSlot slot = slotOpt.get();
             WorkspaceSeat seat = seatOpt.get();
             
-            // Check for conflicts with the new time slot
-            List<CalendarSlot> conflicts = calendarSlotRepository.findConflictingSlots(seatId, startAt, endAt);
-            conflicts.removeIf(conflictSlot -> conflictSlot.getId().equals(slotId)); // Exclude current slot
-            
-            if (!conflicts.isEmpty()) {
+            try {
+                availabilityService.moveSlot(slotId, seatId, startAt, endAt);
+            } catch (IllegalStateException e) {
                 redirectAttributes.addFlashAttribute("error", "Конфликт с существующим слотом");
                 return "redirect:/admin/workspaces/" + seat.getWorkspace().getId() + "/slots";
             }
 
-            slot.setStartAt(startAt);
-            slot.setEndAt(endAt);
-            slot.setSeat(seat);
-            calendarSlotRepository.save(slot);
-
             redirectAttributes.addFlashAttribute("success", "Слот успешно обновлен");
             return "redirect:/admin/workspaces/" + seat.getWorkspace().getId() + "/slots";
         } catch (Exception e) {
@@ -487,15 +469,17 @@ public class AdminController {
                 return "redirect:/admin/workspaces";
             }
 
-            CalendarSlot slot = slotOpt.get();
-            Long workspaceId = slot.getSeat().getWorkspace().getId();
-            
-            if (slot.isBooked()) {
-                redirectAttributes.addFlashAttribute("error", "Нельзя удалить забронированный слот");
+            Long workspaceId = slotOpt.get().getSeat().getWorkspace().getId();
+
+            try {
+                if (availabilityService.deleteSlot(slotId).isEmpty()) {
+                    redirectAttributes.addFlashAttribute("error", "Слот не найден");
+                    return "redirect:/admin/workspaces/" + workspaceId + "/slots";
+                }
+            } catch (IllegalStateException e) {
+                redirectAttributes.addFlashAttribute("error", "Нельзя удалить слот, на который есть бронирования");
                 return "redirect:/admin/workspaces/" + workspaceId + "/slots";
             }
-
-            calendarSlotRepository.delete(slot);
             redirectAttributes.addFlashAttribute("success", "Слот успешно удален");
             return "redirect:/admin/workspaces/" + workspaceId + "/slots";
         } catch (Exception e) {
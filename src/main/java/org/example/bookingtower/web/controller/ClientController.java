@@ -69,7 +69,7 @@ public class ClientController {
 
         // Получаем предстоящие бронирования пользователя
         List<Booking> upcomingBookings = bookingService.getUserBookings(user.getId()).stream()
-                .filter(booking -> booking.getSlot().getStartAt().isAfter(java.time.LocalDateTime.now()))
+                .filter(booking -> !booking.isArchived() && booking.getSlot().getStartAt().isAfter(java.time.LocalDateTime.now()))
                 .filter(booking -> booking.getStatus() == Booking.BookingStatus.CONFIRMED ||
                         booking.getStatus() == Booking.BookingStatus.PENDING)
                 .limit(5)
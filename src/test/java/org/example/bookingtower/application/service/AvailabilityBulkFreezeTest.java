@@ -0,0 +1,174 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.entity.Workspace;
+import org.example.bookingtower.domain.entity.WorkspaceSeat;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AvailabilityBulkFreezeTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 3, 0, 0);
+    private static final LocalDateTime END = START.plusDays(7);
+
+    private CalendarSlotRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private WorkspaceRepository workspaceRepository;
+    private WorkspaceSeatRepository workspaceSeatRepository;
+    private AvailabilityIndex availabilityIndex;
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(CalendarSlotRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        workspaceRepository = mock(WorkspaceRepository.class);
+        when(workspaceRepository.findById(1L)).thenReturn(Optional.of(new Workspace()));
+        workspaceSeatRepository = mock(WorkspaceSeatRepository.class);
+        availabilityIndex = mock(AvailabilityIndex.class);
+        availabilityService = createService(Optional.empty());
+    }
+
+    private AvailabilityService createService(Optional<RedisHoldStore> redisHoldStore) {
+        return new AvailabilityService(repository, mock(BookingRepository.class), workspaceRepository,
+                workspaceSeatRepository, mock(CoworkingRepository.class), mock(SlotOccupancyHourlyRepository.class),
+                availabilityIndex, mock(ScheduleTemplateService.class), eventPublisher,
+                mock(OptimisticLockRetry.class), redisHoldStore);
+    }
+
+    @Test
+    public void testFreezesRangeWithOneUpdateAndPublishesChanges() {
+        System.out.println("[DEBUG_LOG] Testing bulk freeze");
+
+        when(repository.freezeRange(eq(1L), eq(true), anyCollection(), eq(START), eq(END))).thenReturn(List.of(
+                new Object[] {10L, "OPEN"},
+                new Object[] {11L, "HELD"}));
+        when(repository.countByWorkspaceAndSeatsAndStartRange(eq(1L), eq(true), anyCollection(), eq(START), eq(END)))
+                .thenReturn(5L);
+        when(repository.findIndexRowsByIds(anyCollection())).thenReturn(List.of(
+                new SlotIndexRow(10L, 100L, "A-1", 1L, START.plusHours(9), START.plusHours(10), CalendarSlot.SlotStatus.FROZEN),
+                new SlotIndexRow(11L, 100L, "A-1", 1L, START.plusHours(10), START.plusHours(11), CalendarSlot.SlotStatus.FROZEN)));
+
+        AvailabilityService.BulkFreezeResult result = availabilityService.freezeSlots(1L, null, START, END);
+
+        assertEquals(2, result.affected());
+        assertEquals(3, result.skipped());
+        assertEquals(0, result.materialized());
+        assertEquals(0, result.conflicts());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getChanges().size());
+        assertEquals(CalendarSlot.SlotStatus.HELD, event.getValue().getChanges().get(1).previousStatus());
+        assertEquals(CalendarSlot.SlotStatus.FROZEN, event.getValue().getChanges().get(1).currentStatus());
+
+        System.out.println("[DEBUG_LOG] Bulk freeze test completed successfully");
+    }
+
+    @Test
+    public void testFreezeEvictsRedisHolds() {
+        System.out.println("[DEBUG_LOG] Testing bulk freeze over Redis holds");
+
+        RedisHoldStore redisHoldStore = mock(RedisHoldStore.class);
+        availabilityService = createService(Optional.of(redisHoldStore));
+        when(repository.freezeRange(eq(1L), eq(true), anyCollection(), eq(START), eq(END))).thenReturn(List.of(
+                new Object[] {10L, "OPEN"},
+                new Object[] {11L, "OPEN"}));
+        when(repository.findIndexRowsByIds(anyCollection())).thenReturn(List.of(
+                new SlotIndexRow(10L, 100L, "A-1", 1L, START.plusHours(9), START.plusHours(10), CalendarSlot.SlotStatus.FROZEN),
+                new SlotIndexRow(11L, 100L, "A-1", 1L, START.plusHours(10), START.plusHours(11), CalendarSlot.SlotStatus.FROZEN)));
+        // Слот 11 удержан в Redis: в базе он OPEN, но другие узлы видели его HELD
+        when(redisHoldStore.evict(Set.of(10L, 11L))).thenReturn(Set.of(11L));
+
+        availabilityService.freezeSlots(1L, null, START, END);
+
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(CalendarSlot.SlotStatus.OPEN, event.getValue().getChanges().get(0).previousStatus());
+        assertEquals(CalendarSlot.SlotStatus.HELD, event.getValue().getChanges().get(1).previousStatus());
+
+        System.out.println("[DEBUG_LOG] Bulk freeze over Redis holds test completed successfully");
+    }
+
+    @Test
+    public void testSparseFreezeFreezesRowsInsertedConcurrently() {
+        System.out.println("[DEBUG_LOG] Testing sparse bulk freeze against a concurrent derived hold");
+
+        Workspace workspace = new Workspace();
+        workspace.setId(1L);
+        WorkspaceSeat seat = new WorkspaceSeat(workspace, "A-1");
+        seat.setId(100L);
+        when(workspaceSeatRepository.findByWorkspaceIdAndActiveTrue(1L)).thenReturn(List.of(seat));
+        LocalDateTime nine = START.plusHours(9);
+        LocalDateTime ten = START.plusHours(10);
+        when(availabilityIndex.isSparse()).thenReturn(true);
+        when(availabilityIndex.findOpen(eq(1L), eq(START), any())).thenReturn(List.of(
+                derived(nine), derived(ten)));
+        // Сохранённых слотов в интервале нет, пока не вставлено удержание вычисляемого слота на 10:00
+        when(repository.freezeRange(eq(1L), eq(true), anyCollection(), eq(START), eq(END))).thenReturn(
+                List.of(), List.<Object[]>of(new Object[] {21L, "HELD"}));
+        when(repository.insertFrozenIfAbsent(List.of(100L, 100L), List.of(nine, ten), List.of(nine.plusHours(1), ten.plusHours(1))))
+                .thenReturn(List.of(20L));
+        when(repository.findIndexRowsByIds(List.of(20L))).thenReturn(List.of(
+                new SlotIndexRow(20L, 100L, "A-1", 1L, nine, nine.plusHours(1), CalendarSlot.SlotStatus.FROZEN)));
+        when(repository.findIndexRowsByIds(Set.of(21L))).thenReturn(List.of(
+                new SlotIndexRow(21L, 100L, "A-1", 1L, ten, ten.plusHours(1), CalendarSlot.SlotStatus.FROZEN)));
+        when(repository.countByWorkspaceAndSeatsAndStartRange(eq(1L), eq(true), anyCollection(), eq(START), eq(END)))
+                .thenReturn(2L);
+
+        AvailabilityService.BulkFreezeResult result = availabilityService.freezeSlots(1L, null, START, END);
+
+        assertEquals(2, result.affected());
+        assertEquals(0, result.skipped());
+        assertEquals(1, result.materialized());
+        assertEquals(1, result.conflicts());
+        verify(repository, never()).saveAll(any());
+
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        List<SlotStatusChangedEvent.SlotChange> changes = event.getValue().getChanges();
+        assertEquals(2, changes.size());
+        assertEquals(21L, changes.get(0).slotId());
+        assertEquals(CalendarSlot.SlotStatus.HELD, changes.get(0).previousStatus());
+        assertEquals(20L, changes.get(1).slotId());
+        assertNull(changes.get(1).previousStatus());
+
+        System.out.println("[DEBUG_LOG] Sparse bulk freeze conflict test completed successfully");
+    }
+
+    @Test
+    public void testUnfreezeBySeatsWithoutChangesPublishesNothing() {
+        when(repository.unfreezeRange(eq(1L), eq(false), eq(Set.of(100L)), eq(START), eq(END))).thenReturn(List.of());
+
+        AvailabilityService.BulkFreezeResult result = availabilityService.unfreezeSlots(1L, List.of(100L), START, END);
+
+        assertEquals(0, result.affected());
+        verifyNoInteractions(eventPublisher);
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.freezeSlots(1L, null, END, START));
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.freezeSlots(2L, null, START, END));
+    }
+
+    private static AvailabilityIndex.IndexedSlot derived(LocalDateTime startAt) {
+        return new AvailabilityIndex.IndexedSlot(VirtualSlotIds.encode(100L, startAt), 1L, 100L, "A-1",
+                startAt, startAt.plusHours(1), CalendarSlot.SlotStatus.OPEN);
+    }
+}
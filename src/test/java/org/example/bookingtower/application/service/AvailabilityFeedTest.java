@@ -0,0 +1,96 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityFeedTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    // Рассылка в вызывающем потоке, чтобы проверять доставку без ожиданий
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    public void testSubscribersAreTrackedPerWorkspaceAndDate() {
+        System.out.println("[DEBUG_LOG] Testing availability feed subscriptions");
+
+        AvailabilityFeed feed = new AvailabilityFeed(DIRECT, 100);
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter nextDay = new RecordingEmitter();
+        RecordingEmitter otherWorkspace = new RecordingEmitter();
+        feed.subscribe(1L, DAY, first);
+        feed.subscribe(1L, DAY.plusDays(1), nextDay);
+        feed.subscribe(3L, DAY, otherWorkspace);
+        assertEquals(3, feed.getSubscriberCount());
+
+        SlotStatusChangedEvent.SlotChange held = change(5L, 1L);
+        feed.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(held, change(6L, 2L))));
+
+        // Изменение доходит только до подписчика своего рабочего пространства и даты
+        assertEquals(List.of(List.of(held)), first.sent);
+        assertTrue(nextDay.sent.isEmpty());
+        assertTrue(otherWorkspace.sent.isEmpty());
+        assertEquals(3, feed.getSubscriberCount());
+
+        System.out.println("[DEBUG_LOG] Availability feed subscription test completed successfully");
+    }
+
+    @Test
+    public void testFailedAndSlowSubscribersAreDropped() {
+        System.out.println("[DEBUG_LOG] Testing availability feed subscriber eviction");
+
+        List<Runnable> queued = new ArrayList<>();
+        AvailabilityFeed feed = new AvailabilityFeed(queued::add, 2);
+        RecordingEmitter broken = new RecordingEmitter();
+        RecordingEmitter slow = new RecordingEmitter();
+        feed.subscribe(1L, DAY, broken);
+        feed.subscribe(1L, DAY, slow);
+        broken.failing = true;
+
+        // Пока пул не разобрал очереди, слушатель не пишет в сокеты
+        feed.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(change(5L, 1L))));
+        assertTrue(slow.sent.isEmpty());
+        assertEquals(2, queued.size());
+
+        queued.remove(0).run();
+        assertEquals(1, feed.getSubscriberCount(), "Subscriber with a failed write must be dropped");
+
+        // У медленного подписчика очередь переполняется, и он отключается
+        feed.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(change(6L, 1L))));
+        feed.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(change(7L, 1L))));
+        assertEquals(0, feed.getSubscriberCount());
+
+        System.out.println("[DEBUG_LOG] Availability feed eviction test completed successfully");
+    }
+
+    private static SlotStatusChangedEvent.SlotChange change(Long slotId, Long workspaceId) {
+        return new SlotStatusChangedEvent.SlotChange(slotId, 10L, "OS-01", workspaceId, DAY.atTime(9, 0),
+                DAY.atTime(10, 0), CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            builder.build().stream()
+                    .map(part -> part.getData())
+                    .filter(List.class::isInstance)
+                    .forEach(sent::add);
+        }
+    }
+}
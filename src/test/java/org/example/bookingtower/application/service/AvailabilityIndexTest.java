@@ -0,0 +1,121 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AvailabilityIndexTest {
+
+    private static final Long WORKSPACE_ID = 1L;
+
+    private CalendarSlotRepository repository;
+    private AvailabilityIndex availabilityIndex;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    public void setUp() {
+        tomorrow = LocalDate.now().plusDays(1);
+
+        repository = mock(CalendarSlotRepository.class);
+        when(repository.findIndexRowsStartingFrom(any())).thenReturn(List.of(
+                row(1L, 10L, "OS-02", 9, CalendarSlot.SlotStatus.OPEN),
+                row(2L, 10L, "OS-02", 10, CalendarSlot.SlotStatus.BOOKED),
+                row(3L, 11L, "OS-01", 9, CalendarSlot.SlotStatus.OPEN),
+                row(4L, 11L, "OS-01", 10, CalendarSlot.SlotStatus.OPEN)
+        ));
+
+        availabilityIndex = new AvailabilityIndex(repository);
+        availabilityIndex.rebuild();
+    }
+
+    @Test
+    public void testCountsAndOrdersOpenSlots() {
+        System.out.println("[DEBUG_LOG] Testing availability index reads");
+
+        assertTrue(availabilityIndex.covers(tomorrow));
+        assertFalse(availabilityIndex.covers(LocalDate.now().minusDays(1)));
+
+        LocalDateTime from = tomorrow.atTime(9, 0);
+        LocalDateTime to = tomorrow.atTime(21, 0);
+        assertEquals(3, availabilityIndex.countOpen(WORKSPACE_ID, from, to));
+        assertEquals(2, availabilityIndex.countOpen(WORKSPACE_ID, from, tomorrow.atTime(10, 30)));
+
+        List<AvailabilityIndex.IndexedSlot> open = availabilityIndex.findOpen(WORKSPACE_ID, from, to);
+        assertEquals(List.of(3L, 4L, 1L), open.stream().map(AvailabilityIndex.IndexedSlot::slotId).toList());
+        assertEquals(0, availabilityIndex.countOpen(2L, from, to));
+    }
+
+    @Test
+    public void testAppliesStatusChanges() {
+        System.out.println("[DEBUG_LOG] Testing availability index updates");
+
+        LocalDateTime from = tomorrow.atStartOfDay();
+        LocalDateTime to = tomorrow.atTime(23, 59, 59);
+
+        availabilityIndex.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                change(1L, 10L, "OS-02", 9, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD))));
+        assertEquals(2, availabilityIndex.countOpen(WORKSPACE_ID, from, to));
+
+        availabilityIndex.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                change(2L, 10L, "OS-02", 10, CalendarSlot.SlotStatus.BOOKED, CalendarSlot.SlotStatus.OPEN),
+                change(5L, 10L, "OS-02", 11, null, CalendarSlot.SlotStatus.OPEN),
+                change(4L, 11L, "OS-01", 10, CalendarSlot.SlotStatus.OPEN, null))));
+        assertEquals(List.of(3L, 2L, 5L), availabilityIndex.findOpen(WORKSPACE_ID, from, to).stream()
+                .map(AvailabilityIndex.IndexedSlot::slotId)
+                .toList());
+
+        System.out.println("[DEBUG_LOG] Availability index update test completed successfully");
+    }
+
+    @Test
+    public void testPeriodicRebuildDropsRemovedSlots() {
+        System.out.println("[DEBUG_LOG] Testing availability index periodic rebuild");
+
+        LocalDateTime from = tomorrow.atStartOfDay();
+        LocalDateTime to = tomorrow.atTime(23, 59, 59);
+        long now = System.currentTimeMillis();
+
+        // Слот 1 удалён в базе (например, другим узлом), но событие до этого узла не дошло
+        when(repository.findIndexRowsStartingFrom(any())).thenReturn(List.of(
+                row(3L, 11L, "OS-01", 9, CalendarSlot.SlotStatus.OPEN),
+                row(4L, 11L, "OS-01", 10, CalendarSlot.SlotStatus.OPEN)));
+
+        assertFalse(availabilityIndex.refreshIfStale(LocalDate.now(), now));
+        assertEquals(3, availabilityIndex.countOpen(WORKSPACE_ID, from, to));
+
+        assertTrue(availabilityIndex.refreshIfStale(LocalDate.now(), now + TimeUnit.MINUTES.toMillis(6)));
+        assertEquals(2, availabilityIndex.countOpen(WORKSPACE_ID, from, to));
+
+        // Смена дня перестраивает индекс независимо от его возраста
+        assertTrue(availabilityIndex.refreshIfStale(LocalDate.now().plusDays(1), System.currentTimeMillis()));
+        verify(repository, times(3)).findIndexRowsStartingFrom(any());
+
+        System.out.println("[DEBUG_LOG] Availability index periodic rebuild test completed successfully");
+    }
+
+    private SlotIndexRow row(Long slotId, Long seatId, String seatCode, int hour, CalendarSlot.SlotStatus status) {
+        return new SlotIndexRow(slotId, seatId, seatCode, WORKSPACE_ID,
+                tomorrow.atTime(hour, 0), tomorrow.atTime(hour + 1, 0), status);
+    }
+
+    private SlotStatusChangedEvent.SlotChange change(Long slotId, Long seatId, String seatCode, int hour,
+                                                     CalendarSlot.SlotStatus previous, CalendarSlot.SlotStatus current) {
+        return new SlotStatusChangedEvent.SlotChange(slotId, seatId, seatCode, WORKSPACE_ID,
+                tomorrow.atTime(hour, 0), tomorrow.atTime(hour + 1, 0), previous, current);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.entity.Workspace;
+import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.repository.projection.SlotView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AvailabilityKeysetPageTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private CalendarSlotRepository repository;
+    private AvailabilityIndex availabilityIndex;
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(CalendarSlotRepository.class);
+        availabilityIndex = mock(AvailabilityIndex.class);
+        WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+        when(workspaceRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(new Workspace()));
+        ScheduleTemplateService scheduleTemplateService = mock(ScheduleTemplateService.class);
+        when(scheduleTemplateService.openingHours(any(), eq(DAY)))
+                .thenReturn(new ScheduleTemplateService.DayHours(LocalTime.of(8, 0), LocalTime.of(20, 0), 60));
+        availabilityService = new AvailabilityService(repository, mock(BookingRepository.class), workspaceRepository,
+                mock(WorkspaceSeatRepository.class), mock(CoworkingRepository.class), mock(SlotOccupancyHourlyRepository.class),
+                availabilityIndex, scheduleTemplateService, mock(ApplicationEventPublisher.class),
+                mock(OptimisticLockRetry.class), Optional.empty());
+    }
+
+    @Test
+    public void testPagesThroughSeatsSharingCode() {
+        System.out.println("[DEBUG_LOG] Testing keyset pages over seats with the same code");
+
+        // Место 4 выведено из работы и заменено местом 9 с тем же кодом
+        List<AvailabilityIndex.IndexedSlot> open = List.of(
+                slot(-1L, 4L, 9), slot(-2L, 4L, 10), slot(-3L, 9L, 9), slot(-4L, 9L, 10));
+        when(availabilityIndex.isSparse()).thenReturn(true);
+        when(availabilityIndex.covers(DAY)).thenReturn(true);
+        when(availabilityIndex.findOpen(eq(1L), any(), any())).thenReturn(open);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            AvailabilityService.SlotPage page = availabilityService.getAvailableSlotsPage(
+                    1L, DAY, LocalTime.of(8, 0), LocalTime.of(20, 0), cursor, 1);
+            page.content().forEach(slot -> seen.add(slot.slotId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(-1L, -2L, -3L, -4L), seen);
+
+        System.out.println("[DEBUG_LOG] Keyset page test completed successfully");
+    }
+
+    @Test
+    public void testCursorCarriesSeatIdToQuery() {
+        LocalDateTime nine = DAY.atTime(9, 0);
+        when(repository.findAvailableSlotsPageByWorkspace(eq(1L), any(), any(), any())).thenReturn(List.of(
+                new SlotView(1L, 4L, "A-04", nine, nine.plusHours(1), CalendarSlot.SlotStatus.OPEN),
+                new SlotView(2L, 9L, "A-04", nine, nine.plusHours(1), CalendarSlot.SlotStatus.OPEN)));
+
+        String cursor = availabilityService.getAvailableSlotsPage(1L, DAY, LocalTime.of(8, 0), LocalTime.of(20, 0), null, 1)
+                .nextCursor();
+        availabilityService.getAvailableSlotsPage(1L, DAY, LocalTime.of(8, 0), LocalTime.of(20, 0), cursor, 1);
+
+        verify(repository).findAvailableSlotsPageByWorkspaceAfter(eq(1L), any(), any(), eq("A-04"), eq(4L), eq(nine), any());
+        assertThrows(IllegalArgumentException.class, () -> availabilityService.getAvailableSlotsPage(
+                1L, DAY, LocalTime.of(8, 0), LocalTime.of(20, 0), "bm90LWEtY3Vyc29y", 1));
+    }
+
+    private static AvailabilityIndex.IndexedSlot slot(Long slotId, Long seatId, int hour) {
+        return new AvailabilityIndex.IndexedSlot(slotId, 1L, seatId, "A-04",
+                DAY.atTime(hour, 0), DAY.atTime(hour + 1, 0), CalendarSlot.SlotStatus.OPEN);
+    }
+}
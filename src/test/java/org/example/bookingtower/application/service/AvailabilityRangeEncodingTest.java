@@ -0,0 +1,73 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.repository.projection.SlotView;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AvailabilityRangeEncodingTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @Test
+    public void testMergesContiguousSlotsPerSeatAndDay() {
+        System.out.println("[DEBUG_LOG] Testing run-length encoding of free intervals");
+
+        List<SlotView> openSlots = List.of(
+                slot(1L, 1L, "A-01", DAY, 9),
+                slot(2L, 1L, "A-01", DAY, 10),
+                slot(3L, 1L, "A-01", DAY, 11),
+                slot(4L, 1L, "A-01", DAY, 14),
+                slot(5L, 1L, "A-01", DAY.plusDays(1), 9),
+                slot(6L, 2L, "A-02", DAY, 20),
+                slot(7L, 2L, "A-02", DAY, 23)
+        );
+
+        List<AvailabilityService.SeatFreeIntervals> seats = AvailabilityService.encodeFreeIntervals(openSlots);
+
+        assertEquals(2, seats.size());
+        assertEquals("A-01", seats.get(0).seatCode());
+        assertEquals(List.of("09:00-12:00", "14:00-15:00"), seats.get(0).days().get(DAY));
+        assertEquals(List.of("09:00-10:00"), seats.get(0).days().get(DAY.plusDays(1)));
+        assertEquals(List.of("20:00-21:00", "23:00-24:00"), seats.get(1).days().get(DAY));
+
+        System.out.println("[DEBUG_LOG] Free interval encoding test completed successfully");
+    }
+
+    @Test
+    public void testEmptyInput() {
+        assertTrue(AvailabilityService.encodeFreeIntervals(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testRangeLimitCountsBothEnds() {
+        WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+        AvailabilityService service = new AvailabilityService(mock(CalendarSlotRepository.class), mock(BookingRepository.class),
+                workspaceRepository, mock(WorkspaceSeatRepository.class), mock(CoworkingRepository.class), mock(SlotOccupancyHourlyRepository.class),
+                mock(AvailabilityIndex.class), mock(ScheduleTemplateService.class), mock(ApplicationEventPublisher.class),
+                mock(OptimisticLockRetry.class), Optional.empty());
+
+        // 32 дня включительно отклоняются до обращения к базе
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getAvailabilityRange(1L, DAY, DAY.plusDays(AvailabilityService.MAX_RANGE_DAYS)));
+        verifyNoInteractions(workspaceRepository);
+
+        // 31 день допустим и доходит до проверки рабочего пространства
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getAvailabilityRange(1L, DAY, DAY.plusDays(AvailabilityService.MAX_RANGE_DAYS - 1)));
+        verify(workspaceRepository).findByIdAndActiveTrue(1L);
+    }
+
+    private SlotView slot(Long slotId, Long seatId, String seatCode, LocalDate date, int hour) {
+        return new SlotView(slotId, seatId, seatCode, date.atTime(hour, 0),
+                date.atTime(hour, 0).plusHours(1), CalendarSlot.SlotStatus.OPEN);
+    }
+}
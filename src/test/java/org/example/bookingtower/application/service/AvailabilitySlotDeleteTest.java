@@ -0,0 +1,98 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.entity.Workspace;
+import org.example.bookingtower.domain.entity.WorkspaceSeat;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AvailabilitySlotDeleteTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 4, 9, 0);
+
+    private CalendarSlotRepository repository;
+    private BookingRepository bookingRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private RedisHoldStore redisHoldStore;
+    private AvailabilityService availabilityService;
+    private CalendarSlot slot;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(CalendarSlotRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        redisHoldStore = mock(RedisHoldStore.class);
+        availabilityService = new AvailabilityService(repository, bookingRepository, mock(WorkspaceRepository.class),
+                mock(WorkspaceSeatRepository.class), mock(CoworkingRepository.class), mock(SlotOccupancyHourlyRepository.class),
+                mock(AvailabilityIndex.class), mock(ScheduleTemplateService.class), eventPublisher,
+                mock(OptimisticLockRetry.class), Optional.of(redisHoldStore));
+
+        Workspace workspace = new Workspace();
+        workspace.setId(1L);
+        WorkspaceSeat seat = new WorkspaceSeat(workspace, "A-1");
+        seat.setId(100L);
+        slot = new CalendarSlot(seat, START, START.plusHours(1));
+        slot.setId(10L);
+    }
+
+    @Test
+    public void testDeletesUnderLockAndPublishesRemoval() {
+        System.out.println("[DEBUG_LOG] Testing slot delete under a row lock");
+
+        when(repository.findByIdForUpdate(10L)).thenReturn(Optional.of(slot));
+        when(redisHoldStore.evict(List.of(10L))).thenReturn(Set.of(10L));
+
+        assertTrue(availabilityService.deleteSlot(10L).isPresent());
+
+        // Бронирования проверяются после блокировки строки, а не до неё
+        InOrder order = inOrder(repository, bookingRepository);
+        order.verify(repository).findByIdForUpdate(10L);
+        order.verify(bookingRepository).existsBySlotId(10L);
+        order.verify(repository).delete(slot);
+        verify(repository, never()).findById(any());
+
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        SlotStatusChangedEvent.SlotChange change = event.getValue().getChanges().get(0);
+        assertEquals(CalendarSlot.SlotStatus.HELD, change.previousStatus());
+        assertNull(change.currentStatus());
+
+        System.out.println("[DEBUG_LOG] Slot delete test completed successfully");
+    }
+
+    @Test
+    public void testKeepsSlotWithBookings() {
+        when(repository.findByIdForUpdate(10L)).thenReturn(Optional.of(slot));
+        when(bookingRepository.existsBySlotId(10L)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> availabilityService.deleteSlot(10L));
+
+        verify(repository, never()).delete(any());
+        verify(redisHoldStore, never()).evict(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testReturnsEmptyForUnknownSlot() {
+        when(repository.findByIdForUpdate(10L)).thenReturn(Optional.empty());
+
+        assertTrue(availabilityService.deleteSlot(10L).isEmpty());
+        verify(repository, never()).delete(any());
+    }
+}
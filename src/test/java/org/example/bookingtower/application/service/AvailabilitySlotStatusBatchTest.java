@@ -0,0 +1,88 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.repository.projection.SlotStatusRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class AvailabilitySlotStatusBatchTest {
+
+    @Test
+    public void testReportsStatusesAndUnknownIds() {
+        System.out.println("[DEBUG_LOG] Testing batch slot status check");
+
+        CalendarSlotRepository repository = mock(CalendarSlotRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+        when(repository.findStatusRowsByIds(anyCollection())).thenReturn(List.of(
+                new SlotStatusRow(1L, CalendarSlot.SlotStatus.OPEN, null),
+                new SlotStatusRow(2L, CalendarSlot.SlotStatus.HELD, now.plusMinutes(5)),
+                new SlotStatusRow(3L, CalendarSlot.SlotStatus.HELD, now.minusMinutes(5))));
+
+        AvailabilityService.SlotStatusBatch batch = service(repository).getSlotStatuses(List.of(1L, 2L, 3L, 4L, 1L));
+
+        assertEquals(Map.of(1L, CalendarSlot.SlotStatus.OPEN,
+                2L, CalendarSlot.SlotStatus.HELD,
+                3L, CalendarSlot.SlotStatus.OPEN), batch.statuses());
+        assertEquals(List.of(4L), batch.unknownIds());
+        verify(repository, times(1)).findStatusRowsByIds(anyCollection());
+
+        System.out.println("[DEBUG_LOG] Batch slot status test completed successfully");
+    }
+
+    @Test
+    public void testOverlaysRedisHolds() {
+        System.out.println("[DEBUG_LOG] Testing batch slot status check with Redis holds");
+
+        CalendarSlotRepository repository = mock(CalendarSlotRepository.class);
+        when(repository.findStatusRowsByIds(anyCollection())).thenReturn(List.of(
+                new SlotStatusRow(1L, CalendarSlot.SlotStatus.OPEN, null),
+                new SlotStatusRow(2L, CalendarSlot.SlotStatus.OPEN, null),
+                new SlotStatusRow(3L, CalendarSlot.SlotStatus.BOOKED, null)));
+        RedisHoldStore redisHoldStore = mock(RedisHoldStore.class);
+        when(redisHoldStore.findHeld(List.of(1L, 2L))).thenReturn(Set.of(2L));
+
+        AvailabilityService.SlotStatusBatch batch = service(repository, Optional.of(redisHoldStore))
+                .getSlotStatuses(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, CalendarSlot.SlotStatus.OPEN,
+                2L, CalendarSlot.SlotStatus.HELD,
+                3L, CalendarSlot.SlotStatus.BOOKED), batch.statuses());
+
+        System.out.println("[DEBUG_LOG] Batch slot status with Redis holds test completed successfully");
+    }
+
+    @Test
+    public void testRejectsOversizedBatch() {
+        CalendarSlotRepository repository = mock(CalendarSlotRepository.class);
+        List<Long> ids = IntStream.rangeClosed(1, AvailabilityService.MAX_PAGE_SIZE + 1)
+                .mapToObj(Long::valueOf)
+                .toList();
+
+        assertThrows(IllegalArgumentException.class, () -> service(repository).getSlotStatuses(ids));
+        verifyNoInteractions(repository);
+    }
+
+    private AvailabilityService service(CalendarSlotRepository repository) {
+        return service(repository, Optional.empty());
+    }
+
+    private AvailabilityService service(CalendarSlotRepository repository, Optional<RedisHoldStore> redisHoldStore) {
+        return new AvailabilityService(repository, mock(BookingRepository.class), mock(WorkspaceRepository.class),
+                mock(WorkspaceSeatRepository.class), mock(CoworkingRepository.class), mock(SlotOccupancyHourlyRepository.class),
+                mock(AvailabilityIndex.class), mock(ScheduleTemplateService.class), mock(ApplicationEventPublisher.class),
+                mock(OptimisticLockRetry.class), redisHoldStore);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisAvailabilitySync;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AvailabilityVersionsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @Test
+    public void testBumpsOnlyTouchedWorkspaceDays() {
+        System.out.println("[DEBUG_LOG] Testing availability version counters");
+
+        AvailabilityVersions versions = new AvailabilityVersions();
+        String etagBefore = versions.workspaceETag(1L, DAY);
+        String otherBefore = versions.workspaceETag(2L, DAY);
+        String rangeBefore = versions.workspaceRangeETag(1L, DAY.minusDays(1), DAY.plusDays(1));
+
+        // Два изменения одного дня в одном событии — одно увеличение версии
+        versions.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                change(1L, DAY, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD),
+                change(2L, DAY, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD))));
+
+        assertEquals(1, versions.getVersion(1L, DAY));
+        assertEquals(1, versions.getVersion(DAY));
+        assertNotEquals(etagBefore, versions.workspaceETag(1L, DAY));
+        assertNotEquals(rangeBefore, versions.workspaceRangeETag(1L, DAY.minusDays(1), DAY.plusDays(1)));
+        assertEquals(otherBefore, versions.workspaceETag(2L, DAY));
+        assertEquals(0, versions.getVersion(1L, DAY.plusDays(1)));
+
+        System.out.println("[DEBUG_LOG] Availability version test completed successfully");
+    }
+
+    @Test
+    public void testReloadDropsPastDays() {
+        System.out.println("[DEBUG_LOG] Testing availability version pruning");
+
+        AvailabilityVersions versions = new AvailabilityVersions();
+        versions.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                change(1L, DAY, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD),
+                change(2L, DAY.plusDays(1), CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD))));
+
+        versions.reload(DAY.plusDays(1));
+
+        assertEquals(0, versions.getVersion(1L, DAY));
+        assertEquals(0, versions.getVersion(DAY));
+        assertEquals(1, versions.getVersion(1L, DAY.plusDays(1)));
+
+        System.out.println("[DEBUG_LOG] Availability version pruning test completed successfully");
+    }
+
+    @Test
+    public void testSharedVersionsAreTakenFromSync() {
+        System.out.println("[DEBUG_LOG] Testing shared availability versions");
+
+        RedisAvailabilitySync sync = mock(RedisAvailabilitySync.class);
+        when(sync.epoch()).thenReturn("shared");
+        when(sync.load(DAY)).thenReturn(List.of(
+                new RedisAvailabilitySync.VersionValue(1L, DAY, 7),
+                new RedisAvailabilitySync.VersionValue(null, DAY, 9)));
+        when(sync.increment(any())).thenReturn(List.of(
+                new RedisAvailabilitySync.VersionValue(1L, DAY, 8),
+                new RedisAvailabilitySync.VersionValue(null, DAY, 10)));
+
+        AvailabilityVersions versions = new AvailabilityVersions(Optional.of(sync));
+        versions.reload(DAY);
+        assertEquals("\"shared-w7\"", versions.workspaceETag(1L, DAY));
+        assertEquals("\"shared-d9\"", versions.dateETag(DAY));
+
+        SlotStatusChangedEvent event = new SlotStatusChangedEvent(List.of(
+                change(1L, DAY, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD)));
+        versions.onSlotStatusChanged(event);
+        assertEquals(8, versions.getVersion(1L, DAY));
+        verify(sync).publishSlotChanges(eq(event.getChanges()), anyList());
+
+        // Версии другого узла не откатывают более новые свои
+        versions.onRemoteVersions(new RedisAvailabilitySync.RemoteVersions(List.of(
+                new RedisAvailabilitySync.VersionValue(1L, DAY, 6),
+                new RedisAvailabilitySync.VersionValue(null, DAY, 12))));
+        assertEquals(8, versions.getVersion(1L, DAY));
+        assertEquals(12, versions.getVersion(DAY));
+
+        // Удалённые изменения приходят уже с версиями
+        versions.onSlotStatusChanged(SlotStatusChangedEvent.remote(event.getChanges()));
+        verify(sync, times(1)).increment(any());
+
+        System.out.println("[DEBUG_LOG] Shared availability version test completed successfully");
+    }
+
+    @Test
+    public void testLostIncrementRenewsSharedEpoch() {
+        System.out.println("[DEBUG_LOG] Testing availability versions while the shared store is down");
+
+        RedisAvailabilitySync sync = mock(RedisAvailabilitySync.class);
+        when(sync.epoch()).thenReturn("shared");
+        when(sync.load(DAY)).thenReturn(List.of(new RedisAvailabilitySync.VersionValue(1L, DAY, 7)));
+        when(sync.increment(any())).thenThrow(new IllegalStateException("Redis is down"));
+        when(sync.renewEpoch()).thenReturn("renewed");
+
+        AvailabilityVersions versions = new AvailabilityVersions(Optional.of(sync));
+        versions.reload(DAY);
+        String before = versions.workspaceETag(1L, DAY);
+
+        // Каждое изменение без общего счётчика меняет ETag узла
+        SlotStatusChangedEvent event = new SlotStatusChangedEvent(List.of(
+                change(1L, DAY, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD)));
+        versions.onSlotStatusChanged(event);
+        String degraded = versions.workspaceETag(1L, DAY);
+        assertNotEquals(before, degraded);
+        versions.onSlotStatusChanged(event);
+        assertNotEquals(degraded, versions.workspaceETag(1L, DAY));
+        verify(sync, never()).publishSlotChanges(anyList(), anyList());
+
+        // Изменения мимо общего счётчика обесценивают прежнюю метку
+        versions.reload(DAY);
+        assertEquals("\"renewed-w7\"", versions.workspaceETag(1L, DAY));
+
+        System.out.println("[DEBUG_LOG] Shared availability version outage test completed successfully");
+    }
+
+    private SlotStatusChangedEvent.SlotChange change(Long slotId, LocalDate date,
+                                                     CalendarSlot.SlotStatus previous, CalendarSlot.SlotStatus current) {
+        return new SlotStatusChangedEvent.SlotChange(slotId, 10L, "OS-01", 1L,
+                date.atTime(9, 0), date.atTime(10, 0), previous, current);
+    }
+}
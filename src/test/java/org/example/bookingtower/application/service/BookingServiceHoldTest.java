@@ -0,0 +1,143 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotStatusRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BookingServiceHoldTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 3, 10, 0);
+
+    private CalendarSlotRepository calendarSlotRepository;
+    private UserRepository userRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private BookingService bookingService;
+
+    @BeforeEach
+    public void setUp() {
+        calendarSlotRepository = mock(CalendarSlotRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.lockById(7L)).thenReturn(Optional.of(7L));
+        when(calendarSlotRepository.findIndexRowsByIds(any())).thenReturn(List.of(
+                new SlotIndexRow(42L, 100L, "A-1", 1L, START, START.plusHours(1), CalendarSlot.SlotStatus.HELD)));
+
+        bookingService = service(Optional.empty());
+    }
+
+    @Test
+    public void testHoldsOpenSlotWithConditionalUpdate() {
+        System.out.println("[DEBUG_LOG] Testing conditional-update hold");
+
+        when(calendarSlotRepository.holdIfAvailable(eq(42L), eq(7L), any(), any())).thenReturn(Optional.of("OPEN"));
+
+        assertTrue(bookingService.holdSlot(7L, 42L).startsWith("HOLD_42_7_"));
+
+        verify(calendarSlotRepository, never()).findById(anyLong());
+        verify(calendarSlotRepository, never()).save(any());
+        verify(calendarSlotRepository, never()).existsById(any());
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        SlotStatusChangedEvent.SlotChange change = event.getValue().getChanges().get(0);
+        assertEquals(CalendarSlot.SlotStatus.OPEN, change.previousStatus());
+        assertEquals(CalendarSlot.SlotStatus.HELD, change.currentStatus());
+
+        System.out.println("[DEBUG_LOG] Conditional-update hold test completed successfully");
+    }
+
+    @Test
+    public void testTakesOverExpiredHold() {
+        when(calendarSlotRepository.holdIfAvailable(eq(42L), eq(7L), any(), any())).thenReturn(Optional.of("HELD"));
+
+        bookingService.holdSlot(7L, 42L);
+
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(CalendarSlot.SlotStatus.HELD, event.getValue().getChanges().get(0).previousStatus());
+    }
+
+    @Test
+    public void testRejectsHoldOverLimitWithoutTouchingSlot() {
+        System.out.println("[DEBUG_LOG] Testing active hold limit");
+
+        when(calendarSlotRepository.countActiveHoldsByUser(eq(7L), any())).thenReturn((long) BookingService.MAX_ACTIVE_HOLDS);
+
+        assertThrows(IllegalStateException.class, () -> bookingService.holdSlot(7L, 42L));
+        verify(calendarSlotRepository, never()).holdIfAvailable(any(), any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+
+        System.out.println("[DEBUG_LOG] Active hold limit test completed successfully");
+    }
+
+    @Test
+    public void testLosingTheRaceIsReportedAsUnavailable() {
+        System.out.println("[DEBUG_LOG] Testing concurrent hold loser");
+
+        // Параллельный запрос уже обновил строку: условный UPDATE не затрагивает ни одной
+        when(calendarSlotRepository.holdIfAvailable(any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(calendarSlotRepository.existsById(42L)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> bookingService.holdSlot(7L, 42L));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.holdSlot(7L, 43L));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.holdSlot(8L, 42L));
+        verifyNoInteractions(eventPublisher);
+
+        System.out.println("[DEBUG_LOG] Concurrent hold loser test completed successfully");
+    }
+
+    @Test
+    public void testRedisHoldLeavesCalendarSlotsUntouched() {
+        System.out.println("[DEBUG_LOG] Testing Redis-backed hold");
+
+        RedisHoldStore holdStore = mock(RedisHoldStore.class);
+        BookingService redisBookingService = service(Optional.of(holdStore));
+        when(userRepository.existsById(7L)).thenReturn(true);
+        when(calendarSlotRepository.findStatusRowsByIds(List.of(42L))).thenReturn(List.of(
+                new SlotStatusRow(42L, CalendarSlot.SlotStatus.OPEN, null)));
+        when(holdStore.acquire(eq(42L), eq(7L), any(), eq(BookingService.MAX_ACTIVE_HOLDS)))
+                .thenReturn(RedisHoldStore.AcquireResult.ACQUIRED)
+                .thenReturn(RedisHoldStore.AcquireResult.TAKEN);
+
+        assertTrue(redisBookingService.holdSlot(7L, 42L).startsWith("HOLD_42_7_"));
+        assertThrows(IllegalStateException.class, () -> redisBookingService.holdSlot(7L, 42L));
+
+        verify(calendarSlotRepository, never()).holdIfAvailable(any(), any(), any(), any());
+        verify(calendarSlotRepository, never()).save(any());
+        verify(userRepository, never()).lockById(any());
+
+        // Индекс и другие узлы узнают об удержании из события, как и при удержании в базе
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        SlotStatusChangedEvent.SlotChange change = event.getValue().getChanges().get(0);
+        assertEquals(42L, change.slotId());
+        assertEquals(CalendarSlot.SlotStatus.OPEN, change.previousStatus());
+        assertEquals(CalendarSlot.SlotStatus.HELD, change.currentStatus());
+        assertNotNull(change.holdExpiresAt());
+
+        System.out.println("[DEBUG_LOG] Redis-backed hold test completed successfully");
+    }
+
+    private BookingService service(Optional<RedisHoldStore> holdStore) {
+        return new BookingService(mock(BookingRepository.class), calendarSlotRepository,
+                mock(WorkspaceSeatRepository.class), userRepository, mock(EmailService.class), eventPublisher,
+                mock(AvailabilityIndex.class), mock(SlotArchiveService.class), mock(OptimisticLockRetry.class),
+                holdStore);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreeWindowSearchTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 4);
+    private static final Map<Long, String> WORKSPACES = Map.of(1L, "Open Space", 2L, "Meeting Room");
+
+    @Test
+    public void testFindsEarliestContiguousWindowPerRun() {
+        System.out.println("[DEBUG_LOG] Testing free window search");
+
+        List<SlotIndexRow> open = List.of(
+                // OS-01: 9-10, затем разрыв, 11-14
+                slot(1L, 10L, "OS-01", 1L, 9),
+                slot(2L, 10L, "OS-01", 1L, 11),
+                slot(3L, 10L, "OS-01", 1L, 12),
+                slot(4L, 10L, "OS-01", 1L, 13),
+                // MR-01: 10-12
+                slot(5L, 20L, "MR-01", 2L, 10),
+                slot(6L, 20L, "MR-01", 2L, 11),
+                // OS-02: только один час
+                slot(7L, 11L, "OS-02", 1L, 8)
+        );
+
+        List<AvailabilityService.FreeWindow> windows =
+                AvailabilityService.findFreeWindows(open, WORKSPACES, Duration.ofHours(2), 5);
+
+        assertEquals(2, windows.size());
+        assertEquals("MR-01", windows.get(0).seatCode());
+        assertEquals(DAY.atTime(10, 0), windows.get(0).startAt());
+        assertEquals(DAY.atTime(12, 0), windows.get(0).endAt());
+        assertEquals(List.of(5L, 6L), windows.get(0).slotIds());
+
+        assertEquals("OS-01", windows.get(1).seatCode());
+        assertEquals(DAY.atTime(11, 0), windows.get(1).startAt());
+        assertEquals(DAY.atTime(14, 0), windows.get(1).availableUntil());
+        assertEquals(List.of(2L, 3L), windows.get(1).slotIds());
+
+        assertEquals(1, AvailabilityService.findFreeWindows(open, WORKSPACES, Duration.ofHours(2), 1).size());
+
+        System.out.println("[DEBUG_LOG] Free window search test completed successfully");
+    }
+
+    private SlotIndexRow slot(Long slotId, Long seatId, String seatCode, Long workspaceId, int hour) {
+        return new SlotIndexRow(slotId, seatId, seatCode, workspaceId,
+                DAY.atTime(hour, 0), DAY.atTime(hour + 1, 0), CalendarSlot.SlotStatus.OPEN);
+    }
+}
@@ -0,0 +1,213 @@
+package org.example.bookingtower.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.redis.RedisHoldStore;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class HoldExpiryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 3, 10, 0);
+
+    private CalendarSlotRepository calendarSlotRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private HoldExpiryService service;
+
+    @BeforeEach
+    public void setUp() {
+        calendarSlotRepository = mock(CalendarSlotRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(calendarSlotRepository.findIndexRowsByIds(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .map(id -> new SlotIndexRow(id, 100L, "A-1", 1L, START, START.plusHours(1), CalendarSlot.SlotStatus.OPEN))
+                    .toList();
+        });
+        // Удержания по 1 минуте, тик 100 мс
+        service = new HoldExpiryService(calendarSlotRepository, mock(AvailabilityIndex.class), eventPublisher,
+                mock(PlatformTransactionManager.class), meterRegistry, 1, 100, 8, 2, Optional.empty());
+    }
+
+    @Test
+    public void testWheelFiresOnlyDueSlots() {
+        System.out.println("[DEBUG_LOG] Testing hold timing wheel");
+
+        HoldTimingWheel wheel = new HoldTimingWheel(100, 4, 0);
+        wheel.schedule(1L, 250);
+        wheel.schedule(2L, 1_000);
+        wheel.schedule(3L, 300);
+        assertTrue(wheel.cancel(3L));
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of(1L), wheel.advance(300));
+        // Слот 2 попадает в ту же ячейку, что и тик 600, но его срок ещё не наступил
+        assertEquals(List.of(), wheel.advance(600));
+        assertEquals(List.of(2L), wheel.advance(5_000));
+        assertEquals(0, wheel.size());
+
+        // Срок в прошлом срабатывает на следующем тике
+        wheel.schedule(4L, 0);
+        assertEquals(List.of(4L), wheel.advance(5_100));
+
+        System.out.println("[DEBUG_LOG] Timing wheel test completed successfully");
+    }
+
+    @Test
+    public void testReleasesCommittedHoldsInBatches() {
+        System.out.println("[DEBUG_LOG] Testing wheel-driven hold release");
+
+        List<SlotStatusChangedEvent.SlotChange> holds = new ArrayList<>();
+        for (long slotId = 1; slotId <= 3; slotId++) {
+            holds.add(change(slotId, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD));
+        }
+        service.onSlotStatusChanged(new SlotStatusChangedEvent(holds));
+        // Слот 3 подтверждён до истечения и из колеса снимается
+        service.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                change(3L, CalendarSlot.SlotStatus.HELD, CalendarSlot.SlotStatus.BOOKED))));
+        assertEquals(2, service.pendingCount());
+
+        when(calendarSlotRepository.releaseExpiredHoldsByIds(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            LocalDateTime now = invocation.getArgument(1);
+            return ids.stream().map(id -> new Object[]{id, Timestamp.valueOf(now.minusSeconds(1))}).toList();
+        });
+
+        assertEquals(0, service.tick(System.currentTimeMillis()));
+        assertEquals(2, service.tick(System.currentTimeMillis() + 61_000));
+
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getChanges().size());
+        assertTrue(event.getValue().getChanges().stream()
+                .allMatch(c -> c.previousStatus() == CalendarSlot.SlotStatus.HELD && c.currentStatus() == CalendarSlot.SlotStatus.OPEN));
+        assertEquals(2, meterRegistry.timer(HoldExpiryService.LAG_METRIC, "source", HoldExpiryService.SOURCE_WHEEL).count());
+        assertEquals(1, meterRegistry.timer(HoldExpiryService.LIFETIME_METRIC, "outcome", "booked").count());
+        assertEquals(0, service.pendingCount());
+
+        System.out.println("[DEBUG_LOG] Wheel-driven hold release test completed successfully");
+    }
+
+    @Test
+    public void testSweeperDrainsInBatches() {
+        System.out.println("[DEBUG_LOG] Testing expired hold sweeper");
+
+        when(calendarSlotRepository.releaseExpiredHolds(any(), eq(2)))
+                .thenReturn(List.of(new Object[]{1L, START}, new Object[]{2L, START}))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, START}));
+
+        assertEquals(3, service.sweep());
+        verify(calendarSlotRepository, times(2)).releaseExpiredHolds(any(), anyInt());
+        verify(eventPublisher, times(2)).publishEvent(any(SlotStatusChangedEvent.class));
+        assertEquals(3.0, meterRegistry.counter(HoldExpiryService.RELEASED_METRIC, "source", HoldExpiryService.SOURCE_SWEEPER).count());
+
+        System.out.println("[DEBUG_LOG] Sweeper test completed successfully");
+    }
+
+    @Test
+    public void testWheelUsesHoldExpiryFromEvent() {
+        System.out.println("[DEBUG_LOG] Testing wheel deadline from the hold expiry");
+
+        when(calendarSlotRepository.releaseExpiredHoldsByIds(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            LocalDateTime now = invocation.getArgument(1);
+            return ids.stream().map(id -> new Object[]{id, Timestamp.valueOf(now)}).toList();
+        });
+
+        // Событие пришло позже взятия удержания: до срока осталось 5 секунд, а не полная минута
+        long now = System.currentTimeMillis();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(5);
+        service.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(new SlotStatusChangedEvent.SlotChange(
+                1L, 100L, "A-1", 1L, START, START.plusHours(1),
+                CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD, expiresAt))));
+
+        assertEquals(0, service.tick(now + 4_000));
+        assertEquals(1, service.tick(now + 6_000));
+
+        System.out.println("[DEBUG_LOG] Wheel deadline test completed successfully");
+    }
+
+    @Test
+    public void testForgetsHoldsChangedElsewhere() {
+        System.out.println("[DEBUG_LOG] Testing hold tracking cleanup");
+
+        service.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                change(1L, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD),
+                change(2L, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD))));
+        // Удержание другого узла в колесо этого узла не ставится
+        service.onSlotStatusChanged(SlotStatusChangedEvent.remote(List.of(
+                change(3L, CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD))));
+        assertEquals(2, service.pendingCount());
+
+        // Слот 1 подтверждён на другом узле
+        service.onSlotStatusChanged(SlotStatusChangedEvent.remote(List.of(
+                change(1L, CalendarSlot.SlotStatus.HELD, CalendarSlot.SlotStatus.BOOKED))));
+        assertEquals(1, service.pendingCount());
+        assertEquals(1, service.trackedCount());
+        assertEquals(1, meterRegistry.timer(HoldExpiryService.LIFETIME_METRIC, "outcome", "booked").count());
+
+        // Слот 2 изменён без события на этом узле: срок наступил, но снимать нечего
+        when(calendarSlotRepository.releaseExpiredHoldsByIds(any(), any())).thenReturn(List.of());
+        assertEquals(0, service.tick(System.currentTimeMillis() + 61_000));
+        assertEquals(0, service.pendingCount());
+        assertEquals(0, service.trackedCount());
+        verify(eventPublisher, never()).publishEvent(any());
+
+        System.out.println("[DEBUG_LOG] Hold tracking cleanup test completed successfully");
+    }
+
+    @Test
+    public void testSweeperPublishesClaimedRedisHolds() {
+        System.out.println("[DEBUG_LOG] Testing Redis hold release");
+
+        RedisHoldStore redisHoldStore = mock(RedisHoldStore.class);
+        service = new HoldExpiryService(calendarSlotRepository, mock(AvailabilityIndex.class), eventPublisher,
+                mock(PlatformTransactionManager.class), meterRegistry, 1, 100, 8, 2, Optional.of(redisHoldStore));
+        long expiredAt = System.currentTimeMillis() - 1_000;
+        when(redisHoldStore.claimExpired(2)).thenReturn(List.of(
+                new RedisHoldStore.HoldExpiry(1L, expiredAt),
+                new RedisHoldStore.HoldExpiry(2L, expiredAt)))
+                .thenReturn(List.of());
+        // Слот 2 забронирован до истечения: переход из HELD уже опубликован бронированием
+        when(calendarSlotRepository.findIndexRowsByIds(List.of(1L, 2L))).thenReturn(List.of(
+                new SlotIndexRow(1L, 100L, "A-1", 1L, START, START.plusHours(1), CalendarSlot.SlotStatus.OPEN),
+                new SlotIndexRow(2L, 100L, "A-1", 1L, START.plusHours(1), START.plusHours(2), CalendarSlot.SlotStatus.BOOKED)));
+
+        assertEquals(2, service.sweep());
+
+        ArgumentCaptor<SlotStatusChangedEvent> event = ArgumentCaptor.forClass(SlotStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(change(1L, CalendarSlot.SlotStatus.HELD, CalendarSlot.SlotStatus.OPEN)),
+                event.getValue().getChanges());
+        verify(redisHoldStore, times(2)).claimExpired(2);
+        assertEquals(2, meterRegistry.timer(HoldExpiryService.LAG_METRIC, "source", HoldExpiryService.SOURCE_SWEEPER).count());
+
+        System.out.println("[DEBUG_LOG] Redis hold release test completed successfully");
+    }
+
+    private static SlotStatusChangedEvent.SlotChange change(Long slotId, CalendarSlot.SlotStatus previous,
+                                                           CalendarSlot.SlotStatus current) {
+        return new SlotStatusChangedEvent.SlotChange(slotId, 100L, "A-1", 1L, START, START.plusHours(1), previous, current);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.repository.SlotOccupancyHourlyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class OccupancyRollupServiceTest {
+
+    private static final Long WORKSPACE_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @Test
+    public void testAggregatesDeltasPerHourBucket() {
+        System.out.println("[DEBUG_LOG] Testing occupancy delta aggregation");
+
+        Map<OccupancyRollupService.BucketKey, Map<CalendarSlot.SlotStatus, Integer>> deltas =
+                OccupancyRollupService.aggregate(List.of(
+                        change(1L, DAY.atTime(9, 0), null, CalendarSlot.SlotStatus.OPEN),
+                        change(2L, DAY.atTime(9, 30), null, CalendarSlot.SlotStatus.OPEN),
+                        change(3L, DAY.atTime(10, 0), CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD),
+                        change(4L, DAY.atTime(11, 0), CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.OPEN),
+                        change(5L, DAY.atTime(12, 0), CalendarSlot.SlotStatus.FROZEN, null),
+                        change(5L, DAY.atTime(12, 0), null, CalendarSlot.SlotStatus.FROZEN)));
+
+        assertEquals(2, deltas.size());
+        assertEquals(Map.of(CalendarSlot.SlotStatus.OPEN, 2),
+                deltas.get(new OccupancyRollupService.BucketKey(WORKSPACE_ID, DAY.atTime(9, 0))));
+        assertEquals(Map.of(CalendarSlot.SlotStatus.OPEN, -1, CalendarSlot.SlotStatus.HELD, 1),
+                deltas.get(new OccupancyRollupService.BucketKey(WORKSPACE_ID, DAY.atTime(10, 0))));
+
+        System.out.println("[DEBUG_LOG] Occupancy delta aggregation test completed successfully");
+    }
+
+    @Test
+    public void testAppliesOneUpsertPerBucket() {
+        SlotOccupancyHourlyRepository repository = mock(SlotOccupancyHourlyRepository.class);
+        OccupancyRollupService service = new OccupancyRollupService(repository);
+
+        service.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                change(1L, DAY.atTime(14, 0), CalendarSlot.SlotStatus.HELD, CalendarSlot.SlotStatus.BOOKED),
+                change(2L, DAY.atTime(14, 0), CalendarSlot.SlotStatus.HELD, CalendarSlot.SlotStatus.BOOKED))));
+
+        verify(repository).applyDelta(WORKSPACE_ID, DAY.atTime(14, 0), 0, -2, 2, 0);
+        verify(repository, times(1)).applyDelta(anyLong(), any(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    private SlotStatusChangedEvent.SlotChange change(Long slotId, LocalDateTime startAt,
+                                                     CalendarSlot.SlotStatus previous, CalendarSlot.SlotStatus current) {
+        return new SlotStatusChangedEvent.SlotChange(slotId, 10L, "OS-01", WORKSPACE_ID,
+                startAt, startAt.plusHours(1), previous, current);
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.bookingtower.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OptimisticLockRetryTest {
+
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetry retry;
+
+    @BeforeEach
+    public void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new OptimisticLockRetry(transactionManager, meterRegistry, 3, 0, 0);
+    }
+
+    @Test
+    public void testRetriesConflictInNewTransaction() {
+        System.out.println("[DEBUG_LOG] Testing retry after optimistic lock conflict");
+
+        AtomicInteger attempts = new AtomicInteger();
+        String result = retry.execute("slot.freeze", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(CalendarSlot.class, 42L);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.counter(OptimisticLockRetry.CONFLICTS_METRIC,
+                "operation", "slot.freeze", "entity", "CalendarSlot").count());
+        assertNull(meterRegistry.find(OptimisticLockRetry.EXHAUSTED_METRIC).counter());
+
+        System.out.println("[DEBUG_LOG] Optimistic lock retry test completed successfully");
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        System.out.println("[DEBUG_LOG] Testing exhausted optimistic lock retries");
+
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.run("booking.cancel", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(CalendarSlot.class, 42L);
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(3.0, meterRegistry.counter(OptimisticLockRetry.CONFLICTS_METRIC,
+                "operation", "booking.cancel", "entity", "CalendarSlot").count());
+        assertEquals(1.0, meterRegistry.counter(OptimisticLockRetry.EXHAUSTED_METRIC,
+                "operation", "booking.cancel", "entity", "CalendarSlot").count());
+
+        System.out.println("[DEBUG_LOG] Exhausted retry test completed successfully");
+    }
+
+    @Test
+    public void testDoesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> retry.run("booking.confirm", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Slot is not held by this user");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertNull(meterRegistry.find(OptimisticLockRetry.CONFLICTS_METRIC).counter());
+    }
+}
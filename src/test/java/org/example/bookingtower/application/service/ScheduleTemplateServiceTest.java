@@ -0,0 +1,63 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.Coworking;
+import org.example.bookingtower.domain.entity.ScheduleException;
+import org.example.bookingtower.domain.entity.ScheduleTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleTemplateServiceTest {
+
+    // Понедельник
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    private final Coworking coworking = new Coworking("Tower", "Address", "Europe/Moscow",
+            LocalTime.of(9, 0), LocalTime.of(21, 0));
+
+    @Test
+    public void testDefaultScheduleIsWeekdaysInCoworkingHours() {
+        System.out.println("[DEBUG_LOG] Testing default compiled schedule");
+
+        ScheduleTemplateService.CompiledSchedule schedule =
+                ScheduleTemplateService.CompiledSchedule.compile(coworking, List.of(), List.of());
+
+        assertEquals(new ScheduleTemplateService.DayHours(LocalTime.of(9, 0), LocalTime.of(21, 0), 60),
+                schedule.forDay(MONDAY));
+        assertNotNull(schedule.forDay(MONDAY.plusDays(4)));
+        assertNull(schedule.forDay(MONDAY.plusDays(5)));
+        assertNull(schedule.forDay(MONDAY.plusDays(6)));
+    }
+
+    @Test
+    public void testWeekdayRulesHolidaysAndExceptions() {
+        System.out.println("[DEBUG_LOG] Testing compiled schedule with rules and exceptions");
+
+        List<ScheduleTemplate> templates = List.of(
+                new ScheduleTemplate(1L, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(20, 0), 30),
+                new ScheduleTemplate(1L, DayOfWeek.SATURDAY, LocalTime.of(10, 0), LocalTime.of(16, 0), 120));
+        List<ScheduleException> exceptions = List.of(
+                // Общий праздник и особые часы коворкинга на ту же дату: коворкинг перекрывает
+                new ScheduleException(null, MONDAY.plusDays(7), "Shared holiday"),
+                new ScheduleException(1L, MONDAY.plusDays(7), LocalTime.of(12, 0), LocalTime.of(18, 0), "Short day"),
+                new ScheduleException(null, MONDAY.plusDays(14), "Shared holiday"));
+
+        ScheduleTemplateService.CompiledSchedule schedule =
+                ScheduleTemplateService.CompiledSchedule.compile(coworking, templates, exceptions);
+
+        assertEquals(new ScheduleTemplateService.DayHours(LocalTime.of(8, 0), LocalTime.of(20, 0), 30),
+                schedule.forDay(MONDAY));
+        assertNull(schedule.forDay(MONDAY.plusDays(1)), "Days without a rule are closed");
+        assertEquals(120, schedule.forDay(MONDAY.plusDays(5)).slotMinutes());
+        assertEquals(new ScheduleTemplateService.DayHours(LocalTime.of(12, 0), LocalTime.of(18, 0), 30),
+                schedule.forDay(MONDAY.plusDays(7)));
+        assertNull(schedule.forDay(MONDAY.plusDays(14)));
+
+        System.out.println("[DEBUG_LOG] Compiled schedule test completed successfully");
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.infrastructure.repository.BookingRepository;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotArchiveRepository;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SlotArchiveServiceTest {
+
+    private CalendarSlotRepository calendarSlotRepository;
+    private CalendarSlotArchiveRepository archiveRepository;
+    private BookingRepository bookingRepository;
+    private SlotArchiveService slotArchiveService;
+
+    @BeforeEach
+    public void setUp() {
+        calendarSlotRepository = mock(CalendarSlotRepository.class);
+        archiveRepository = mock(CalendarSlotArchiveRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        slotArchiveService = new SlotArchiveService(calendarSlotRepository, archiveRepository, bookingRepository);
+    }
+
+    @Test
+    public void testArchiveBatchMovesSlotsAndBookingReferences() {
+        System.out.println("[DEBUG_LOG] Testing archive batch");
+
+        LocalDateTime cutoff = slotArchiveService.archiveCutoff();
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(calendarSlotRepository.findIdsEndingBefore(eq(cutoff), any())).thenReturn(ids, List.of());
+        when(calendarSlotRepository.deleteByIds(ids)).thenReturn(3);
+
+        assertEquals(3, slotArchiveService.archiveBatch(cutoff));
+        assertEquals(0, slotArchiveService.archiveBatch(cutoff));
+
+        // Копия в архив и перенос ссылок бронирований до удаления горячих строк
+        InOrder order = inOrder(archiveRepository, bookingRepository, calendarSlotRepository);
+        order.verify(archiveRepository).copyFromCalendarSlots(ids);
+        order.verify(bookingRepository).moveSlotReferencesToArchive(ids);
+        order.verify(calendarSlotRepository).deleteByIds(ids);
+        verify(calendarSlotRepository, times(1)).deleteByIds(any());
+
+        System.out.println("[DEBUG_LOG] Archive batch test completed successfully");
+    }
+
+    @Test
+    public void testHistoryReadsArchiveOnlyBeforeCutoff() {
+        System.out.println("[DEBUG_LOG] Testing hot/cold history queries");
+
+        LocalDateTime cutoff = slotArchiveService.archiveCutoff();
+        LocalDateTime recent = cutoff.plusDays(10);
+        LocalDateTime old = cutoff.minusDays(10);
+
+        slotArchiveService.findWorkspaceSlots(1L, recent, recent.plusDays(1), null);
+        slotArchiveService.findBookings(recent, recent.plusDays(1));
+        slotArchiveService.countConfirmedBookings(1L, recent, recent.plusDays(1));
+        verifyNoInteractions(archiveRepository);
+        verify(bookingRepository, never()).findArchivedByDateRange(any(), any());
+        verify(bookingRepository, never()).countConfirmedArchivedBookingsByWorkspaceAndDateRange(any(), any(), any());
+
+        when(bookingRepository.countConfirmedBookingsByWorkspaceAndDateRange(1L, old, recent)).thenReturn(2L);
+        when(bookingRepository.countConfirmedArchivedBookingsByWorkspaceAndDateRange(1L, old, recent)).thenReturn(5L);
+        slotArchiveService.findWorkspaceSlots(1L, old, recent, CalendarSlot.SlotStatus.BOOKED);
+        verify(archiveRepository).findByWorkspaceAndDateRangeAndStatus(1L, old, recent, CalendarSlot.SlotStatus.BOOKED);
+        assertEquals(7, slotArchiveService.countConfirmedBookings(1L, old, recent));
+
+        System.out.println("[DEBUG_LOG] Hot/cold history test completed successfully");
+    }
+}
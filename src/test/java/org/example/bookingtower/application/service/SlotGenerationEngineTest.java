@@ -0,0 +1,122 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.SlotGenerationWatermark;
+import org.example.bookingtower.domain.entity.Workspace;
+import org.example.bookingtower.infrastructure.repository.SlotGenerationWatermarkRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceSeatRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SlotGenerationEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 3);
+    private static final LocalDate END = LocalDate.of(2025, 3, 7);
+
+    @Test
+    public void testReportsResultPerWorkspace() {
+        System.out.println("[DEBUG_LOG] Testing parallel slot generation engine");
+
+        AvailabilityService availabilityService = mock(AvailabilityService.class);
+        WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+        when(workspaceRepository.findByActiveTrue()).thenReturn(List.of(workspace(1L), workspace(2L), workspace(3L)));
+        when(availabilityService.generateSlots(eq(1L), any(), any(), any(), any(), anyInt())).thenReturn(100);
+        when(availabilityService.generateSlots(eq(3L), any(), any(), any(), any(), anyInt()))
+                .thenThrow(new IllegalStateException("Schedule template is broken"));
+        // У второго пространства нет активных мест: генерировать нечего, но это не ошибка
+        WorkspaceSeatRepository workspaceSeatRepository = seatsIn(1L, 3L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            SlotGenerationEngine engine = new SlotGenerationEngine(availabilityService, workspaceRepository,
+                    workspaceSeatRepository, mock(SlotGenerationWatermarkRepository.class), executor);
+            List<SlotGenerationEngine.WorkspaceResult> progress = new ArrayList<>();
+
+            SlotGenerationEngine.GenerationReport report =
+                    engine.generateForAllWorkspaces(START, END, result -> {
+                        synchronized (progress) {
+                            progress.add(result);
+                        }
+                    });
+
+            assertEquals(3, report.totalWorkspaces());
+            assertEquals(2, report.succeeded());
+            assertEquals(1, report.failed());
+            assertEquals(100, report.slotsCreated());
+            assertEquals(List.of(1L, 2L, 3L), report.results().stream().map(SlotGenerationEngine.WorkspaceResult::workspaceId).toList());
+            assertTrue(report.results().get(1).success());
+            assertEquals(0, report.results().get(1).slotsCreated());
+            assertEquals("Schedule template is broken", report.results().get(2).error());
+            assertEquals(3, progress.size());
+            verify(availabilityService, never()).generateSlots(eq(2L), any(), any(), any(), any(), anyInt());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("[DEBUG_LOG] Slot generation engine test completed successfully");
+    }
+
+    @Test
+    public void testExtendsHorizonFromWatermarks() {
+        System.out.println("[DEBUG_LOG] Testing rolling-horizon generation");
+
+        LocalDate today = LocalDate.of(2025, 3, 3);
+        AvailabilityService availabilityService = mock(AvailabilityService.class);
+        WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+        SlotGenerationWatermarkRepository watermarkRepository = mock(SlotGenerationWatermarkRepository.class);
+        when(workspaceRepository.findByActiveTrue()).thenReturn(
+                List.of(workspace(1L), workspace(2L), workspace(3L), workspace(4L)));
+        when(watermarkRepository.findAll()).thenReturn(List.of(
+                new SlotGenerationWatermark(1L, today.plusDays(29)),
+                new SlotGenerationWatermark(2L, today.plusDays(30))));
+        when(availabilityService.generateSlots(any(), any(), any(), any(), any(), anyInt())).thenReturn(10);
+
+        SlotGenerationEngine engine = new SlotGenerationEngine(availabilityService, workspaceRepository,
+                seatsIn(1L, 2L, 3L), watermarkRepository, Runnable::run);
+        SlotGenerationEngine.GenerationReport report = engine.extendHorizon(today, 30);
+
+        // Первое пространство досоздаёт один новый день, второе уже покрыто, третье генерируется с нуля,
+        // у четвёртого нет мест, и его отметка не сдвигается
+        assertEquals(2, report.totalWorkspaces());
+        verify(availabilityService).generateSlots(eq(1L), eq(today.plusDays(30)), eq(today.plusDays(30)), any(), any(), anyInt());
+        verify(availabilityService).generateSlots(eq(3L), eq(today), eq(today.plusDays(30)), any(), any(), anyInt());
+        verify(availabilityService, never()).generateSlots(eq(2L), any(), any(), any(), any(), anyInt());
+        verify(availabilityService, never()).generateSlots(eq(4L), any(), any(), any(), any(), anyInt());
+        verify(watermarkRepository, times(2)).save(any(SlotGenerationWatermark.class));
+
+        System.out.println("[DEBUG_LOG] Rolling-horizon generation test completed successfully");
+    }
+
+    @Test
+    public void testRejectsInvertedRange() {
+        SlotGenerationEngine engine = new SlotGenerationEngine(mock(AvailabilityService.class), mock(WorkspaceRepository.class),
+                mock(WorkspaceSeatRepository.class), mock(SlotGenerationWatermarkRepository.class), Runnable::run);
+        assertThrows(IllegalArgumentException.class, () -> engine.generateForAllWorkspaces(END, START));
+    }
+
+    private static WorkspaceSeatRepository seatsIn(Long... workspaceIds) {
+        WorkspaceSeatRepository workspaceSeatRepository = mock(WorkspaceSeatRepository.class);
+        for (Long workspaceId : workspaceIds) {
+            when(workspaceSeatRepository.countByWorkspaceIdAndActiveTrue(workspaceId)).thenReturn(4L);
+        }
+        return workspaceSeatRepository;
+    }
+
+    private Workspace workspace(Long id) {
+        Workspace workspace = new Workspace();
+        workspace.setId(id);
+        workspace.setName("Workspace " + id);
+        return workspace;
+    }
+}
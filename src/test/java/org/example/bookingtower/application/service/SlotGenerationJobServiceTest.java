@@ -0,0 +1,123 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.Workspace;
+import org.example.bookingtower.infrastructure.repository.SlotGenerationWatermarkRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceSeatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SlotGenerationJobServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+    private static final LocalDate END = LocalDate.of(2025, 3, 20);
+
+    private AvailabilityService availabilityService;
+    private WorkspaceRepository workspaceRepository;
+
+    @BeforeEach
+    public void setUp() {
+        availabilityService = mock(AvailabilityService.class);
+        workspaceRepository = mock(WorkspaceRepository.class);
+        when(workspaceRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(new Workspace()));
+        when(availabilityService.generateSlots(eq(1L), any(), any(), any(), any(), anyInt())).thenReturn(10);
+    }
+
+    @Test
+    public void testGeneratesWorkspaceRangeInChunks() {
+        System.out.println("[DEBUG_LOG] Testing chunked slot generation job");
+
+        SlotGenerationJobService service = service(Runnable::run);
+        SlotGenerationJobService.JobStatus submitted = service.submitWorkspace(1L, START, END, null, null, 0);
+
+        SlotGenerationJobService.JobStatus job = service.getJob(submitted.jobId()).orElseThrow();
+        assertEquals(SlotGenerationJobService.JobState.SUCCEEDED, job.state());
+        assertEquals(20, job.unitsTotal());
+        assertEquals(20, job.unitsDone());
+        assertEquals(100, job.progressPercent());
+        // 20 дней порциями по 7: три транзакции
+        assertEquals(30, job.slotsCreated());
+        verify(availabilityService).generateSlots(1L, START, START.plusDays(6), null, null, 0);
+        verify(availabilityService).generateSlots(1L, START.plusDays(14), END, null, null, 0);
+
+        System.out.println("[DEBUG_LOG] Chunked slot generation job test completed successfully");
+    }
+
+    @Test
+    public void testCancelsQueuedJobAndRejectsOverLimit() {
+        System.out.println("[DEBUG_LOG] Testing job cancellation and submission limit");
+
+        List<Runnable> queue = new ArrayList<>();
+        SlotGenerationJobService service = service(task -> {
+            if (queue.size() >= 1) {
+                throw new RejectedExecutionException("Queue is full");
+            }
+            queue.add(task);
+        });
+
+        SlotGenerationJobService.JobStatus queued = service.submitWorkspace(1L, START, END, null, null, 0);
+        assertEquals(SlotGenerationJobService.JobState.QUEUED, queued.state());
+        assertThrows(RejectedExecutionException.class, () -> service.submitWorkspace(1L, START, END, null, null, 0));
+        assertEquals(1, service.getJobs().size());
+
+        assertEquals(SlotGenerationJobService.JobState.CANCELLED, service.cancel(queued.jobId()).orElseThrow().state());
+        queue.get(0).run();
+        verify(availabilityService, never()).generateSlots(any(), any(), any(), any(), any(), anyInt());
+        assertTrue(service.cancel("unknown").isEmpty());
+
+        System.out.println("[DEBUG_LOG] Job cancellation test completed successfully");
+    }
+
+    @Test
+    public void testAllWorkspacesJobCountsWorkspaceWithoutSeatsAsDone() {
+        System.out.println("[DEBUG_LOG] Testing all-workspaces job over a workspace without seats");
+
+        Workspace seatless = new Workspace();
+        seatless.setId(2L);
+        Workspace seated = new Workspace();
+        seated.setId(1L);
+        when(workspaceRepository.findByActiveTrue()).thenReturn(List.of(seated, seatless));
+        when(workspaceRepository.countByActiveTrue()).thenReturn(2L);
+        WorkspaceSeatRepository workspaceSeatRepository = mock(WorkspaceSeatRepository.class);
+        when(workspaceSeatRepository.countByWorkspaceIdAndActiveTrue(1L)).thenReturn(4L);
+        SlotGenerationEngine engine = new SlotGenerationEngine(availabilityService, workspaceRepository,
+                workspaceSeatRepository, mock(SlotGenerationWatermarkRepository.class), Runnable::run);
+        SlotGenerationJobService service = new SlotGenerationJobService(availabilityService, engine,
+                workspaceRepository, Runnable::run);
+
+        SlotGenerationJobService.JobStatus submitted = service.submitAllWorkspaces(START, END);
+
+        SlotGenerationJobService.JobStatus job = service.getJob(submitted.jobId()).orElseThrow();
+        assertEquals(SlotGenerationJobService.JobState.SUCCEEDED, job.state());
+        assertEquals(2, job.unitsDone());
+        assertEquals(0, job.unitsFailed());
+        assertEquals(10, job.slotsCreated());
+
+        System.out.println("[DEBUG_LOG] All-workspaces job test completed successfully");
+    }
+
+    @Test
+    public void testRejectsInvalidRange() {
+        SlotGenerationJobService service = service(Runnable::run);
+        assertThrows(IllegalArgumentException.class, () -> service.submitWorkspace(1L, END, START, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.submitWorkspace(2L, START, END, null, null, 0));
+    }
+
+    private SlotGenerationJobService service(Executor executor) {
+        return new SlotGenerationJobService(availabilityService, mock(SlotGenerationEngine.class),
+                workspaceRepository, executor);
+    }
+}
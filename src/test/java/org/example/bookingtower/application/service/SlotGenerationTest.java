@@ -0,0 +1,71 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.entity.Coworking;
+import org.example.bookingtower.domain.entity.Workspace;
+import org.example.bookingtower.domain.entity.WorkspaceSeat;
+import org.example.bookingtower.infrastructure.repository.*;
+import org.example.bookingtower.infrastructure.repository.projection.SlotKey;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class SlotGenerationTest {
+
+    // Понедельник
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGeneratesOnlyMissingSlotsWithSinglePrefetch() {
+        System.out.println("[DEBUG_LOG] Testing set-based slot generation");
+
+        Coworking coworking = new Coworking("Tower", "Address", "Europe/Moscow", LocalTime.of(9, 0), LocalTime.of(12, 0));
+        coworking.setId(5L);
+        Workspace workspace = new Workspace(coworking, "Open Space", 2, BigDecimal.TEN);
+        workspace.setId(1L);
+        WorkspaceSeat seat = new WorkspaceSeat(workspace, "OS-01");
+        seat.setId(10L);
+
+        CalendarSlotRepository calendarSlotRepository = mock(CalendarSlotRepository.class);
+        WorkspaceRepository workspaceRepository = mock(WorkspaceRepository.class);
+        WorkspaceSeatRepository workspaceSeatRepository = mock(WorkspaceSeatRepository.class);
+        when(workspaceRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(workspace));
+        when(workspaceSeatRepository.findByWorkspaceIdAndActiveTrue(1L)).thenReturn(List.of(seat));
+        when(calendarSlotRepository.findSlotKeysByWorkspaceAndDateRange(anyLong(), any(), any())).thenReturn(List.of(
+                new SlotKey(10L, DAY.atTime(10, 0), DAY.atTime(11, 0))));
+        when(calendarSlotRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CoworkingRepository coworkingRepository = mock(CoworkingRepository.class);
+        when(coworkingRepository.findById(5L)).thenReturn(Optional.of(coworking));
+        ScheduleTemplateService scheduleTemplateService = new ScheduleTemplateService(coworkingRepository,
+                mock(ScheduleTemplateRepository.class), mock(ScheduleExceptionRepository.class),
+                mock(ApplicationEventPublisher.class));
+
+        AvailabilityService service = new AvailabilityService(calendarSlotRepository, mock(BookingRepository.class),
+                workspaceRepository, workspaceSeatRepository, coworkingRepository, mock(SlotOccupancyHourlyRepository.class),
+                mock(AvailabilityIndex.class), scheduleTemplateService, mock(ApplicationEventPublisher.class),
+                mock(OptimisticLockRetry.class), Optional.empty());
+        // Выходные по расписанию по умолчанию пропускаются
+        service.generateSlots(1L, DAY.minusDays(2), DAY, null, null, 0);
+
+        ArgumentCaptor<List<CalendarSlot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(calendarSlotRepository).saveAll(saved.capture());
+        assertEquals(List.of(DAY.atTime(9, 0), DAY.atTime(11, 0)),
+                saved.getValue().stream().map(CalendarSlot::getStartAt).toList());
+        verify(calendarSlotRepository, times(1)).findSlotKeysByWorkspaceAndDateRange(anyLong(), any(), any());
+
+        System.out.println("[DEBUG_LOG] Set-based slot generation test completed successfully");
+    }
+}
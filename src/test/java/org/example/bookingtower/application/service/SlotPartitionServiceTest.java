@@ -0,0 +1,38 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SlotPartitionServiceTest {
+
+    @Test
+    public void testPartitionBoundsAreWholeMonths() {
+        System.out.println("[DEBUG_LOG] Testing calendar_slots partition maintenance bounds");
+
+        CalendarSlotRepository calendarSlotRepository = mock(CalendarSlotRepository.class);
+        SlotArchiveService slotArchiveService = mock(SlotArchiveService.class);
+        when(slotArchiveService.archiveCutoff()).thenReturn(LocalDateTime.of(2025, 3, 17, 0, 0));
+        when(calendarSlotRepository.createMonthlyPartitions(any(), any())).thenReturn(1);
+        when(calendarSlotRepository.dropEmptyPartitionsBefore(any())).thenReturn(2);
+
+        SlotPartitionService service = new SlotPartitionService(calendarSlotRepository, slotArchiveService);
+
+        assertEquals(1, service.ensureFuturePartitions());
+        verify(calendarSlotRepository).createMonthlyPartitions(
+                argThat(from -> from.getDayOfMonth() == 1 && !from.isAfter(LocalDate.now().plusDays(1))),
+                argThat(to -> to.getDayOfMonth() == 1 && to.isAfter(LocalDate.now().plusMonths(12))));
+
+        // Март ещё содержит горячие слоты: удаляются только секции до 1 марта
+        assertEquals(2, service.dropArchivedPartitions());
+        verify(calendarSlotRepository).dropEmptyPartitionsBefore(LocalDate.of(2025, 3, 1));
+
+        System.out.println("[DEBUG_LOG] Partition maintenance test completed successfully");
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.bookingtower.application.service;
+
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.entity.Coworking;
+import org.example.bookingtower.domain.event.ScheduleChangedEvent;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.example.bookingtower.infrastructure.repository.CalendarSlotRepository;
+import org.example.bookingtower.infrastructure.repository.CoworkingRepository;
+import org.example.bookingtower.infrastructure.repository.ScheduleExceptionRepository;
+import org.example.bookingtower.infrastructure.repository.ScheduleTemplateRepository;
+import org.example.bookingtower.infrastructure.repository.WorkspaceSeatRepository;
+import org.example.bookingtower.infrastructure.repository.projection.SeatScheduleRow;
+import org.example.bookingtower.infrastructure.repository.projection.SlotIndexRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SparseAvailabilityIndexTest {
+
+    private static final Long WORKSPACE_ID = 1L;
+
+    private AvailabilityIndex availabilityIndex;
+    private AvailabilityVersions availabilityVersions;
+    private LocalDate monday;
+
+    @BeforeEach
+    public void setUp() {
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        CalendarSlotRepository slotRepository = mock(CalendarSlotRepository.class);
+        when(slotRepository.findIndexRowsStartingFrom(any())).thenReturn(List.of(
+                new SlotIndexRow(100L, 10L, "OS-01", WORKSPACE_ID,
+                        monday.atTime(10, 0), monday.atTime(11, 0), CalendarSlot.SlotStatus.BOOKED)
+        ));
+        WorkspaceSeatRepository seatRepository = mock(WorkspaceSeatRepository.class);
+        when(seatRepository.findActiveSeatSchedules()).thenReturn(List.of(
+                new SeatScheduleRow(10L, "OS-01", WORKSPACE_ID, 5L),
+                new SeatScheduleRow(11L, "OS-02", WORKSPACE_ID, 5L)
+        ));
+        Coworking coworking = new Coworking("Tower", "Address", "Europe/Moscow", LocalTime.of(9, 0), LocalTime.of(12, 0));
+        coworking.setId(5L);
+        CoworkingRepository coworkingRepository = mock(CoworkingRepository.class);
+        when(coworkingRepository.findById(5L)).thenReturn(Optional.of(coworking));
+        ScheduleTemplateService scheduleTemplateService = new ScheduleTemplateService(coworkingRepository,
+                mock(ScheduleTemplateRepository.class), mock(ScheduleExceptionRepository.class),
+                mock(ApplicationEventPublisher.class));
+
+        availabilityVersions = new AvailabilityVersions();
+        availabilityIndex = new AvailabilityIndex(slotRepository, seatRepository, scheduleTemplateService,
+                availabilityVersions, Optional.empty(), true, 30);
+        availabilityIndex.rebuild();
+    }
+
+    @Test
+    public void testVirtualSlotIdRoundTrip() {
+        System.out.println("[DEBUG_LOG] Testing virtual slot id encoding");
+
+        LocalDateTime startAt = LocalDateTime.of(2030, 12, 31, 23, 30);
+        long slotId = VirtualSlotIds.encode(123456L, startAt);
+
+        assertTrue(VirtualSlotIds.isVirtual(slotId));
+        assertFalse(VirtualSlotIds.isVirtual(42L));
+        assertEquals(123456L, VirtualSlotIds.seatId(slotId));
+        assertEquals(startAt, VirtualSlotIds.startAt(slotId));
+        assertThrows(IllegalArgumentException.class, () -> VirtualSlotIds.seatId(42L));
+    }
+
+    @Test
+    public void testDerivesOpenSlotsAroundPersistedRows() {
+        System.out.println("[DEBUG_LOG] Testing derived open slots in sparse mode");
+
+        LocalDateTime from = monday.atStartOfDay();
+        LocalDateTime to = monday.plusDays(1).atStartOfDay();
+
+        // 2 места x 3 часа, один час OS-01 забронирован
+        List<AvailabilityIndex.IndexedSlot> open = availabilityIndex.findOpen(WORKSPACE_ID, from, to);
+        assertEquals(5, open.size());
+        assertTrue(open.stream().allMatch(slot -> VirtualSlotIds.isVirtual(slot.slotId())));
+        assertFalse(open.stream().anyMatch(slot -> slot.seatId().equals(10L) && slot.startAt().getHour() == 10));
+
+        // Выходные не выводятся из расписания
+        LocalDate saturday = monday.minusDays(2);
+        if (availabilityIndex.covers(saturday)) {
+            assertEquals(0, availabilityIndex.countOpen(WORKSPACE_ID, saturday.atStartOfDay(), saturday.atTime(23, 0)));
+        }
+
+        long virtualId = VirtualSlotIds.encode(10L, monday.atTime(10, 0));
+        assertEquals(100L, availabilityIndex.findSlot(virtualId).orElseThrow().slotId());
+        assertEquals(CalendarSlot.SlotStatus.BOOKED, availabilityIndex.findSlot(virtualId).orElseThrow().status());
+
+        System.out.println("[DEBUG_LOG] Derived open slot test completed successfully");
+    }
+
+    @Test
+    public void testRemovedRowFallsBackToDerivedSlot() {
+        System.out.println("[DEBUG_LOG] Testing materialization and removal in sparse mode");
+
+        LocalDateTime from = monday.atStartOfDay();
+        LocalDateTime to = monday.plusDays(1).atStartOfDay();
+
+        // Удержание вычисляемого слота вставляет строку HELD
+        availabilityIndex.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                new SlotStatusChangedEvent.SlotChange(101L, 11L, "OS-02", WORKSPACE_ID,
+                        monday.atTime(9, 0), monday.atTime(10, 0), null, CalendarSlot.SlotStatus.HELD))));
+        assertEquals(4, availabilityIndex.countOpen(WORKSPACE_ID, from, to));
+
+        // Удаление строки возвращает вычисляемый OPEN-слот
+        availabilityIndex.onSlotStatusChanged(new SlotStatusChangedEvent(List.of(
+                new SlotStatusChangedEvent.SlotChange(100L, 10L, "OS-01", WORKSPACE_ID,
+                        monday.atTime(10, 0), monday.atTime(11, 0), CalendarSlot.SlotStatus.BOOKED, null))));
+        assertEquals(5, availabilityIndex.countOpen(WORKSPACE_ID, from, to));
+        assertEquals(VirtualSlotIds.encode(10L, monday.atTime(10, 0)),
+                availabilityIndex.findSlot(VirtualSlotIds.encode(10L, monday.atTime(10, 0))).orElseThrow().slotId());
+
+        System.out.println("[DEBUG_LOG] Sparse materialization test completed successfully");
+    }
+
+    @Test
+    public void testScheduleChangeBumpsVersionsAfterRebuild() {
+        System.out.println("[DEBUG_LOG] Testing availability versions after a schedule change");
+
+        assertEquals(0, availabilityVersions.getVersion(WORKSPACE_ID, monday));
+
+        // Удалённое изменение уже учтено узлом-источником: версии не увеличиваются
+        availabilityIndex.onScheduleChanged(new ScheduleChangedEvent(5L, true));
+        availabilityIndex.rebuild();
+        assertEquals(0, availabilityVersions.getVersion(WORKSPACE_ID, monday));
+
+        // Перестройка, применившая расписание, увеличивает версии дней его рабочих пространств
+        availabilityIndex.onScheduleChanged(new ScheduleChangedEvent(5L));
+        availabilityIndex.rebuild();
+        assertEquals(1, availabilityVersions.getVersion(WORKSPACE_ID, monday));
+        assertEquals(1, availabilityVersions.getVersion(LocalDate.now()));
+        assertEquals(0, availabilityVersions.getVersion(2L, monday));
+
+        availabilityIndex.onScheduleChanged(new ScheduleChangedEvent(7L));
+        availabilityIndex.rebuild();
+        assertEquals(1, availabilityVersions.getVersion(WORKSPACE_ID, monday));
+
+        System.out.println("[DEBUG_LOG] Schedule version test completed successfully");
+    }
+}
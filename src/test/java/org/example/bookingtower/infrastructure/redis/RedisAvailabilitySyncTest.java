@@ -0,0 +1,137 @@
+package org.example.bookingtower.infrastructure.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bookingtower.domain.entity.CalendarSlot;
+import org.example.bookingtower.domain.event.ScheduleChangedEvent;
+import org.example.bookingtower.domain.event.SlotStatusChangedEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка общих версий доступности и рассылки изменений между узлами на Redis в контейнере;
+ * без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisAvailabilitySyncTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeAll
+    public static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    public static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+    }
+
+    @Test
+    public void testVersionsAreSharedBetweenNodes() {
+        System.out.println("[DEBUG_LOG] Testing shared availability versions in Redis");
+
+        RedisAvailabilitySync first = new RedisAvailabilitySync(redisTemplate, objectMapper, event -> { });
+        RedisAvailabilitySync second = new RedisAvailabilitySync(redisTemplate, objectMapper, event -> { });
+
+        assertEquals(first.epoch(), second.epoch());
+
+        first.increment(Map.of(DAY, Set.of(1L, 2L)));
+        List<RedisAvailabilitySync.VersionValue> versions = second.increment(Map.of(DAY, Set.of(1L)));
+        assertTrue(versions.contains(new RedisAvailabilitySync.VersionValue(1L, DAY, 2)));
+        assertTrue(versions.contains(new RedisAvailabilitySync.VersionValue(null, DAY, 2)));
+
+        List<RedisAvailabilitySync.VersionValue> loaded = first.load(DAY);
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.contains(new RedisAvailabilitySync.VersionValue(2L, DAY, 1)));
+
+        // Прошедшие дни не загружаются
+        assertTrue(first.load(DAY.plusDays(1)).isEmpty());
+
+        String renewed = first.renewEpoch();
+        assertEquals(renewed, second.epoch());
+
+        System.out.println("[DEBUG_LOG] Shared availability version test completed successfully");
+    }
+
+    @Test
+    public void testChangesAreRelayedToOtherNodes() throws Exception {
+        System.out.println("[DEBUG_LOG] Testing availability change relay over Redis pub/sub");
+
+        BlockingQueue<Object> firstEvents = new LinkedBlockingQueue<>();
+        BlockingQueue<Object> secondEvents = new LinkedBlockingQueue<>();
+        RedisAvailabilitySync first = new RedisAvailabilitySync(redisTemplate, objectMapper, firstEvents::add);
+        RedisAvailabilitySync second = new RedisAvailabilitySync(redisTemplate, objectMapper, secondEvents::add);
+        first.start();
+        second.start();
+        try {
+            SlotStatusChangedEvent.SlotChange change = new SlotStatusChangedEvent.SlotChange(5L, 10L, "OS-01", 1L,
+                    DAY.atTime(9, 0), DAY.atTime(10, 0), CalendarSlot.SlotStatus.OPEN, CalendarSlot.SlotStatus.HELD);
+            List<RedisAvailabilitySync.VersionValue> versions = List.of(new RedisAvailabilitySync.VersionValue(1L, DAY, 3));
+            // Подписка устанавливается асинхронно: повторяем, пока сообщение не дойдёт
+            Object received = null;
+            for (int attempt = 0; attempt < 50 && received == null; attempt++) {
+                first.publishSlotChanges(List.of(change), versions);
+                received = secondEvents.poll(100, TimeUnit.MILLISECONDS);
+            }
+            assertNotNull(received, "Slot changes must reach the other node");
+
+            SlotStatusChangedEvent event = assertInstanceOf(SlotStatusChangedEvent.class, received);
+            assertTrue(event.isRemote());
+            assertEquals(List.of(change), event.getChanges());
+            RedisAvailabilitySync.RemoteVersions remoteVersions = assertInstanceOf(
+                    RedisAvailabilitySync.RemoteVersions.class, secondEvents.poll(5, TimeUnit.SECONDS));
+            assertEquals(versions, remoteVersions.versions());
+
+            // Повторы отправки выше могут дойти позже, сообщение о расписании приходит после них
+            first.publishScheduleChanged(5L);
+            Object schedule;
+            do {
+                schedule = secondEvents.poll(5, TimeUnit.SECONDS);
+            } while (schedule != null && !(schedule instanceof ScheduleChangedEvent));
+            assertEquals(new ScheduleChangedEvent(5L, true), schedule);
+
+            // Узел не получает собственные сообщения
+            assertTrue(firstEvents.isEmpty());
+        } finally {
+            first.stop();
+            second.stop();
+        }
+
+        System.out.println("[DEBUG_LOG] Availability change relay test completed successfully");
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.bookingtower.infrastructure.redis;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка Lua-скриптов хранилища удержаний на локальном Redis в контейнере; без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class RedisHoldStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisHoldStore holdStore;
+
+    @BeforeAll
+    public static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    public static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redisTemplate.getRequiredConnectionFactory().getConnection().serverCommands().flushAll();
+        holdStore = new RedisHoldStore(redisTemplate);
+    }
+
+    @Test
+    public void testSlotIsHeldBySingleUserWithNativeTtl() {
+        System.out.println("[DEBUG_LOG] Testing Redis slot hold");
+
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(42L, 7L, TTL, 3));
+        assertEquals(RedisHoldStore.AcquireResult.TAKEN, holdStore.acquire(42L, 8L, TTL, 3));
+        assertTrue(holdStore.isHeldBy(42L, 7L));
+        assertFalse(holdStore.isHeldBy(42L, 8L));
+
+        Long ttlMillis = redisTemplate.getExpire(RedisHoldStore.SLOT_KEY_PREFIX + 42, java.util.concurrent.TimeUnit.MILLISECONDS);
+        assertTrue(ttlMillis > 0 && ttlMillis <= TTL.toMillis());
+
+        // Снять удержание может только его владелец
+        assertFalse(holdStore.release(42L, 8L));
+        assertTrue(holdStore.release(42L, 7L));
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(42L, 8L, TTL, 3));
+
+        System.out.println("[DEBUG_LOG] Redis slot hold test completed successfully");
+    }
+
+    @Test
+    public void testUserHoldLimitCountsOnlyLiveHolds() throws InterruptedException {
+        System.out.println("[DEBUG_LOG] Testing Redis hold limit");
+
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(1L, 7L, Duration.ofMillis(200), 2));
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(2L, 7L, TTL, 2));
+        assertEquals(RedisHoldStore.AcquireResult.LIMIT_REACHED, holdStore.acquire(3L, 7L, TTL, 2));
+        assertFalse(holdStore.isHeldBy(3L, 7L), "Rejected hold must not leave a slot key");
+
+        // Истёкшее удержание освобождает и слот, и место в лимите
+        Thread.sleep(300);
+        assertFalse(holdStore.isHeldBy(1L, 7L));
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(3L, 7L, TTL, 2));
+
+        // Подтверждённое (снятое) удержание тоже
+        assertTrue(holdStore.release(2L, 7L));
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(4L, 7L, TTL, 2));
+
+        System.out.println("[DEBUG_LOG] Redis hold limit test completed successfully");
+    }
+
+    @Test
+    public void testExpiredHoldIsClaimedOnce() throws InterruptedException {
+        System.out.println("[DEBUG_LOG] Testing Redis hold expiry claim");
+
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(1L, 7L, Duration.ofMillis(50), 3));
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(2L, 7L, TTL, 3));
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(3L, 7L, Duration.ofMillis(50), 3));
+        assertEquals(Set.of(1L, 2L, 3L), holdStore.findAnnounced());
+        Thread.sleep(100);
+
+        // Истёкшее, но не снятое удержание перехватывается с новым сроком: снимать его уже нельзя
+        assertEquals(RedisHoldStore.AcquireResult.TAKEN_OVER, holdStore.acquire(3L, 8L, TTL, 3));
+        assertEquals(Set.of(2L, 3L), holdStore.findHeld(List.of(1L, 2L, 3L)));
+
+        List<RedisHoldStore.HoldExpiry> pending = new ArrayList<>();
+        List<RedisHoldStore.HoldExpiry> claimed = holdStore.claimDue(List.of(1L, 2L, 3L), pending);
+        assertEquals(List.of(1L), claimed.stream().map(RedisHoldStore.HoldExpiry::slotId).toList());
+        assertEquals(Set.of(2L, 3L), Set.copyOf(pending.stream().map(RedisHoldStore.HoldExpiry::slotId).toList()));
+        assertTrue(pending.stream().allMatch(expiry -> expiry.expiresAtMillis() > System.currentTimeMillis()));
+
+        // Другой узел то же удержание уже не получит
+        assertTrue(holdStore.claimDue(List.of(1L), new ArrayList<>()).isEmpty());
+        assertTrue(holdStore.claimExpired(10).isEmpty());
+        assertEquals(Set.of(2L, 3L), holdStore.findAnnounced());
+
+        System.out.println("[DEBUG_LOG] Redis hold expiry claim test completed successfully");
+    }
+
+    @Test
+    public void testSweepClaimsExpiredHoldsUpToLimit() throws InterruptedException {
+        System.out.println("[DEBUG_LOG] Testing Redis expired hold sweep");
+
+        for (long slotId = 1; slotId <= 3; slotId++) {
+            holdStore.acquire(slotId, 7L, Duration.ofMillis(50), 3);
+        }
+        Thread.sleep(100);
+
+        assertEquals(2, holdStore.claimExpired(2).size());
+        assertEquals(1, holdStore.claimExpired(2).size());
+        assertTrue(holdStore.findAnnounced().isEmpty());
+
+        System.out.println("[DEBUG_LOG] Redis expired hold sweep test completed successfully");
+    }
+
+    @Test
+    public void testEvictRemovesHoldRegardlessOfOwner() {
+        System.out.println("[DEBUG_LOG] Testing Redis hold eviction");
+
+        holdStore.acquire(1L, 7L, TTL, 2);
+        holdStore.acquire(2L, 7L, TTL, 2);
+
+        assertEquals(Set.of(1L), holdStore.evict(List.of(1L, 5L)));
+        assertFalse(holdStore.isHeldBy(1L, 7L));
+        assertTrue(holdStore.evict(List.of(1L)).isEmpty(), "Hold must be evicted only once");
+        // Снятое удержание не занимает место в лимите пользователя
+        assertEquals(RedisHoldStore.AcquireResult.ACQUIRED, holdStore.acquire(3L, 7L, TTL, 2));
+
+        // Подтверждённое удержание уходит из списка объявленных
+        assertTrue(holdStore.release(2L, 7L));
+        assertEquals(Set.of(3L), holdStore.findAnnounced());
+
+        System.out.println("[DEBUG_LOG] Redis hold eviction test completed successfully");
+    }
+}
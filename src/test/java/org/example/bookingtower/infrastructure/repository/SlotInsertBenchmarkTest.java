@@ -0,0 +1,185 @@
+package org.example.bookingtower.infrastructure.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Воспроизводимое сравнение скорости вставки слотов до и после перехода на id из последовательности
+ * блоками по 50 и JDBC-батчи. Повторяет запросы, которые Hibernate отправляет в обоих случаях:
+ * с IDENTITY — по одному INSERT ... RETURNING id на строку, с pooled-lo — один nextval на 50 строк и
+ * батч из 50 INSERT, который драйвер с {@code reWriteBatchedInserts=true} склеивает в один многострочный.
+ *
+ * Таблица повторяет столбцы и индексы calendar_slots без секционирования. Запуск (нужен Docker):
+ * {@code BENCHMARK=true ./gradlew test --tests '*SlotInsertBenchmarkTest'}; результаты — строки [DEBUG_LOG].
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+public class SlotInsertBenchmarkTest {
+
+    private static final int SEATS = 100;
+    private static final int DAYS = 26;
+    private static final int SLOTS_PER_DAY = 10;
+    private static final int BATCH_SIZE = 50;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 1, 9, 0);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private Connection connection;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        String url = POSTGRES.getJdbcUrl();
+        connection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS calendar_slots");
+            statement.execute("CREATE TABLE calendar_slots (" +
+                    "id BIGSERIAL PRIMARY KEY, seat_id BIGINT NOT NULL, start_at TIMESTAMP NOT NULL, " +
+                    "end_at TIMESTAMP NOT NULL, status VARCHAR(20) NOT NULL DEFAULT 'OPEN', " +
+                    "hold_expires_at TIMESTAMP, hold_user_id BIGINT, version BIGINT NOT NULL DEFAULT 0)");
+            statement.execute("CREATE UNIQUE INDEX uk_slot_seat_start ON calendar_slots (seat_id, start_at)");
+            statement.execute("CREATE INDEX idx_slot_status ON calendar_slots (status)");
+            statement.execute("CREATE INDEX idx_slot_start_at ON calendar_slots (start_at)");
+            statement.execute("CREATE INDEX idx_slot_end_at ON calendar_slots (end_at)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testBatchedInsertsAgainstRowByRow() throws SQLException {
+        System.out.println("[DEBUG_LOG] Benchmarking slot inserts: " + SEATS + " seats x " + DAYS + " days x "
+                + SLOTS_PER_DAY + " slots");
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                starts.add(START.plusDays(day).plusHours(slot));
+            }
+        }
+
+        // Прогрев: JIT и кэш планов; замеры ниже — на пустой таблице в одинаковых условиях
+        truncate(1);
+        insertRowByRow(1_000_001L, starts);
+        truncate(BATCH_SIZE);
+        insertBatched(1_000_002L, starts, BATCH_SIZE);
+
+        truncate(1);
+        long rowByRow = measure(() -> {
+            for (long seatId = 1; seatId <= SEATS; seatId++) {
+                insertRowByRow(seatId, starts);
+            }
+        });
+        truncate(BATCH_SIZE);
+        long batched = measure(() -> {
+            for (long seatId = 1; seatId <= SEATS; seatId++) {
+                insertBatched(seatId, starts, BATCH_SIZE);
+            }
+        });
+
+        int rows = SEATS * starts.size();
+        System.out.printf("[DEBUG_LOG] IDENTITY, row by row: %d rows in %d ms (%.0f rows/s)%n",
+                rows, rowByRow, rows * 1000.0 / rowByRow);
+        System.out.printf("[DEBUG_LOG] pooled-lo + batch %d: %d rows in %d ms (%.0f rows/s), %.1fx%n",
+                BATCH_SIZE, rows, batched, rows * 1000.0 / batched, (double) rowByRow / batched);
+        assertEquals(rows, count());
+    }
+
+    private void insertRowByRow(long seatId, List<LocalDateTime> starts) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO calendar_slots (seat_id, start_at, end_at, status, version) VALUES (?, ?, ?, 'OPEN', 0) RETURNING id")) {
+            for (LocalDateTime startAt : starts) {
+                bind(insert, 1, seatId, startAt);
+                try (ResultSet generated = insert.executeQuery()) {
+                    assertTrue(generated.next());
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    private void insertBatched(long seatId, List<LocalDateTime> starts, int batchSize) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement nextBlock = connection.prepareStatement("SELECT nextval('calendar_slots_id_seq')");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO calendar_slots (id, seat_id, start_at, end_at, status, version) VALUES (?, ?, ?, ?, 'OPEN', 0)")) {
+            long nextId = 0;
+            long blockEnd = 0;
+            for (int i = 0; i < starts.size(); i++) {
+                if (nextId == blockEnd) {
+                    try (ResultSet block = nextBlock.executeQuery()) {
+                        block.next();
+                        nextId = block.getLong(1);
+                        blockEnd = nextId + batchSize;
+                    }
+                }
+                insert.setLong(1, nextId++);
+                bind(insert, 2, seatId, starts.get(i));
+                insert.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void bind(PreparedStatement insert, int from, long seatId, LocalDateTime startAt) throws SQLException {
+        insert.setLong(from, seatId);
+        insert.setTimestamp(from + 1, Timestamp.valueOf(startAt));
+        insert.setTimestamp(from + 2, Timestamp.valueOf(startAt.plusHours(1)));
+    }
+
+    // Пустая таблица и последовательность с шагом, как у проверяемого варианта
+    private void truncate(int increment) throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE calendar_slots RESTART IDENTITY");
+            statement.execute("ALTER SEQUENCE calendar_slots_id_seq INCREMENT BY " + increment);
+            statement.execute("VACUUM ANALYZE calendar_slots");
+        }
+    }
+
+    private long count() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM calendar_slots")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static long measure(SqlRun run) throws SQLException {
+        long started = System.nanoTime();
+        run.run();
+        return Math.max(1, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @FunctionalInterface
+    private interface SqlRun {
+        void run() throws SQLException;
+    }
+}
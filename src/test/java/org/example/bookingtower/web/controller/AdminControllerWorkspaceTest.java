@@ -2,6 +2,8 @@ package org.example.bookingtower.web.controller;
 
 import org.example.bookingtower.application.service.AvailabilityService;
 import org.example.bookingtower.application.service.BookingService;
+import org.example.bookingtower.application.service.SlotArchiveService;
+import org.example.bookingtower.application.service.SlotGenerationJobService;
 import org.example.bookingtower.application.service.WorkspaceService;
 import org.example.bookingtower.domain.entity.Coworking;
 import org.example.bookingtower.domain.entity.Workspace;
@@ -58,6 +60,12 @@ public class AdminControllerWorkspaceTest {
     @Autowired
     private WorkspaceService workspaceService;
 
+    @Autowired
+    private SlotGenerationJobService slotGenerationJobService;
+
+    @Autowired
+    private SlotArchiveService slotArchiveService;
+
     private AdminController adminController;
     private Coworking testCoworking;
 
@@ -68,7 +76,8 @@ public class AdminControllerWorkspaceTest {
         // Создайте экземпляр Admincontroller
         adminController = new AdminController(userRepository, bookingRepository, workspaceRepository, 
                                             coworkingRepository, workspaceSeatRepository, calendarSlotRepository, 
-                                            availabilityService, bookingService, workspaceService);
+                                            availabilityService, bookingService, workspaceService,
+                                            slotGenerationJobService, slotArchiveService);
 
         // Создать тест -коворкинг
         testCoworking = new Coworking();